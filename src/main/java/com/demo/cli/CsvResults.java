@@ -0,0 +1,79 @@
+package com.demo.cli;
+
+import com.demo.model.StatementData;
+import com.demo.service.BatchResult;
+import com.demo.service.ParseErrors;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Writes batch results as CSV, one row per statement with its summary fields;
+ * transaction lines are left to the NDJSON format. Absent fields are empty.
+ */
+final class CsvResults implements StatementCli.Results {
+
+    static final String HEADER = "index,file,success,issuer,card_last_four,card_variant,"
+            + "payment_due_date,total_balance,total_transactions,transactions_read,error";
+
+    private final Writer out;
+
+    CsvResults(Writer out) throws IOException {
+        this.out = out;
+        out.write(HEADER);
+        out.write('\n');
+    }
+
+    @Override
+    public void write(BatchResult result) throws IOException {
+        StringBuilder row = new StringBuilder(128);
+        row.append(result.getIndex()).append(',');
+        field(row, result.getName()).append(',');
+        row.append(result.isSuccess()).append(',');
+        if (result.isSuccess()) {
+            StatementData data = result.getData();
+            row.append(data.getIssuer().name()).append(',');
+            if (data.hasCardLastFour()) {
+                row.append(String.format("%04d", data.getCardLastFour()));
+            }
+            row.append(',');
+            field(row, data.getCardVariant()).append(',');
+            if (data.hasPaymentDueDate()) {
+                row.append(LocalDate.ofEpochDay(data.getPaymentDueDate()));
+            }
+            row.append(',');
+            if (data.hasTotalBalance()) {
+                row.append(BigDecimal.valueOf(data.getTotalBalance(), 2).toPlainString());
+            }
+            row.append(',');
+            if (data.hasTotalTransactions()) {
+                row.append(data.getTotalTransactions());
+            }
+            row.append(',').append(data.getTransactions().size()).append(',');
+        } else {
+            row.append(",,,,,,,");
+            field(row, ParseErrors.message(result.getError()));
+        }
+        out.append(row).append('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /** Appends {@code value} quoted if it holds a comma, quote or line break; nothing if it is null. */
+    private static StringBuilder field(StringBuilder row, String value) {
+        if (value == null) {
+            return row;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? row.append('"').append(value.replace("\"", "\"\"")).append('"') : row.append(value);
+    }
+}
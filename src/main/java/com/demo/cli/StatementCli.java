@@ -0,0 +1,293 @@
+package com.demo.cli;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.ConsoleAppender;
+import com.demo.detection.FingerprintIndex;
+import com.demo.parser.AxisBankParser;
+import com.demo.parser.BankOfBarodaParser;
+import com.demo.parser.HDFCParser;
+import com.demo.parser.ICICIParser;
+import com.demo.parser.KotakBankParser;
+import com.demo.parser.ParseContextFactory;
+import com.demo.parser.SBIParser;
+import com.demo.service.BatchResult;
+import com.demo.service.NdjsonResults;
+import com.demo.service.ParseRequest;
+import com.demo.service.ParseResultCache;
+import com.demo.service.StatementBatchService;
+import com.demo.service.StatementParserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Parses statement PDFs from the command line and writes the results to
+ * standard output as NDJSON, in the same shape as {@code /api/statements/batch},
+ * or CSV. The parsers are wired directly rather than through a Spring context,
+ * so there is no component scan, no embedded Tomcat and no JSP engine, and the
+ * JVM is parsing within a fraction of a second of starting. Run it from the
+ * packaged jar with
+ * <pre>
+ * java -cp credit-card-statement-parser.jar -Dloader.main=com.demo.cli.StatementCli \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher [options] PATH...
+ * </pre>
+ * For per-file cron and container jobs, run it from the extracted jar
+ * ({@code java -Djarmode=tools -jar ... extract}) as
+ * {@code java -cp credit-card-statement-parser-1.0.0.jar com.demo.cli.StatementCli},
+ * which skips the nested-jar class loader, ideally with a class data sharing
+ * archive recorded by one run with {@code -XX:ArchiveClassesAtExit} and
+ * {@code -XX:TieredStopAtLevel=1}.
+ * <p>
+ * Logging goes to standard error at WARN, so it never mixes with the results.
+ * The exit status is 0 when every statement parsed, 1 when any failed, 2 for
+ * bad arguments and 3 when the results could not be written or the run was
+ * interrupted.
+ */
+public final class StatementCli {
+
+    static final String USAGE = """
+            Usage: statement-cli [options] PATH...
+              PATH                  a statement PDF, or a directory whose *.pdf files are parsed
+              --files-from FILE     also read paths from FILE, one per line ("-" for standard input)
+              --format FORMAT       ndjson (default) or csv
+              --parallelism N       statements parsed at once (default: available processors)
+              --password-env NAME   password for every PDF, read from environment variable NAME
+              --password-file FILE  password for every PDF, read from the first line of FILE
+              --passwords FILE      properties file mapping PDF file names or paths to passwords
+            Exit status: 0 all parsed, 1 some failed, 2 bad arguments, 3 results not written or interrupted
+            """;
+
+    /** Where the results of a run are written. */
+    interface Results {
+
+        void write(BatchResult result) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private final List<Path> inputs = new ArrayList<>();
+    private String format = "ndjson";
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private String defaultPassword;
+    private Properties passwords = new Properties();
+
+    private StatementCli() {
+    }
+
+    public static void main(String[] args) {
+        logWarningsToStandardError();
+        OutputStream out = new FileOutputStream(FileDescriptor.out);
+        System.exit(run(args, System.in, out, System.err, System.getenv()));
+    }
+
+    static int run(String[] args, InputStream stdin, OutputStream out, PrintStream err, Map<String, String> env) {
+        StatementCli cli = new StatementCli();
+        List<ParseRequest> requests;
+        try {
+            if (!cli.parseArguments(args, stdin, env)) {
+                err.print(USAGE);
+                return 2;
+            }
+            requests = cli.requests();
+        } catch (IllegalArgumentException | IOException e) {
+            err.println("statement-cli: " + e.getMessage());
+            return 2;
+        }
+
+        int[] failures = {0};
+        try (StatementBatchService batch = new StatementBatchService(parserService(), cli.parallelism,
+                cli.parallelism * 4)) {
+            Results results = cli.results(out);
+            batch.parseAll(requests, result -> {
+                if (!result.isSuccess()) {
+                    failures[0]++;
+                }
+                try {
+                    results.write(result);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, () -> {
+                try {
+                    results.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            results.flush();
+        } catch (IOException | UncheckedIOException e) {
+            err.println("statement-cli: could not write results: " + e.getMessage());
+            return 3;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 3;
+        }
+        return failures[0] == 0 ? 0 : 1;
+    }
+
+    /** Every parser, with no result cache and no fingerprint learning, which only pay off in a long-lived server. */
+    static StatementParserService parserService() {
+        return new StatementParserService(ParseContextFactory.defaults(), new ParseResultCache(0, Duration.ofMinutes(1)),
+                FingerprintIndex.disabled(), new BankOfBarodaParser(), new HDFCParser(), new ICICIParser(),
+                new SBIParser(), new AxisBankParser(), new KotakBankParser());
+    }
+
+    /**
+     * Sends WARN and above to standard error, keeping standard output for the
+     * results. Configured in code, as reading an XML configuration would add
+     * about a quarter of a second to every run.
+     */
+    private static void logWarningsToStandardError() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%level %logger{0} - %msg%n");
+        encoder.start();
+        ConsoleAppender<ILoggingEvent> appender = new ConsoleAppender<>();
+        appender.setContext(context);
+        appender.setTarget("System.err");
+        appender.setEncoder(encoder);
+        appender.start();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.WARN);
+        root.addAppender(appender);
+    }
+
+    /** Reads the options; false if usage should be shown instead. */
+    private boolean parseArguments(String[] args, InputStream stdin, Map<String, String> env) throws IOException {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("-h") || arg.equals("--help")) {
+                return false;
+            }
+            if (!arg.startsWith("--")) {
+                inputs.add(Path.of(arg));
+                continue;
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException(arg + " needs a value");
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--files-from" -> {
+                    if (value.equals("-")) {
+                        readPaths(stdin);
+                    } else {
+                        try (InputStream in = Files.newInputStream(Path.of(value))) {
+                            readPaths(in);
+                        }
+                    }
+                }
+                case "--format" -> format = value.toLowerCase(Locale.ROOT);
+                case "--parallelism" -> parallelism = Integer.parseInt(value);
+                case "--password-env" -> defaultPassword = env.get(value);
+                case "--password-file" -> defaultPassword = firstLine(Path.of(value));
+                case "--passwords" -> {
+                    try (InputStream in = Files.newInputStream(Path.of(value))) {
+                        passwords.load(in);
+                    }
+                }
+                default -> throw new IllegalArgumentException("unknown option " + arg);
+            }
+        }
+        if (!format.equals("ndjson") && !format.equals("csv")) {
+            throw new IllegalArgumentException("unknown format " + format);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("--parallelism must be at least 1");
+        }
+        return !inputs.isEmpty();
+    }
+
+    /** Reads paths from {@code in}, leaving it open, since it may be standard input. */
+    private void readPaths(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (!line.isBlank()) {
+                inputs.add(Path.of(line.strip()));
+            }
+        }
+    }
+
+    private static String firstLine(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            return line == null ? "" : line;
+        }
+    }
+
+    /** The PDFs named on the command line, with directories expanded, in the order given. */
+    private List<ParseRequest> requests() throws IOException {
+        List<ParseRequest> requests = new ArrayList<>();
+        for (Path input : inputs) {
+            if (!Files.isDirectory(input)) {
+                requests.add(ParseRequest.of(input, password(input)));
+                continue;
+            }
+            List<Path> files = new ArrayList<>();
+            try (DirectoryStream<Path> directory = Files.newDirectoryStream(input)) {
+                for (Path file : directory) {
+                    if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".pdf")
+                            && Files.isRegularFile(file)) {
+                        files.add(file);
+                    }
+                }
+            }
+            files.sort(null);
+            for (Path file : files) {
+                requests.add(ParseRequest.of(file, password(file)));
+            }
+        }
+        return requests;
+    }
+
+    private String password(Path file) {
+        return passwords.getProperty(file.toString(),
+                passwords.getProperty(file.getFileName().toString(), defaultPassword));
+    }
+
+    private Results results(OutputStream out) throws IOException {
+        if (format.equals("csv")) {
+            return new CsvResults(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16));
+        }
+        NdjsonResults ndjson = new NdjsonResults(new ObjectMapper(), out, 1 << 16, Duration.ofSeconds(1));
+        return new Results() {
+
+            @Override
+            public void write(BatchResult result) throws IOException {
+                ndjson.write(result);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                ndjson.flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,145 @@
+package com.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Tuning knobs for statement parsing, bound from {@code parser.*} in
+ * application.properties. Defaults apply when the class is created directly,
+ * so the parsing pipeline can also be wired without Spring.
+ */
+@Data
+@ConfigurationProperties(prefix = "parser")
+public class ParserProperties {
+
+    /** Longest one statement may take to load, strip and parse before it is stopped. */
+    private Duration parseTimeout = Duration.ofSeconds(30);
+    private Loading loading = new Loading();
+    private Extraction extraction = new Extraction();
+    private Cache cache = new Cache();
+    private TextStore textStore = new TextStore();
+    private Fingerprint fingerprint = new Fingerprint();
+    private Patterns patterns = new Patterns();
+    private Batch batch = new Batch();
+    private Async async = new Async();
+    private Bulk bulk = new Bulk();
+    private Ingest ingest = new Ingest();
+
+    @Data
+    public static class Loading {
+        /** Read spooled PDFs through a memory-mapped buffer instead of buffered file reads. */
+        private boolean memoryMapped = true;
+        /** Heap PDFBox may use for scratch streams per document before spilling to temp files. */
+        private DataSize maxMainMemory = DataSize.ofMegabytes(4);
+    }
+
+    @Data
+    public static class Extraction {
+        /** Documents with fewer pages than this are stripped on the calling thread. */
+        private int parallelThreshold = 40;
+        /** Upper bound on worker threads used to strip one document. */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        /** Smallest page range handed to a single worker. */
+        private int minPagesPerChunk = 10;
+    }
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        /** Approximate heap the cached statements may take, transaction lines included. */
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+        /** How long a parsed statement stays cached after it was parsed. */
+        private Duration ttl = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class TextStore {
+        /** Persist extracted statement text locally; off by default because it stores statement contents. */
+        private boolean enabled = false;
+        private String directory = "data/text-store";
+    }
+
+    @Data
+    public static class Fingerprint {
+        /**
+         * Break ties between issuers a statement header names with the issuer learned for its PDF metadata and
+         * fonts. Text is still extracted and classified for every statement, so this saves no work.
+         */
+        private boolean enabled = false;
+        /** Where learned fingerprints are kept; unset keeps them in memory only. */
+        private String file = "data/fingerprints.json";
+        /** Weighted share of a document's features that must agree before the fingerprint counts. */
+        private double minConfidence = 0.75;
+        /** Times a feature value must have been seen before it counts as evidence. */
+        private int minSamples = 2;
+    }
+
+    @Data
+    public static class Patterns {
+        /** Run every parser pattern over a sample statement before the application reports ready. */
+        private boolean warmup = true;
+        private int warmupIterations = 200;
+        /** Longest a single regex search may run before it is abandoned as a non-match. */
+        private Duration matchTimeout = Duration.ofMillis(250);
+        /** Total regex search time allowed while parsing one statement. */
+        private Duration parseBudget = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Batch {
+        /** Worker threads parsing the statements of a batch, each one statement at a time. */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        /** Statements a batch submits ahead of its workers; bounds memory for very large batches. */
+        private int maxInFlight = 2 * Runtime.getRuntime().availableProcessors();
+    }
+
+    @Data
+    public static class Async {
+        /** Parse workers behind the JSON API; sized for CPU, independently of Tomcat's request threads. */
+        private int workers = Runtime.getRuntime().availableProcessors();
+        /** Statements that may wait for a parse worker before new ones are turned away. */
+        private int queueCapacity = 100;
+    }
+
+    @Data
+    public static class Bulk {
+        /** Largest PDF accepted from a bulk ZIP upload; bigger entries are reported as failed. */
+        private DataSize maxEntrySize = DataSize.ofMegabytes(50);
+        /** NDJSON results are buffered up to this size before they are sent to the client. */
+        private DataSize flushSize = DataSize.ofKilobytes(64);
+        /** Longest a finished result may sit in the buffer while further results keep arriving. */
+        private Duration maxFlushDelay = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Ingest {
+        /** Watch {@code inbox} and parse the PDFs dropped into it; usually run with the headless ingest profile. */
+        private boolean enabled = false;
+        private Path inbox = Path.of("ingest/inbox");
+        /** One JSON file per parsed statement. */
+        private Path results = Path.of("ingest/results");
+        /** PDFs that failed to parse, each next to a {@code .error.txt} saying why. */
+        private Path failed = Path.of("ingest/failed");
+        /** Set to keep parsed PDFs by moving them here; by default they are deleted once their result is written. */
+        private Path processed;
+        /** Password for every PDF that {@code passwordsFile} does not name. */
+        private String password;
+        /** Optional {@link java.util.Properties} file mapping PDF file names to passwords, re-read when it changes. */
+        private Path passwordsFile;
+        private int parallelism = 4;
+        /** Files claimed from the inbox ahead of the workers; the rest stay there for later. */
+        private int queueCapacity = 32;
+        /** Files modified more recently than this are assumed to be still arriving. */
+        private Duration settleTime = Duration.ofSeconds(2);
+        /** Rescan the inbox this often even without a watch event, as events can be lost. */
+        private Duration pollInterval = Duration.ofSeconds(10);
+        /** How often throughput and backlog are logged and written to {@code statsFile}. */
+        private Duration statsInterval = Duration.ofMinutes(1);
+        /** JSON file the stats are kept in, for headless nodes without {@code /stats/ingest}; unset writes none. */
+        private Path statsFile = Path.of("ingest/stats.json");
+    }
+}
@@ -0,0 +1,90 @@
+package com.demo.config;
+
+import com.demo.parser.PatternCatalog;
+import com.demo.parser.StatementParser;
+import com.demo.parser.SummaryFields;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Validates the {@link PatternCatalog} and runs every pattern over a sample
+ * statement at startup. Application runners complete before the
+ * {@code ApplicationReadyEvent} that switches readiness to accepting traffic,
+ * so the matcher code is already JIT-compiled when the first upload arrives.
+ */
+@Component
+public class PatternWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PatternWarmup.class);
+
+    static final String SAMPLE_STATEMENT = """
+            HDFC Bank Credit Card Statement
+            Regalia Credit Card Statement for HDFC Bank Credit Card
+            Card No: 4567 89XX XXXX 1234
+            Card Number: XXXX XXXX XXXX 7788
+            Statement Date: 15/02/2024
+            Statement Period: 16/01/2024 to 15/02/2024
+            Billing Period : 16/01/2024 - 15/02/2024
+            Payment Due Date: 05/03/2024
+            Due Date 5 Mar 2024
+            Pay by March 05, 2024
+            Total Dues: ₹45,678.90
+            Total Amount Due : Rs. 12,345.67
+            Total Payment Due 23,456.00
+            Minimum Amount Due: 2,284.00
+            Outstanding Balance 8,765.43
+            Credit Limit 2,00,000.00 Available Credit Limit 1,54,321.10
+            Date Transaction Details Amount (in Rs.)
+            18/01/2024 AMAZON PAYMENTS INDIA BANGALORE 1,299.00
+            21/01/2024 SWIGGY ORDER 8842 BANGALORE 456.50 Cr
+            25-Jan-2024 UBER INDIA SYSTEMS 312.00
+            02/02/2024 PAYMENT RECEIVED THANK YOU 20,000.00 CR
+            12 transactions this cycle
+            ICICI Bank Coral Credit Card 4315XXXXXXXX7788
+            Axis Bank Magnus Credit Card Statement
+            Kotak Bank League Credit Card
+            SBI Card SimplyClick statement
+            Bank of Baroda BOB Card statement
+            """;
+
+    private final List<StatementParser> parsers;
+    private final ParserProperties.Patterns settings;
+
+    // The parsers are injected so their classes, and the patterns they declare, are loaded
+    public PatternWarmup(List<StatementParser> parsers, ParserProperties properties) {
+        this.parsers = parsers;
+        this.settings = properties.getPatterns();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        SummaryFields.create();
+        PatternCatalog.validate(parsers.stream().map(parser -> parser.signature().getIssuer()).toList());
+        if (!settings.isWarmup()) {
+            return;
+        }
+        long start = System.nanoTime();
+        int patterns = 0;
+        long matches = 0;
+        for (int i = 0; i < settings.getWarmupIterations(); i++) {
+            for (List<Pattern> issuerPatterns : PatternCatalog.patterns().values()) {
+                for (Pattern pattern : issuerPatterns) {
+                    Matcher matcher = pattern.matcher(SAMPLE_STATEMENT);
+                    while (matcher.find()) {
+                        matches++;
+                    }
+                    patterns += i == 0 ? 1 : 0;
+                }
+            }
+        }
+        log.info("Warmed up {} patterns for {} parsers in {} ms ({} matches)",
+                patterns, parsers.size(), (System.nanoTime() - start) / 1_000_000, matches);
+    }
+}
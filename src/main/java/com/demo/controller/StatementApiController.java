@@ -0,0 +1,219 @@
+package com.demo.controller;
+
+import com.demo.config.ParserProperties;
+import com.demo.model.StatementData;
+import com.demo.pdf.PdfSource;
+import com.demo.service.AsyncStatementParser;
+import com.demo.service.BatchResult;
+import com.demo.service.NdjsonResults;
+import com.demo.service.ParseErrors;
+import com.demo.service.ParseRequest;
+import com.demo.service.StatementBatchService;
+import com.demo.service.ZipStatements;
+import com.demo.text.DeadlineExceededException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * JSON API for parsing statements. The upload is spooled on the request
+ * thread and the parse runs on the {@link AsyncStatementParser} workers, so
+ * Tomcat's request threads are released while PDFBox works and the two
+ * pools are sized independently. A parse that outlives
+ * {@code parser.parse-timeout} answers 504, and one whose request times out
+ * or fails, such as when the client goes away, is cancelled.
+ * <p>
+ * {@code /batch} and {@code /bulk} parse many statements on the
+ * {@link StatementBatchService} workers and stream one NDJSON line back per
+ * statement as it completes. {@code /bulk} takes a ZIP archive as the raw
+ * request body, so it is not bound by the multipart size limits, and parses
+ * its PDFs as the archive streams in.
+ */
+@RestController
+@RequestMapping("/api/statements")
+public class StatementApiController {
+
+    private final AsyncStatementParser asyncParser;
+    private final StatementBatchService batchService;
+    private final ObjectMapper objectMapper;
+    private final long maxEntryBytes;
+    private final int flushBytes;
+    private final Duration maxFlushDelay;
+
+    @Autowired
+    public StatementApiController(AsyncStatementParser asyncParser, StatementBatchService batchService,
+                                  ObjectMapper objectMapper, ParserProperties properties) {
+        this(asyncParser, batchService, objectMapper, properties.getBulk().getMaxEntrySize().toBytes(),
+                (int) properties.getBulk().getFlushSize().toBytes(), properties.getBulk().getMaxFlushDelay());
+    }
+
+    public StatementApiController(AsyncStatementParser asyncParser, StatementBatchService batchService,
+                                  ObjectMapper objectMapper, long maxEntryBytes,
+                                  int flushBytes, Duration maxFlushDelay) {
+        this.asyncParser = asyncParser;
+        this.batchService = batchService;
+        this.objectMapper = objectMapper;
+        this.maxEntryBytes = maxEntryBytes;
+        this.flushBytes = flushBytes;
+        this.maxFlushDelay = maxFlushDelay;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<StatementData> parse(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "password", required = false) String password,
+            @RequestParam(value = "summaryOnly", defaultValue = "false") boolean summaryOnly) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Please select a PDF file to upload.");
+        }
+        if (!MediaType.APPLICATION_PDF_VALUE.equals(file.getContentType())) {
+            throw new IllegalArgumentException("Please upload a PDF file.");
+        }
+        return deferred(asyncParser.parse(PdfSource.spool(file.getInputStream()), password, summaryOnly));
+    }
+
+    /** Completes with the parse, and cancels it if the async request ends first. */
+    private static DeferredResult<StatementData> deferred(CompletableFuture<StatementData> parse) {
+        DeferredResult<StatementData> result = new DeferredResult<>();
+        result.onTimeout(() -> parse.cancel(true));
+        result.onError(error -> parse.cancel(true));
+        parse.whenComplete((data, error) -> {
+            if (error == null) {
+                result.setResult(data);
+            } else {
+                result.setErrorResult(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Parses every uploaded PDF with the one password and answers with one
+     * JSON line per statement, in completion order, as each is parsed. The
+     * uploads are bound by the multipart size limits; larger batches go
+     * through {@code /bulk}.
+     */
+    @PostMapping(path = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = NdjsonResults.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> parseBatch(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "password", required = false) String password) {
+        List<ParseRequest> requests = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            requests.add(new ParseRequest(file.getOriginalFilename(),
+                    () -> PdfSource.spool(file.getInputStream()), password));
+        }
+        return ndjson(results -> batchService.parseAll(requests, results::write, results::flush));
+    }
+
+    /**
+     * Parses every PDF in the ZIP body and answers with one JSON line per
+     * statement, in completion order, as each is parsed. The password header
+     * applies to every PDF that a {@value ZipStatements#PASSWORDS_ENTRY} entry
+     * in the archive does not name.
+     */
+    @PostMapping(path = "/bulk", consumes = {"application/zip", "application/x-zip-compressed",
+            MediaType.APPLICATION_OCTET_STREAM_VALUE}, produces = NdjsonResults.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> parseBulk(
+            InputStream archive,
+            @RequestHeader(value = "X-Statement-Password", required = false) String password) {
+        return ndjson(results -> {
+            try (ZipStatements statements = new ZipStatements(archive, password, maxEntryBytes)) {
+                batchService.parseAll(statements, results::write, results::flush);
+            }
+        });
+    }
+
+    /**
+     * Streams a batch's results as NDJSON from the async request thread. The
+     * batch runs on that thread too, so a client that reads slowly blocks the
+     * writes and, through them, the batch.
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(NdjsonBatch batch) {
+        StreamingResponseBody body = out -> {
+            NdjsonResults results = new NdjsonResults(objectMapper, out, flushBytes, maxFlushDelay);
+            try {
+                batch.run(new UncheckedResults(results));
+            } catch (UncheckedIOException e) {
+                results.writeFailure(e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            results.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NdjsonResults.MEDIA_TYPE)).body(body);
+    }
+
+    @FunctionalInterface
+    private interface NdjsonBatch {
+        void run(UncheckedResults results) throws IOException, InterruptedException;
+    }
+
+    /** {@link NdjsonResults} for the batch callbacks, which cannot throw {@link IOException}. */
+    private record UncheckedResults(NdjsonResults results) {
+
+        void write(BatchResult result) {
+            try {
+                results.write(result);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void flush() {
+            try {
+                results.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return error(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(IOException.class)
+    public ResponseEntity<Map<String, String>> unreadable(IOException e) {
+        return error(HttpStatus.UNPROCESSABLE_ENTITY, ParseErrors.message(e));
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<Map<String, String>> tooSlow(DeadlineExceededException e) {
+        return error(HttpStatus.GATEWAY_TIMEOUT, ParseErrors.message(e));
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> busy(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "5")
+                .body(Map.of("error", "Too many statements are being parsed. Please try again shortly."));
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Map.of("error", String.valueOf(message)));
+    }
+}
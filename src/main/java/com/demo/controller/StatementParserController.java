@@ -1,17 +1,22 @@
 package com.demo.controller;
 
 import com.demo.model.StatementData;
+import com.demo.model.StatementView;
+import com.demo.service.StatementIngester;
 import com.demo.service.StatementParserService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
+import java.util.Map;
 
 @Controller
 public class StatementParserController {
@@ -19,15 +24,32 @@ public class StatementParserController {
     @Autowired
     private StatementParserService parserService;
     
+    @Autowired
+    private ObjectProvider<StatementIngester> ingester;
+    
     @GetMapping("/")
     public String index() {
         return "index";
     }
     
+    @GetMapping("/stats/cache")
+    @ResponseBody
+    public Map<String, Object> cacheStats() {
+        return parserService.cacheStats();
+    }
+    
+    @GetMapping("/stats/ingest")
+    @ResponseBody
+    public Map<String, Object> ingestStats() {
+        StatementIngester active = ingester.getIfAvailable();
+        return active == null ? Map.of("enabled", false) : active.stats();
+    }
+    
     @PostMapping("/upload")
     public String uploadFile(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "password", required = false) String password,
+            @RequestParam(value = "summaryOnly", defaultValue = "false") boolean summaryOnly,
             Model model,
             RedirectAttributes redirectAttributes) {
         
@@ -48,8 +70,10 @@ public class StatementParserController {
         }
         
         try {
-            StatementData statementData = parserService.parseStatement(file.getInputStream(), password);
-            model.addAttribute("statementData", statementData);
+            StatementData statementData = summaryOnly
+                    ? parserService.parseSummary(file.getInputStream(), password)
+                    : parserService.parseStatement(file.getInputStream(), password);
+            model.addAttribute("statementData", StatementView.of(statementData));
             model.addAttribute("fileName", file.getOriginalFilename());
             return "result";
         } catch (IOException e) {
@@ -0,0 +1,33 @@
+package com.demo.detection;
+
+import java.util.Map;
+
+/** Outcome of one classifier pass: the winning issuer, if any, and every issuer's score. */
+public final class Classification {
+
+    private final String issuer;
+    private final Map<String, Integer> scores;
+
+    Classification(String issuer, Map<String, Integer> scores) {
+        this.issuer = issuer;
+        this.scores = scores;
+    }
+
+    /** The winning issuer, or {@code null} when no signature matched. */
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public boolean isMatched() {
+        return issuer != null;
+    }
+
+    public Map<String, Integer> getScores() {
+        return scores;
+    }
+
+    @Override
+    public String toString() {
+        return "Classification(issuer=" + issuer + ", scores=" + scores + ")";
+    }
+}
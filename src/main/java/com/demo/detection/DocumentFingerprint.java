@@ -0,0 +1,107 @@
+package com.demo.detection;
+
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDMetadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * What a statement's generator leaves behind in the PDF structure: the
+ * document information entries, the XMP creator tool and the fonts page 1
+ * refers to. Reading these touches a few dictionaries and no content streams,
+ * so it costs far less than text extraction.
+ */
+public final class DocumentFingerprint {
+
+    private static final int MAX_XMP_BYTES = 64 * 1024;
+    private static final Pattern XMP_CREATOR_TOOL = Pattern.compile(
+            "CreatorTool(?:>|=\")\\s*([^<\"]+)");
+    private static final Pattern FONT_SUBSET_PREFIX = Pattern.compile("^[A-Z]{6}\\+");
+
+    private final List<String> features;
+
+    private DocumentFingerprint(List<String> features) {
+        this.features = List.copyOf(features);
+    }
+
+    public static DocumentFingerprint of(PDDocument document) throws IOException {
+        List<String> features = new ArrayList<>();
+        PDDocumentInformation info = document.getDocumentInformation();
+        add(features, "producer", info.getProducer());
+        add(features, "creator", info.getCreator());
+        add(features, "title", info.getTitle());
+        add(features, "xmp", creatorTool(document.getDocumentCatalog().getMetadata()));
+        if (document.getNumberOfPages() > 0) {
+            add(features, "fonts", fontNames(document.getPage(0)));
+        }
+        return new DocumentFingerprint(features);
+    }
+
+    static DocumentFingerprint of(List<String> features) {
+        return new DocumentFingerprint(features);
+    }
+
+    /** Features as {@code name:value} strings, e.g. {@code producer:iText 5.5.13}. */
+    public List<String> getFeatures() {
+        return features;
+    }
+
+    public boolean isEmpty() {
+        return features.isEmpty();
+    }
+
+    private static void add(List<String> features, String name, String value) {
+        if (value != null && !value.isBlank()) {
+            features.add(name + ":" + value.trim());
+        }
+    }
+
+    private static String creatorTool(PDMetadata metadata) throws IOException {
+        if (metadata == null) {
+            return null;
+        }
+        try (InputStream in = metadata.createInputStream()) {
+            String xmp = new String(in.readNBytes(MAX_XMP_BYTES), StandardCharsets.UTF_8);
+            Matcher matcher = XMP_CREATOR_TOOL.matcher(xmp);
+            return matcher.find() ? matcher.group(1) : null;
+        }
+    }
+
+    /** Base font names without subset tags, read from the font dictionaries without loading the fonts. */
+    private static String fontNames(PDPage page) {
+        PDResources resources = page.getResources();
+        COSDictionary fonts = resources == null ? null : resources.getCOSObject().getCOSDictionary(COSName.FONT);
+        if (fonts == null) {
+            return null;
+        }
+        TreeSet<String> names = new TreeSet<>();
+        for (COSName key : fonts.keySet()) {
+            COSBase font = fonts.getDictionaryObject(key);
+            if (font instanceof COSDictionary dictionary) {
+                String baseFont = dictionary.getNameAsString(COSName.BASE_FONT);
+                if (baseFont != null) {
+                    names.add(FONT_SUBSET_PREFIX.matcher(baseFont).replaceFirst(""));
+                }
+            }
+        }
+        return names.isEmpty() ? null : String.join(",", names);
+    }
+
+    @Override
+    public String toString() {
+        return "DocumentFingerprint" + features;
+    }
+}
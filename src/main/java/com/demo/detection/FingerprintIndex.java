@@ -0,0 +1,201 @@
+package com.demo.detection;
+
+import com.demo.config.ParserProperties;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Issuers learned from the fingerprints of successfully parsed statements.
+ * For every feature value the index counts how often each issuer produced it;
+ * a new document is attributed to the issuer with the highest average share
+ * over its features. Each feature's share is weighted by how well it tells
+ * issuers apart: one minus the entropy of its issuer counts relative to the
+ * most it could have, so a value every bank produces, such as a common font,
+ * adds nothing. Features seen fewer than {@code minSamples} times count as no
+ * evidence, and an index that has learned only one issuer matches nothing.
+ * Below {@code minConfidence} there is no match.
+ * <p>
+ * The service only uses a match to choose between issuers whose keywords
+ * the statement header already shows, so the index breaks ties; it never
+ * saves text extraction.
+ * <p>
+ * Counts are kept in memory and written as JSON to {@code file} every
+ * {@link #SAVE_EVERY} updates and on shutdown.
+ */
+@Component
+public class FingerprintIndex implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(FingerprintIndex.class);
+
+    static final int SAVE_EVERY = 20;
+    /** Feature values beyond this many are not learned, so unique titles cannot grow the index without bound. */
+    static final int MAX_FEATURES = 10_000;
+
+    private static final Type COUNTS_TYPE = new TypeToken<Map<String, Map<String, Integer>>>() { }.getType();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final boolean enabled;
+    private final Path file;
+    private final double minConfidence;
+    private final int minSamples;
+    private final Map<String, Map<String, Integer>> counts = new HashMap<>();
+    private final Set<String> issuers = new HashSet<>();
+    private int unsaved;
+
+    @Autowired
+    public FingerprintIndex(ParserProperties properties) {
+        this(properties.getFingerprint().isEnabled(),
+             properties.getFingerprint().getFile() == null ? null : Path.of(properties.getFingerprint().getFile()),
+             properties.getFingerprint().getMinConfidence(),
+             properties.getFingerprint().getMinSamples());
+    }
+
+    public FingerprintIndex(boolean enabled, Path file, double minConfidence, int minSamples) {
+        this.enabled = enabled;
+        this.file = file;
+        this.minConfidence = minConfidence;
+        this.minSamples = minSamples;
+        if (enabled && file != null) {
+            load();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public static FingerprintIndex disabled() {
+        return new FingerprintIndex(false, null, 1.0, Integer.MAX_VALUE);
+    }
+
+    /** The issuer the fingerprint points to, or {@code null} when it is unknown or ambiguous. */
+    public synchronized FingerprintMatch match(DocumentFingerprint fingerprint) {
+        if (!enabled || fingerprint.isEmpty() || issuers.size() < 2) {
+            return null;
+        }
+        double maxEntropy = Math.log(issuers.size());
+        Map<String, Double> shares = new HashMap<>();
+        for (String feature : fingerprint.getFeatures()) {
+            Map<String, Integer> byIssuer = counts.get(feature);
+            if (byIssuer == null) {
+                continue;
+            }
+            int total = byIssuer.values().stream().mapToInt(Integer::intValue).sum();
+            if (total < minSamples) {
+                continue;
+            }
+            double weight = 1 - entropy(byIssuer, total) / maxEntropy;
+            if (weight <= 0) {
+                continue;
+            }
+            byIssuer.forEach((issuer, n) -> shares.merge(issuer, weight * n / total, Double::sum));
+        }
+        String best = null;
+        double bestShare = 0;
+        for (Map.Entry<String, Double> entry : shares.entrySet()) {
+            if (entry.getValue() > bestShare) {
+                best = entry.getKey();
+                bestShare = entry.getValue();
+            }
+        }
+        double confidence = bestShare / fingerprint.getFeatures().size();
+        return best != null && confidence >= minConfidence ? new FingerprintMatch(best, confidence) : null;
+    }
+
+    private static double entropy(Map<String, Integer> byIssuer, int total) {
+        double entropy = 0;
+        for (int n : byIssuer.values()) {
+            if (n > 0) {
+                double p = (double) n / total;
+                entropy -= p * Math.log(p);
+            }
+        }
+        return entropy;
+    }
+
+    public synchronized void learn(DocumentFingerprint fingerprint, String issuer) {
+        if (!enabled) {
+            return;
+        }
+        for (String feature : fingerprint.getFeatures()) {
+            Map<String, Integer> byIssuer = counts.get(feature);
+            if (byIssuer == null) {
+                if (counts.size() >= MAX_FEATURES) {
+                    continue;
+                }
+                byIssuer = new LinkedHashMap<>();
+                counts.put(feature, byIssuer);
+            }
+            byIssuer.merge(issuer, 1, Integer::sum);
+        }
+        issuers.add(issuer);
+        if (++unsaved >= SAVE_EVERY) {
+            save();
+        }
+    }
+
+    public synchronized int size() {
+        return counts.size();
+    }
+
+    /** Writes the counts to a temp file and moves it over the previous one. */
+    public synchronized void save() {
+        if (file == null || unsaved == 0) {
+            return;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "fingerprints", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                GSON.toJson(counts, COUNTS_TYPE, writer);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            unsaved = 0;
+        } catch (IOException e) {
+            log.warn("Could not save document fingerprints to {}", file, e);
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, Map<String, Integer>> stored = GSON.fromJson(reader, COUNTS_TYPE);
+            if (stored != null) {
+                stored.forEach((feature, byIssuer) -> {
+                    counts.put(feature, new LinkedHashMap<>(byIssuer));
+                    issuers.addAll(byIssuer.keySet());
+                });
+            }
+        } catch (IOException | JsonParseException e) {
+            log.warn("Ignoring unreadable document fingerprints in {}", file, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        save();
+    }
+}
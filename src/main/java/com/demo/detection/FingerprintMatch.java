@@ -0,0 +1,26 @@
+package com.demo.detection;
+
+/** Issuer suggested by a document fingerprint, with the share of its features that agree. */
+public final class FingerprintMatch {
+
+    private final String issuer;
+    private final double confidence;
+
+    FingerprintMatch(String issuer, double confidence) {
+        this.issuer = issuer;
+        this.confidence = confidence;
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    @Override
+    public String toString() {
+        return "FingerprintMatch(issuer=" + issuer + ", confidence=" + confidence + ")";
+    }
+}
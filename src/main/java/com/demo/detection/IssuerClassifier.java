@@ -0,0 +1,115 @@
+package com.demo.detection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detects the issuer of a statement from the keywords of every registered
+ * {@link IssuerSignature}. All keywords are compiled into one automaton at
+ * construction, so a classification is a single pass over the text however
+ * many issuers are registered; the signatures' rules are then evaluated
+ * against the recorded hits.
+ * <p>
+ * Signatures are given in priority order: every issuer is scored, and the
+ * first one that matches wins. Instances are immutable and thread-safe.
+ */
+public final class IssuerClassifier {
+
+    private final List<IssuerSignature> signatures;
+    private final Map<Keyword, Integer> ids = new HashMap<>();
+    private final KeywordAutomaton literal;
+    private final int[] literalIds;
+    private final int[] literalLengths;
+    private final KeywordAutomaton spaced;
+    private final int[] spacedIds;
+    private final int[] spacedLengths;
+    private final int spacedWindow;
+
+    public IssuerClassifier(List<IssuerSignature> signatures) {
+        this.signatures = List.copyOf(signatures);
+        List<String> literalWords = new ArrayList<>();
+        List<String> spacedWords = new ArrayList<>();
+        List<Integer> literalIdList = new ArrayList<>();
+        List<Integer> spacedIdList = new ArrayList<>();
+        for (IssuerSignature signature : this.signatures) {
+            for (Keyword keyword : signature.keywords()) {
+                if (ids.containsKey(keyword)) {
+                    continue;
+                }
+                int id = ids.size();
+                ids.put(keyword, id);
+                if (keyword.isSpaced()) {
+                    spacedWords.add(keyword.getText());
+                    spacedIdList.add(id);
+                } else {
+                    literalWords.add(keyword.getText());
+                    literalIdList.add(id);
+                }
+            }
+        }
+        this.literal = new KeywordAutomaton(literalWords);
+        this.literalIds = literalIdList.stream().mapToInt(Integer::intValue).toArray();
+        this.literalLengths = literalWords.stream().mapToInt(String::length).toArray();
+        this.spaced = spacedWords.isEmpty() ? null : new KeywordAutomaton(spacedWords);
+        this.spacedIds = spacedIdList.stream().mapToInt(Integer::intValue).toArray();
+        this.spacedLengths = spacedWords.stream().mapToInt(String::length).toArray();
+        this.spacedWindow = Math.max(1, spacedWords.stream().mapToInt(String::length).max().orElse(1));
+    }
+
+    public Classification classify(CharSequence text) {
+        KeywordHits hits = scan(text);
+        Map<String, Integer> scores = new LinkedHashMap<>();
+        String winner = null;
+        for (IssuerSignature signature : signatures) {
+            int score = signature.score(hits);
+            scores.put(signature.getIssuer(), score);
+            if (winner == null && score > 0) {
+                winner = signature.getIssuer();
+            }
+        }
+        return new Classification(winner, Collections.unmodifiableMap(scores));
+    }
+
+    private KeywordHits scan(CharSequence text) {
+        KeywordHits hits = new KeywordHits(text, ids);
+        // Offsets in the text of the last characters fed to the spaced automaton,
+        // which sees each whitespace run as a single space
+        int[] offsets = new int[spacedWindow];
+        int fed = 0;
+        int literalState = 0;
+        int spacedState = 0;
+        boolean inWhitespace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char lower = Character.toLowerCase(c);
+            literalState = literal.next(literalState, lower);
+            for (int k : literal.output(literalState)) {
+                hits.add(literalIds[k], i + 1 - literalLengths[k], i + 1);
+            }
+            if (spaced == null) {
+                continue;
+            }
+            boolean whitespace = isWhitespace(c);
+            if (whitespace && inWhitespace) {
+                continue;
+            }
+            inWhitespace = whitespace;
+            offsets[fed % spacedWindow] = i;
+            fed++;
+            spacedState = spaced.next(spacedState, whitespace ? ' ' : lower);
+            for (int k : spaced.output(spacedState)) {
+                hits.add(spacedIds[k], offsets[(fed - spacedLengths[k]) % spacedWindow], i + 1);
+            }
+        }
+        return hits;
+    }
+
+    /** The characters regex {@code \s} matches. */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,212 @@
+package com.demo.detection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The keywords that identify one issuer's statements and the rules combining
+ * them. Each rule applies to the text scope that was current when it was
+ * added: the whole text by default, or its first characters after
+ * {@link Builder#within(int)}. A statement matches when no exclusion applies
+ * and at least one rule passes; the number of passing rules is its score.
+ */
+public final class IssuerSignature {
+
+    private final String issuer;
+    private final List<Rule> rules;
+    private final List<Rule> exclusions;
+    private final Set<Keyword> keywords;
+
+    private IssuerSignature(Builder builder) {
+        this.issuer = builder.issuer;
+        this.rules = List.copyOf(builder.rules);
+        this.exclusions = List.copyOf(builder.exclusions);
+        this.keywords = Set.copyOf(builder.keywords);
+    }
+
+    public static Builder builder(String issuer) {
+        return new Builder(issuer);
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    Set<Keyword> keywords() {
+        return keywords;
+    }
+
+    /** Number of passing rules, or 0 when an exclusion applies. */
+    int score(KeywordHits hits) {
+        for (Rule exclusion : exclusions) {
+            if (exclusion.test(hits)) {
+                return 0;
+            }
+        }
+        int score = 0;
+        for (Rule rule : rules) {
+            if (rule.test(hits)) {
+                score++;
+            }
+        }
+        return score;
+    }
+
+    @FunctionalInterface
+    interface Rule {
+        boolean test(KeywordHits hits);
+    }
+
+    public static final class Builder {
+
+        private final String issuer;
+        private final List<Rule> rules = new ArrayList<>();
+        private final List<Rule> exclusions = new ArrayList<>();
+        private final Set<Keyword> keywords = new LinkedHashSet<>();
+        private int limit = Integer.MAX_VALUE;
+
+        private Builder(String issuer) {
+            this.issuer = issuer;
+        }
+
+        /** Applies the rules added after this call to the first {@code length} characters only. */
+        public Builder within(int length) {
+            this.limit = length;
+            return this;
+        }
+
+        /** Passes when any of the phrases occurs. */
+        public Builder phrase(String... phrases) {
+            return phrase(keywords(phrases));
+        }
+
+        public Builder phrase(Keyword... phrases) {
+            rules.add(anyOf(phrases, limit));
+            return this;
+        }
+
+        /** Starts a rule that needs the anchor; finish it with {@link Clause#end()}. */
+        public Clause anchored(String anchor) {
+            return anchored(Keyword.of(anchor));
+        }
+
+        public Clause anchored(Keyword anchor) {
+            keywords.add(anchor);
+            return new Clause(this, anchor);
+        }
+
+        /** Rejects the statement when any of the phrases occurs. */
+        public Builder exclude(String... phrases) {
+            return exclude(keywords(phrases));
+        }
+
+        public Builder exclude(Keyword... phrases) {
+            exclusions.add(anyOf(phrases, limit));
+            return this;
+        }
+
+        /** Rejects the statement when {@code first} is followed by {@code then} on one line. */
+        public Builder excludeSequence(Keyword first, Keyword then) {
+            keywords.add(first);
+            keywords.add(then);
+            int scope = limit;
+            exclusions.add(hits -> hits.followedOnLine(first, then, scope));
+            return this;
+        }
+
+        public IssuerSignature build() {
+            return new IssuerSignature(this);
+        }
+
+        private Rule anyOf(Keyword[] phrases, int scope) {
+            keywords.addAll(Arrays.asList(phrases));
+            return hits -> {
+                for (Keyword phrase : phrases) {
+                    if (hits.contains(phrase, scope)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+
+        private static Keyword[] keywords(String[] phrases) {
+            return Arrays.stream(phrases).map(Keyword::of).toArray(Keyword[]::new);
+        }
+    }
+
+    /** A rule requiring an anchor keyword plus every condition added to it. */
+    public static final class Clause {
+
+        private final Builder builder;
+        private final Keyword anchor;
+        private final int scope;
+        private final List<Rule> conditions = new ArrayList<>();
+
+        private Clause(Builder builder, Keyword anchor) {
+            this.builder = builder;
+            this.anchor = anchor;
+            this.scope = builder.limit;
+        }
+
+        /** Requires one of the companions anywhere in scope. */
+        public Clause with(String... companions) {
+            Keyword[] words = companions(companions);
+            conditions.add(hits -> {
+                for (Keyword companion : words) {
+                    if (hits.contains(companion, scope)) {
+                        return true;
+                    }
+                }
+                return false;
+            });
+            return this;
+        }
+
+        /**
+         * Requires one of the companions within {@code before} characters before
+         * and {@code after} characters after the start of the anchor's first
+         * occurrence.
+         */
+        public Clause near(int before, int after, String... companions) {
+            Keyword[] words = companions(companions);
+            conditions.add(hits -> {
+                int at = hits.firstStart(anchor, scope);
+                int from = Math.max(0, at - before);
+                int to = (int) Math.min(scope, (long) at + after);
+                for (Keyword companion : words) {
+                    if (hits.within(companion, from, to)) {
+                        return true;
+                    }
+                }
+                return false;
+            });
+            return this;
+        }
+
+        public Builder end() {
+            List<Rule> all = List.copyOf(conditions);
+            builder.rules.add(hits -> {
+                if (!hits.contains(anchor, scope)) {
+                    return false;
+                }
+                for (Rule condition : all) {
+                    if (!condition.test(hits)) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+            return builder;
+        }
+
+        private Keyword[] companions(String[] companions) {
+            Keyword[] words = Builder.keywords(companions);
+            builder.keywords.addAll(Arrays.asList(words));
+            return words;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.demo.detection;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * A lowercase phrase an issuer signature looks for. A plain keyword matches
+ * the exact characters, like {@code String.contains} on lowercased text; a
+ * spaced keyword matches any run of whitespace between its words, like
+ * {@code \s+} in a regex.
+ */
+public final class Keyword {
+
+    private final String text;
+    private final boolean spaced;
+
+    private Keyword(String text, boolean spaced) {
+        this.text = text;
+        this.spaced = spaced;
+    }
+
+    public static Keyword of(String text) {
+        return new Keyword(text.toLowerCase(Locale.ROOT), false);
+    }
+
+    public static Keyword spaced(String text) {
+        return new Keyword(text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT), true);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isSpaced() {
+        return spaced;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Keyword other)) {
+            return false;
+        }
+        return spaced == other.spaced && text.equals(other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(text, spaced);
+    }
+
+    @Override
+    public String toString() {
+        return spaced ? "~" + text : text;
+    }
+}
@@ -0,0 +1,108 @@
+package com.demo.detection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over lowercase ASCII keywords, compiled to a full
+ * transition table so each input character costs one array lookup. Characters
+ * outside ASCII cannot be part of any keyword and send the scan back to the
+ * root.
+ */
+public final class KeywordAutomaton {
+
+    private static final int ALPHABET = 128;
+    private static final int[] NONE = new int[0];
+
+    private final int[] delta;
+    private final int[][] output;
+
+    public KeywordAutomaton(List<String> keywords) {
+        List<int[]> rows = new ArrayList<>();
+        List<int[]> outs = new ArrayList<>();
+        rows.add(newRow());
+        outs.add(NONE);
+        for (int id = 0; id < keywords.size(); id++) {
+            String keyword = keywords.get(id);
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                if (c >= ALPHABET) {
+                    throw new IllegalArgumentException("Keyword is not ASCII: " + keyword);
+                }
+                if (rows.get(state)[c] < 0) {
+                    rows.get(state)[c] = rows.size();
+                    rows.add(newRow());
+                    outs.add(NONE);
+                }
+                state = rows.get(state)[c];
+            }
+            outs.set(state, append(outs.get(state), id));
+        }
+
+        int states = rows.size();
+        int[] fail = new int[states];
+        Deque<Integer> queue = new ArrayDeque<>();
+        int[] root = rows.get(0);
+        for (int c = 0; c < ALPHABET; c++) {
+            if (root[c] < 0) {
+                root[c] = 0;
+            } else {
+                queue.add(root[c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] row = rows.get(state);
+            for (int c = 0; c < ALPHABET; c++) {
+                int target = row[c];
+                if (target < 0) {
+                    row[c] = rows.get(fail[state])[c];
+                } else {
+                    fail[target] = rows.get(fail[state])[c];
+                    outs.set(target, concat(outs.get(target), outs.get(fail[target])));
+                    queue.add(target);
+                }
+            }
+        }
+
+        this.delta = new int[states * ALPHABET];
+        for (int s = 0; s < states; s++) {
+            System.arraycopy(rows.get(s), 0, delta, s * ALPHABET, ALPHABET);
+        }
+        this.output = outs.toArray(new int[0][]);
+    }
+
+    public int next(int state, char c) {
+        return c < ALPHABET ? delta[state * ALPHABET + c] : 0;
+    }
+
+    /** Ids of the keywords that end at {@code state}. */
+    public int[] output(int state) {
+        return output[state];
+    }
+
+    private static int[] newRow() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int[] append(int[] ids, int id) {
+        int[] result = Arrays.copyOf(ids, ids.length + 1);
+        result[ids.length] = id;
+        return result;
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        if (b.length == 0) {
+            return a;
+        }
+        int[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+}
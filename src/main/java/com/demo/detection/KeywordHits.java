@@ -0,0 +1,89 @@
+package com.demo.detection;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Every keyword occurrence found in one scan, as start/end offsets into the
+ * scanned text. Occurrences of a keyword are recorded in text order.
+ */
+final class KeywordHits {
+
+    private final CharSequence text;
+    private final Map<Keyword, Integer> ids;
+    private final int[][] starts;
+    private final int[][] ends;
+    private final int[] counts;
+
+    KeywordHits(CharSequence text, Map<Keyword, Integer> ids) {
+        this.text = text;
+        this.ids = ids;
+        this.starts = new int[ids.size()][];
+        this.ends = new int[ids.size()][];
+        this.counts = new int[ids.size()];
+    }
+
+    void add(int id, int start, int end) {
+        int n = counts[id];
+        if (starts[id] == null) {
+            starts[id] = new int[4];
+            ends[id] = new int[4];
+        } else if (n == starts[id].length) {
+            starts[id] = Arrays.copyOf(starts[id], n * 2);
+            ends[id] = Arrays.copyOf(ends[id], n * 2);
+        }
+        starts[id][n] = start;
+        ends[id][n] = end;
+        counts[id] = n + 1;
+    }
+
+    /** Whether the keyword occurs entirely within the first {@code limit} characters. */
+    boolean contains(Keyword keyword, int limit) {
+        int id = ids.get(keyword);
+        return counts[id] > 0 && ends[id][0] <= limit;
+    }
+
+    /** Start of the first occurrence within the first {@code limit} characters, or -1. */
+    int firstStart(Keyword keyword, int limit) {
+        int id = ids.get(keyword);
+        return counts[id] > 0 && ends[id][0] <= limit ? starts[id][0] : -1;
+    }
+
+    /** Whether the keyword occurs entirely within {@code [from, to)}. */
+    boolean within(Keyword keyword, int from, int to) {
+        int id = ids.get(keyword);
+        for (int i = 0; i < counts[id] && ends[id][i] <= to; i++) {
+            if (starts[id][i] >= from) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether {@code first} is followed by {@code then} on the same line, both
+     * within the first {@code limit} characters, like {@code first.*then}.
+     */
+    boolean followedOnLine(Keyword first, Keyword then, int limit) {
+        int a = ids.get(first);
+        int b = ids.get(then);
+        for (int i = 0; i < counts[a] && ends[a][i] <= limit; i++) {
+            for (int j = 0; j < counts[b] && ends[b][j] <= limit; j++) {
+                if (starts[b][j] >= ends[a][i] && !lineBreakBetween(ends[a][i], starts[b][j])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean lineBreakBetween(int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package com.demo.model;
+
+/** Banks whose statements can be parsed, with the name shown to users. */
+public enum CardIssuer {
+
+    HDFC("HDFC"),
+    ICICI("ICICI"),
+    KOTAK("Kotak Bank"),
+    AXIS("Axis Bank"),
+    SBI("SBI"),
+    BANK_OF_BARODA("Bank of Baroda"),
+    UNKNOWN("Unknown");
+
+    private final String displayName;
+
+    CardIssuer(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,75 @@
+package com.demo.model;
+
+import com.demo.text.DateNormalizer;
+
+import java.time.LocalDate;
+
+/**
+ * First and last day of a billing cycle or statement period, as epoch days.
+ * A period printed as a single date starts and ends on that day.
+ */
+public record DateRange(int start, int end) {
+
+    /**
+     * The range printed as one date or as two dates joined by {@code -},
+     * {@code –} or {@code to}, in any form {@link DateNormalizer} reads;
+     * {@code null} if it is neither.
+     */
+    public static DateRange parse(String printed) {
+        if (printed == null) {
+            return null;
+        }
+        int day = DateNormalizer.toEpochDay(printed);
+        if (day != DateNormalizer.INVALID) {
+            return new DateRange(day, day);
+        }
+        int length = printed.length();
+        for (int i = 1; i < length - 1; i++) {
+            int separatorEnd = separatorEnd(printed, i);
+            if (separatorEnd < 0) {
+                continue;
+            }
+            int start = DateNormalizer.toEpochDay(printed, 0, i);
+            if (start == DateNormalizer.INVALID) {
+                continue;
+            }
+            int end = DateNormalizer.toEpochDay(printed, separatorEnd, length);
+            if (end != DateNormalizer.INVALID) {
+                return new DateRange(start, end);
+            }
+        }
+        return null;
+    }
+
+    /** End of a range separator starting at {@code i}, or -1. */
+    private static int separatorEnd(String text, int i) {
+        char c = text.charAt(i);
+        if (c == '-' || c == '–') {
+            return i + 1;
+        }
+        if (text.regionMatches(true, i, "to", 0, 2) && i + 2 < text.length()
+                && Character.isWhitespace(text.charAt(i - 1)) && Character.isWhitespace(text.charAt(i + 2))) {
+            return i + 2;
+        }
+        return -1;
+    }
+
+    public LocalDate startDate() {
+        return LocalDate.ofEpochDay(start);
+    }
+
+    public LocalDate endDate() {
+        return LocalDate.ofEpochDay(end);
+    }
+
+    public boolean isSingleDay() {
+        return start == end;
+    }
+
+    /** {@code dd/MM/yyyy}, or {@code dd/MM/yyyy - dd/MM/yyyy} for more than one day. */
+    @Override
+    public String toString() {
+        return isSingleDay() ? DateNormalizer.format(start)
+                : DateNormalizer.format(start) + " - " + DateNormalizer.format(end);
+    }
+}
@@ -1,20 +1,113 @@
 package com.demo.model;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * Fields read from one statement, typed so results can be compared and
+ * aggregated without reparsing: dates are epoch days, the balance is paise
+ * and the transaction count an {@code int}; the transaction lines themselves
+ * are kept in a columnar {@link TransactionTable}. A field that was not found
+ * holds its {@code NO_*} value and its {@code has*} method returns false.
+ * {@link StatementView} renders the fields for display and
+ * {@link StatementDataSerializer} writes them as JSON.
+ */
 @Data
+@JsonSerialize(using = StatementDataSerializer.class)
 @NoArgsConstructor
-@AllArgsConstructor
 public class StatementData {
-    private String cardProvider;
-    private String cardLastFourDigits;
+
+    /** Held by a date field that was not found. */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+    /** Held by the balance when it was not found. */
+    public static final long NO_AMOUNT = Long.MIN_VALUE;
+    /** Held by the card digits or transaction count when not found. */
+    public static final int NO_VALUE = -1;
+
+    private CardIssuer issuer = CardIssuer.UNKNOWN;
+    /** Last four digits of the card number, 0 to 9999. */
+    private int cardLastFour = NO_VALUE;
     private String cardVariant;
-    private String billingCycle;
-    private String paymentDueDate;
-    private String totalBalance;
-    private String totalTransactions;
-    private String statementPeriod;
-}
+    private int billingCycleStart = NO_DATE;
+    private int billingCycleEnd = NO_DATE;
+    private int statementPeriodStart = NO_DATE;
+    private int statementPeriodEnd = NO_DATE;
+    /** Epoch day. */
+    private int paymentDueDate = NO_DATE;
+    /** Paise; negative for a credit balance. */
+    private long totalBalance = NO_AMOUNT;
+    private int totalTransactions = NO_VALUE;
+    /** The transaction lines read, which may be fewer than {@link #totalTransactions}. */
+    private TransactionTable transactions = TransactionTable.EMPTY;
+
+    /**
+     * A copy that can be changed without affecting this one. The transaction
+     * table is immutable, so it is shared rather than copied.
+     */
+    public StatementData copy() {
+        StatementData copy = new StatementData();
+        copy.issuer = issuer;
+        copy.cardLastFour = cardLastFour;
+        copy.cardVariant = cardVariant;
+        copy.billingCycleStart = billingCycleStart;
+        copy.billingCycleEnd = billingCycleEnd;
+        copy.statementPeriodStart = statementPeriodStart;
+        copy.statementPeriodEnd = statementPeriodEnd;
+        copy.paymentDueDate = paymentDueDate;
+        copy.totalBalance = totalBalance;
+        copy.totalTransactions = totalTransactions;
+        copy.transactions = transactions;
+        return copy;
+    }
+
+    public boolean hasCardLastFour() {
+        return cardLastFour != NO_VALUE;
+    }
+
+    public boolean hasCardVariant() {
+        return cardVariant != null;
+    }
+
+    public boolean hasBillingCycle() {
+        return billingCycleStart != NO_DATE;
+    }
+
+    public boolean hasStatementPeriod() {
+        return statementPeriodStart != NO_DATE;
+    }
 
+    public boolean hasPaymentDueDate() {
+        return paymentDueDate != NO_DATE;
+    }
+
+    public boolean hasTotalBalance() {
+        return totalBalance != NO_AMOUNT;
+    }
+
+    public boolean hasTotalTransactions() {
+        return totalTransactions != NO_VALUE;
+    }
+
+    /** The billing cycle, or {@code null}. */
+    public DateRange getBillingCycle() {
+        return hasBillingCycle() ? new DateRange(billingCycleStart, billingCycleEnd) : null;
+    }
+
+    /** Sets the billing cycle; {@code null} clears it. */
+    public void setBillingCycle(DateRange cycle) {
+        billingCycleStart = cycle != null ? cycle.start() : NO_DATE;
+        billingCycleEnd = cycle != null ? cycle.end() : NO_DATE;
+    }
+
+    /** The statement period, or {@code null}. */
+    public DateRange getStatementPeriod() {
+        return hasStatementPeriod() ? new DateRange(statementPeriodStart, statementPeriodEnd) : null;
+    }
+
+    /** Sets the statement period; {@code null} clears it. */
+    public void setStatementPeriod(DateRange period) {
+        statementPeriodStart = period != null ? period.start() : NO_DATE;
+        statementPeriodEnd = period != null ? period.end() : NO_DATE;
+    }
+}
@@ -0,0 +1,86 @@
+package com.demo.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Writes a {@link StatementData} as JSON: dates as ISO {@code yyyy-MM-dd},
+ * amounts as rupees with two decimals, and fields that were not found as
+ * {@code null}, so every statement has the same keys. Transaction rows are
+ * written straight from the {@link TransactionTable} columns.
+ */
+public class StatementDataSerializer extends StdSerializer<StatementData> {
+
+    public StatementDataSerializer() {
+        super(StatementData.class);
+    }
+
+    @Override
+    public void serialize(StatementData data, JsonGenerator json, SerializerProvider provider) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("issuer", data.getIssuer().name());
+        json.writeStringField("cardProvider", data.getIssuer().getDisplayName());
+        if (data.hasCardLastFour()) {
+            json.writeStringField("cardLastFour", String.format("%04d", data.getCardLastFour()));
+        } else {
+            json.writeNullField("cardLastFour");
+        }
+        json.writeStringField("cardVariant", data.getCardVariant());
+        writeRange(json, "billingCycle", data.getBillingCycle());
+        writeDate(json, "paymentDueDate", data.hasPaymentDueDate(), data.getPaymentDueDate());
+        json.writeFieldName("totalBalance");
+        writeAmount(json, data.hasTotalBalance(), data.getTotalBalance());
+        if (data.hasTotalTransactions()) {
+            json.writeNumberField("totalTransactions", data.getTotalTransactions());
+        } else {
+            json.writeNullField("totalTransactions");
+        }
+        writeRange(json, "statementPeriod", data.getStatementPeriod());
+
+        TransactionTable transactions = data.getTransactions();
+        json.writeArrayFieldStart("transactions");
+        for (int row = 0; row < transactions.size(); row++) {
+            json.writeStartObject();
+            json.writeStringField("date", LocalDate.ofEpochDay(transactions.date(row)).toString());
+            json.writeStringField("description", transactions.description(row));
+            json.writeFieldName("amount");
+            writeAmount(json, true, transactions.amount(row));
+            json.writeBooleanField("credit", transactions.isCredit(row));
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private static void writeRange(JsonGenerator json, String field, DateRange range) throws IOException {
+        if (range == null) {
+            json.writeNullField(field);
+            return;
+        }
+        json.writeObjectFieldStart(field);
+        json.writeStringField("start", range.startDate().toString());
+        json.writeStringField("end", range.endDate().toString());
+        json.writeEndObject();
+    }
+
+    private static void writeDate(JsonGenerator json, String field, boolean present, int epochDay) throws IOException {
+        if (present) {
+            json.writeStringField(field, LocalDate.ofEpochDay(epochDay).toString());
+        } else {
+            json.writeNullField(field);
+        }
+    }
+
+    private static void writeAmount(JsonGenerator json, boolean present, long paise) throws IOException {
+        if (present) {
+            json.writeNumber(BigDecimal.valueOf(paise, 2));
+        } else {
+            json.writeNull();
+        }
+    }
+}
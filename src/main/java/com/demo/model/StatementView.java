@@ -0,0 +1,47 @@
+package com.demo.model;
+
+import com.demo.text.Amount;
+import com.demo.text.DateNormalizer;
+import lombok.Value;
+
+/**
+ * {@link StatementData} rendered as the text shown on the result page, with
+ * {@code N/A} for fields that were not found. Dates read {@code dd/MM/yyyy},
+ * periods {@code dd/MM/yyyy - dd/MM/yyyy} and the balance in rupees with
+ * Indian digit grouping.
+ */
+@Value
+public class StatementView {
+
+    private static final String ABSENT = "N/A";
+
+    String cardProvider;
+    String cardLastFourDigits;
+    String cardVariant;
+    String billingCycle;
+    String paymentDueDate;
+    String totalBalance;
+    String totalTransactions;
+    String statementPeriod;
+
+    public static StatementView of(StatementData data) {
+        return new StatementView(
+                data.getIssuer().getDisplayName(),
+                data.hasCardLastFour() ? lastFour(data.getCardLastFour()) : ABSENT,
+                data.hasCardVariant() ? data.getCardVariant() : ABSENT,
+                data.hasBillingCycle() ? data.getBillingCycle().toString() : ABSENT,
+                data.hasPaymentDueDate() ? DateNormalizer.format(data.getPaymentDueDate()) : ABSENT,
+                data.hasTotalBalance() ? rupees(data.getTotalBalance()) : ABSENT,
+                data.hasTotalTransactions() ? String.valueOf(data.getTotalTransactions()) : ABSENT,
+                data.hasStatementPeriod() ? data.getStatementPeriod().toString() : ABSENT);
+    }
+
+    private static String lastFour(int digits) {
+        String text = String.valueOf(digits);
+        return "0000".substring(text.length()) + text;
+    }
+
+    private static String rupees(long paise) {
+        return paise < 0 ? "-₹" + Amount.format(-paise) : "₹" + Amount.format(paise);
+    }
+}
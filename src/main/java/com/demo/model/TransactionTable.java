@@ -0,0 +1,251 @@
+package com.demo.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The transaction lines of one statement, stored by column: an {@code int}
+ * epoch day, a {@code long} amount in paise and a description id per row,
+ * and one bit per row marking credits. Descriptions are dictionary encoded,
+ * so a merchant that appears on fifty lines is stored once and each row
+ * holds only its id. A 2,000-line statement takes about 32 KB plus its
+ * distinct descriptions.
+ * <p>
+ * Rows are read by index ({@code date(i)}, {@code amount(i)}, ...), so
+ * walking a table allocates nothing. A table is immutable once built.
+ */
+public final class TransactionTable {
+
+    /** A statement with no transaction lines read. */
+    public static final TransactionTable EMPTY = new TransactionTable(0, new int[0], new long[0], new BitSet(),
+            new int[0], new String[0]);
+
+    private final int size;
+    private final int[] dates;
+    private final long[] amounts;
+    private final BitSet credits;
+    private final int[] descriptionIds;
+    private final String[] descriptions;
+
+    private TransactionTable(int size, int[] dates, long[] amounts, BitSet credits, int[] descriptionIds,
+            String[] descriptions) {
+        this.size = size;
+        this.dates = dates;
+        this.amounts = amounts;
+        this.credits = credits;
+        this.descriptionIds = descriptionIds;
+        this.descriptions = descriptions;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Epoch day of row {@code row}. */
+    public int date(int row) {
+        return dates[checkRow(row)];
+    }
+
+    /** Amount of row {@code row} in paise, never negative; see {@link #isCredit}. */
+    public long amount(int row) {
+        return amounts[checkRow(row)];
+    }
+
+    public boolean isCredit(int row) {
+        return credits.get(checkRow(row));
+    }
+
+    /** Amount of row {@code row} in paise, negative for a credit. */
+    public long signedAmount(int row) {
+        return isCredit(row) ? -amounts[row] : amounts[row];
+    }
+
+    public String description(int row) {
+        return descriptions[descriptionIds[checkRow(row)]];
+    }
+
+    /** Dictionary id of the description of row {@code row}; rows with equal descriptions share an id. */
+    public int descriptionId(int row) {
+        return descriptionIds[checkRow(row)];
+    }
+
+    /** Number of distinct descriptions; ids run from 0 to this, exclusive. */
+    public int descriptionCount() {
+        return descriptions.length;
+    }
+
+    public String descriptionOf(int descriptionId) {
+        return descriptions[descriptionId];
+    }
+
+    /** Sum of the debit rows in paise. */
+    public long totalDebits() {
+        long total = 0;
+        for (int row = credits.nextClearBit(0); row < size; row = credits.nextClearBit(row + 1)) {
+            total += amounts[row];
+        }
+        return total;
+    }
+
+    /** Sum of the credit rows in paise, as a positive number. */
+    public long totalCredits() {
+        long total = 0;
+        for (int row = credits.nextSetBit(0); row >= 0; row = credits.nextSetBit(row + 1)) {
+            total += amounts[row];
+        }
+        return total;
+    }
+
+    /** Approximate heap taken by the table, for weighing it in caches. */
+    public long estimatedBytes() {
+        long bytes = 64 + 16L * size + size / 8;
+        for (String description : descriptions) {
+            bytes += 48 + description.length();
+        }
+        return bytes;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + size);
+        }
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionTable(size=" + size + ", descriptions=" + descriptions.length + ")";
+    }
+
+    /**
+     * Appends rows as a parser reads them. Descriptions are passed as a range
+     * of the statement text and only copied into a {@code String} the first
+     * time they are seen.
+     */
+    public static final class Builder {
+
+        private static final int INITIAL_ROWS = 64;
+
+        private int size;
+        private int[] dates = new int[INITIAL_ROWS];
+        private long[] amounts = new long[INITIAL_ROWS];
+        private final BitSet credits = new BitSet();
+        private int[] descriptionIds = new int[INITIAL_ROWS];
+
+        private String[] descriptions = new String[16];
+        private int descriptionCount;
+        /** Open-addressed description ids plus one, by hash; 0 is an empty slot. */
+        private int[] slots = new int[32];
+
+        private Builder() {
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Adds a row.
+         *
+         * @param date  epoch day
+         * @param paise amount, negative for a credit
+         */
+        public Builder add(int date, long paise, CharSequence text, int descriptionStart, int descriptionEnd) {
+            if (size == dates.length) {
+                int capacity = size * 2;
+                dates = Arrays.copyOf(dates, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+                descriptionIds = Arrays.copyOf(descriptionIds, capacity);
+            }
+            dates[size] = date;
+            amounts[size] = Math.abs(paise);
+            if (paise < 0) {
+                credits.set(size);
+            }
+            descriptionIds[size] = descriptionId(text, descriptionStart, descriptionEnd);
+            size++;
+            return this;
+        }
+
+        public Builder add(int date, long paise, String description) {
+            return add(date, paise, description, 0, description.length());
+        }
+
+        public TransactionTable build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            return new TransactionTable(size, Arrays.copyOf(dates, size), Arrays.copyOf(amounts, size),
+                    (BitSet) credits.clone(), Arrays.copyOf(descriptionIds, size),
+                    Arrays.copyOf(descriptions, descriptionCount));
+        }
+
+        private int descriptionId(CharSequence text, int start, int end) {
+            int hash = hash(text, start, end);
+            int mask = slots.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                int id = slots[slot] - 1;
+                if (id < 0) {
+                    return insert(slot, text.subSequence(start, end).toString());
+                }
+                if (matches(descriptions[id], text, start, end)) {
+                    return id;
+                }
+            }
+        }
+
+        private int insert(int slot, String description) {
+            if (descriptionCount == descriptions.length) {
+                descriptions = Arrays.copyOf(descriptions, descriptionCount * 2);
+            }
+            int id = descriptionCount++;
+            descriptions[id] = description;
+            slots[slot] = id + 1;
+            if (descriptionCount * 2 > slots.length) {
+                rehash();
+            }
+            return id;
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int id = 0; id < descriptionCount; id++) {
+                String description = descriptions[id];
+                int slot = hash(description, 0, description.length()) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = id + 1;
+            }
+        }
+
+        private static int hash(CharSequence text, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + text.charAt(i);
+            }
+            return hash ^ (hash >>> 16);
+        }
+
+        private static boolean matches(String description, CharSequence text, int start, int end) {
+            if (description.length() != end - start) {
+                return false;
+            }
+            for (int i = 0; i < description.length(); i++) {
+                if (description.charAt(i) != text.charAt(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
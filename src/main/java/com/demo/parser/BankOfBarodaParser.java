@@ -1,103 +1,83 @@
 package com.demo.parser;
 
+import com.demo.detection.IssuerSignature;
+import com.demo.detection.Keyword;
+import com.demo.model.CardIssuer;
+import com.demo.model.DateRange;
 import com.demo.model.StatementData;
+import com.demo.text.Amount;
+import com.demo.text.CardNumberScanner;
+import com.demo.text.CardShape;
+import com.demo.text.DateNormalizer;
+import com.demo.text.GuardedMatcher;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.regex.Matcher;
+import java.util.List;
 import java.util.regex.Pattern;
 
 
 @Component
 public class BankOfBarodaParser extends StatementParser {
-    
-    @Override
-    public boolean canParse(String text) {
-
-        String headerSection = text.length() > 3000 ? text.substring(0, 3000).toLowerCase() : text.toLowerCase();
-
-        Pattern[] exclusionPatterns = {
-            Pattern.compile("(?:axis\\s+bank|lic\\s+axis\\s+bank)\\s+credit\\s+card", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("hdfc\\s+bank.*credit\\s+card|hdfc.*credit\\s+card\\s+statement", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("icici\\s+bank.*credit\\s+card|icici.*credit\\s+card\\s+statement", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("kotak\\s+bank.*credit\\s+card|kotak.*credit\\s+card\\s+statement", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("(?:state\\s+bank\\s+of\\s+india|sbi\\s+card|sbi\\s+credit\\s+card)\\s+statement", Pattern.CASE_INSENSITIVE)
-        };
-        
-        for (Pattern pattern : exclusionPatterns) {
-            Matcher matcher = pattern.matcher(headerSection);
-            if (matcher.find()) {
-                return false;
-            }
-        }
-        
-
-        if (headerSection.contains("bank of baroda") && 
-            (headerSection.contains("credit card") || 
-             headerSection.contains("statement") ||
-             headerSection.contains("card statement"))) {
-            return true;
-        }
-        
 
-        if ((headerSection.contains("bob bank") || headerSection.contains("bob card") || 
-             headerSection.contains("bob credit card")) &&
-            (headerSection.contains("credit card") || 
-             headerSection.contains("statement") ||
-             headerSection.contains("bank"))) {
-            return true;
-        }
-        
-
-        Pattern bobPattern1 = Pattern.compile("bank\\s+of\\s+baroda", Pattern.CASE_INSENSITIVE);
-        Matcher bobMatcher1 = bobPattern1.matcher(headerSection);
-        if (bobMatcher1.find()) {
-            int matchPos = bobMatcher1.start();
-            String context = headerSection.substring(Math.max(0, matchPos - 150), 
-                                                   Math.min(headerSection.length(), matchPos + 200));
-
-            if (context.contains("credit card") || context.contains("statement") || 
-                context.contains("card statement") || context.contains("bank")) {
-                return true;
-            }
-        }
-        
-
-        return false;
-    }
+    private static final IssuerSignature SIGNATURE = IssuerSignature.builder("Bank of Baroda")
+            .within(ParseContext.HEADER_LENGTH)
+            .exclude(Keyword.spaced("axis bank credit card"), Keyword.spaced("state bank of india statement"),
+                     Keyword.spaced("sbi card statement"), Keyword.spaced("sbi credit card statement"))
+            .excludeSequence(Keyword.spaced("hdfc bank"), Keyword.spaced("credit card"))
+            .excludeSequence(Keyword.of("hdfc"), Keyword.spaced("credit card statement"))
+            .excludeSequence(Keyword.spaced("icici bank"), Keyword.spaced("credit card"))
+            .excludeSequence(Keyword.of("icici"), Keyword.spaced("credit card statement"))
+            .excludeSequence(Keyword.spaced("kotak bank"), Keyword.spaced("credit card"))
+            .excludeSequence(Keyword.of("kotak"), Keyword.spaced("credit card statement"))
+            .anchored("bank of baroda").with("credit card", "statement", "card statement").end()
+            .anchored("bob bank").with("credit card", "statement", "bank").end()
+            .anchored("bob card").with("credit card", "statement", "bank").end()
+            .anchored("bob credit card").with("credit card", "statement", "bank").end()
+            .anchored(Keyword.spaced("bank of baroda")).near(150, 200, "credit card", "statement", "card statement", "bank").end()
+            .build();
+
+    private static final PatternCatalog.Issuer PATTERNS = PatternCatalog.issuer("Bank of Baroda");
+    private static final List<Pattern> KEYWORD_BALANCE_PATTERNS = balancePatterns(PATTERNS,
+            "total amount due", "outstanding", "balance", "total due", "amount due");
+    private static final Pattern CARD_PATTERN = PATTERNS.compile("(?:card|account)\\s+(?:number|no|ending|#)?\\s*[:]?\\s*(?:\\*{4,}|x{4,}|\\d{4,})?\\s*(?:\\*{0,4}|x{0,4})?\\s*(\\d{4})", Pattern.CASE_INSENSITIVE);
+    private static final CardNumberScanner ALT_SCANNER = CardNumberScanner.of(CardShape.FOUR_GROUPS);
+    private static final Pattern VARIANT_PATTERN = PATTERNS.compile("(bob\\s+card|baroda\\s+card|premium|gold|platinum|select|prime)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CYCLE_PATTERN = PATTERNS.compile("(?:statement\\s+period|billing\\s+period|period)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s*[-–]?\\s*\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DATE_PATTERN = PATTERNS.compile("(?:period|statement\\s+date)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s+to\\s+\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DUE_DATE_PATTERN = PATTERNS.compile("(?:payment\\s+due|due\\s+date|pay\\s+by)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BALANCE_PATTERN = PATTERNS.compile("(?:total\\s+amount\\s+due|outstanding|balance|total\\s+due|amount\\s+due)\\s*[:]?\\s*[Rr][Ss]?\\.?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALT_BALANCE_PATTERN = PATTERNS.compile("(?:total\\s+amount\\s+due|outstanding|balance|total\\s+due|amount\\s+due)\\s*[:]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TRANS_PATTERN = PATTERNS.compile("(\\d+)\\s+(?:transaction|purchase|charge|payment|debit|credit)", Pattern.CASE_INSENSITIVE);
     
     @Override
-    public StatementData parse(InputStream pdfStream) throws IOException {
-        return parse(pdfStream, null);
+    public IssuerSignature signature() {
+        return SIGNATURE;
     }
     
     @Override
-    public StatementData parse(InputStream pdfStream, String password) throws IOException {
-        String text = extractTextFromPdf(pdfStream, password);
+    public StatementData parse(ParseContext parseContext) throws IOException {
+        String text = parseContext.getText();
         
         StatementData data = new StatementData();
-        data.setCardProvider("Bank of Baroda");
+        data.setIssuer(CardIssuer.BANK_OF_BARODA);
         
 
-        Pattern cardPattern = Pattern.compile("(?:card|account)\\s+(?:number|no|ending|#)?\\s*[:]?\\s*(?:\\*{4,}|x{4,}|\\d{4,})?\\s*(?:\\*{0,4}|x{0,4})?\\s*(\\d{4})", Pattern.CASE_INSENSITIVE);
-        Matcher cardMatcher = cardPattern.matcher(text);
+        GuardedMatcher cardMatcher = parseContext.matcher(CARD_PATTERN, text);
         if (cardMatcher.find()) {
-            data.setCardLastFourDigits(cardMatcher.group(1));
+            data.setCardLastFour(lastFour(cardMatcher.group(1)));
         } else {
 
-            Pattern altPattern = Pattern.compile("\\d{4}[\\s-]\\d{4}[\\s-]\\d{4}[\\s-](\\d{4})");
-            Matcher altMatcher = altPattern.matcher(text);
-            if (altMatcher.find()) {
-                data.setCardLastFourDigits(altMatcher.group(1));
+            String cardLast4 = ALT_SCANNER.findLastFour(text);
+            if (cardLast4 != null) {
+                data.setCardLastFour(lastFour(cardLast4));
             } else {
-                data.setCardLastFourDigits(extractLastFourDigits(text));
+                data.setCardLastFour(extractLastFourDigits(text));
             }
         }
         
 
-        Pattern variantPattern = Pattern.compile("(bob\\s+card|baroda\\s+card|premium|gold|platinum|select|prime)", Pattern.CASE_INSENSITIVE);
-        Matcher variantMatcher = variantPattern.matcher(text);
+        GuardedMatcher variantMatcher = parseContext.matcher(VARIANT_PATTERN, text);
         if (variantMatcher.find()) {
             data.setCardVariant(variantMatcher.group(1));
         } else {
@@ -105,63 +85,43 @@ public class BankOfBarodaParser extends StatementParser {
         }
         
 
-        Pattern cyclePattern = Pattern.compile("(?:statement\\s+period|billing\\s+period|period)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s*[-–]?\\s*\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
-        Matcher cycleMatcher = cyclePattern.matcher(text);
+        GuardedMatcher cycleMatcher = parseContext.matcher(CYCLE_PATTERN, text);
         if (cycleMatcher.find()) {
-            data.setBillingCycle(cycleMatcher.group(1));
-            data.setStatementPeriod(cycleMatcher.group(1));
+            data.setBillingCycle(DateRange.parse(cycleMatcher.group(1)));
+            data.setStatementPeriod(DateRange.parse(cycleMatcher.group(1)));
         } else {
 
-            Pattern datePattern = Pattern.compile("(?:period|statement\\s+date)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s+to\\s+\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
-            Matcher dateMatcher = datePattern.matcher(text);
+            GuardedMatcher dateMatcher = parseContext.matcher(DATE_PATTERN, text);
             if (dateMatcher.find()) {
-                data.setBillingCycle(dateMatcher.group(1));
-                data.setStatementPeriod(dateMatcher.group(1));
-            } else {
-                data.setBillingCycle("N/A");
+                data.setBillingCycle(DateRange.parse(dateMatcher.group(1)));
+                data.setStatementPeriod(DateRange.parse(dateMatcher.group(1)));
             }
         }
         
 
-        Pattern dueDatePattern = Pattern.compile("(?:payment\\s+due|due\\s+date|pay\\s+by)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
-        Matcher dueDateMatcher = dueDatePattern.matcher(text);
+        GuardedMatcher dueDateMatcher = parseContext.matcher(DUE_DATE_PATTERN, text);
         if (dueDateMatcher.find()) {
-            data.setPaymentDueDate(dueDateMatcher.group(1));
-        } else {
-            data.setPaymentDueDate("N/A");
+            data.setPaymentDueDate(DateNormalizer.toEpochDay(dueDateMatcher.group(1)));
         }
         
 
-        Pattern balancePattern = Pattern.compile(
-            "(?:total\\s+amount\\s+due|outstanding|balance|total\\s+due|amount\\s+due)\\s*[:]?\\s*[Rr][Ss]?\\.?\\s*([\\d,]+(?:\\.\\d{2})?)",
-            Pattern.CASE_INSENSITIVE
-        );
-        Matcher balanceMatcher = balancePattern.matcher(text);
+        GuardedMatcher balanceMatcher = parseContext.matcher(BALANCE_PATTERN, text);
         if (balanceMatcher.find()) {
-            data.setTotalBalance("₹" + balanceMatcher.group(1));
+            data.setTotalBalance(Amount.parse(balanceMatcher.group(1)));
         } else {
 
-            Pattern altBalancePattern = Pattern.compile(
-                "(?:total\\s+amount\\s+due|outstanding|balance|total\\s+due|amount\\s+due)\\s*[:]?\\s*([\\d,]+(?:\\.\\d{2})?)",
-                Pattern.CASE_INSENSITIVE
-            );
-            Matcher altBalanceMatcher = altBalancePattern.matcher(text);
+            GuardedMatcher altBalanceMatcher = parseContext.matcher(ALT_BALANCE_PATTERN, text);
             if (altBalanceMatcher.find()) {
-                data.setTotalBalance("₹" + altBalanceMatcher.group(1));
+                data.setTotalBalance(Amount.parse(altBalanceMatcher.group(1)));
             } else {
-                data.setTotalBalance(extractBalance(text, new String[]{
-                    "total amount due", "outstanding", "balance", "total due", "amount due"
-                }));
+                data.setTotalBalance(extractBalance(parseContext, text, KEYWORD_BALANCE_PATTERNS));
             }
         }
         
         // Extract transaction count
-        Pattern transPattern = Pattern.compile("(\\d+)\\s+(?:transaction|purchase|charge|payment|debit|credit)", Pattern.CASE_INSENSITIVE);
-        Matcher transMatcher = transPattern.matcher(text);
+        GuardedMatcher transMatcher = parseContext.matcher(TRANS_PATTERN, text);
         if (transMatcher.find()) {
-            data.setTotalTransactions(transMatcher.group(1));
-        } else {
-            data.setTotalTransactions("N/A");
+            data.setTotalTransactions(count(transMatcher.group(1)));
         }
         
         return data;
@@ -0,0 +1,74 @@
+package com.demo.parser;
+
+import java.util.regex.MatchResult;
+
+/**
+ * A match found by a {@link FieldMatcher}, with group numbers relative to the
+ * alternative that matched, exactly as if that pattern had been run alone.
+ */
+public final class FieldMatch implements MatchResult {
+
+    private final int alternative;
+    private final MatchResult result;
+    private final int base;
+    private final int groupCount;
+
+    FieldMatch(int alternative, MatchResult result, int base, int groupCount) {
+        this.alternative = alternative;
+        this.result = result;
+        this.base = base;
+        this.groupCount = groupCount;
+    }
+
+    /** Index of the matching pattern in the matcher's priority order. */
+    public int alternative() {
+        return alternative;
+    }
+
+    @Override
+    public int start() {
+        return result.start(base);
+    }
+
+    @Override
+    public int start(int group) {
+        return result.start(base + checkGroup(group));
+    }
+
+    @Override
+    public int end() {
+        return result.end(base);
+    }
+
+    @Override
+    public int end(int group) {
+        return result.end(base + checkGroup(group));
+    }
+
+    @Override
+    public String group() {
+        return result.group(base);
+    }
+
+    @Override
+    public String group(int group) {
+        return result.group(base + checkGroup(group));
+    }
+
+    @Override
+    public int groupCount() {
+        return groupCount;
+    }
+
+    private int checkGroup(int group) {
+        if (group < 0 || group > groupCount) {
+            throw new IndexOutOfBoundsException("No group " + group);
+        }
+        return group;
+    }
+
+    @Override
+    public String toString() {
+        return "FieldMatch(alternative=" + alternative + ", match=" + group() + ")";
+    }
+}
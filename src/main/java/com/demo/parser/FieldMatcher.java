@@ -0,0 +1,190 @@
+package com.demo.parser;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ordered fallback patterns for one field, merged into a single alternation
+ * so the text is scanned once instead of once per pattern.
+ * <p>
+ * {@link #find(CharSequence, Predicate)} returns exactly what the usual loop
+ * would: the first accepted match of the first pattern that has one, where
+ * each pattern's matches are visited as {@code while (matcher.find())} would
+ * visit them. The merged pattern reports the highest-priority alternative at
+ * each position; when that one is rejected, the lower-priority alternatives
+ * are tried at the same position on their own, and once an alternative is
+ * accepted only the alternatives above it are searched for.
+ * <p>
+ * Alternatives may not use named groups or back-references, whose numbering
+ * would change inside the merged pattern. Instances are immutable and
+ * thread-safe.
+ */
+public final class FieldMatcher {
+
+    private final List<Pattern> alternatives;
+    /** {@code merged[k]} is the alternation of alternatives 0 to k. */
+    private final Pattern[] merged;
+    /** Group number of the group wrapping each alternative in the merged patterns. */
+    private final int[] offsets;
+    private final int[] groupCounts;
+
+    private FieldMatcher(PatternCatalog.Issuer catalog, List<Pattern> alternatives) {
+        if (alternatives.isEmpty()) {
+            throw new IllegalArgumentException("A field needs at least one pattern");
+        }
+        this.alternatives = List.copyOf(alternatives);
+        this.merged = new Pattern[alternatives.size()];
+        this.offsets = new int[alternatives.size()];
+        this.groupCounts = new int[alternatives.size()];
+        StringBuilder regex = new StringBuilder();
+        int group = 1;
+        for (int k = 0; k < alternatives.size(); k++) {
+            Pattern alternative = alternatives.get(k);
+            checkMergeable(alternative);
+            if (k > 0) {
+                regex.append('|');
+            }
+            regex.append("((?").append(inlineFlags(alternative)).append(':').append(alternative.pattern());
+            // A trailing comment in a COMMENTS pattern would otherwise swallow the closing parentheses
+            regex.append((alternative.flags() & Pattern.COMMENTS) != 0 ? "\n))" : "))");
+            offsets[k] = group;
+            groupCounts[k] = alternative.matcher("").groupCount();
+            group += 1 + groupCounts[k];
+            merged[k] = catalog.compile(regex.toString());
+        }
+    }
+
+    public static FieldMatcher of(PatternCatalog.Issuer catalog, Pattern... alternatives) {
+        return new FieldMatcher(catalog, List.of(alternatives));
+    }
+
+    public static FieldMatcher of(PatternCatalog.Issuer catalog, List<Pattern> alternatives) {
+        return new FieldMatcher(catalog, alternatives);
+    }
+
+    public List<Pattern> getAlternatives() {
+        return alternatives;
+    }
+
+    /** The merged pattern of all alternatives. */
+    @Override
+    public String toString() {
+        return merged[merged.length - 1].pattern();
+    }
+
+    /** First match of the first pattern that matches, or {@code null}. */
+    public FieldMatch find(CharSequence text) {
+        return find(text, match -> true);
+    }
+
+    /** First accepted match of the first pattern that has one, or {@code null}. */
+    public FieldMatch find(CharSequence text, Predicate<? super FieldMatch> accept) {
+        int count = alternatives.size();
+        // Alternatives below this index can still beat the current result
+        int best = count;
+        FieldMatch result = null;
+        // Where each pattern's own find() loop would resume after a rejected match
+        int[] resumeAt = new int[count];
+        Matcher[] single = new Matcher[count];
+        Matcher matcher = merged[count - 1].matcher(text);
+        int from = 0;
+        while (best > 0 && from <= text.length() && matcher.find(from)) {
+            int at = matcher.start();
+            int reported = alternativeAt(matcher, best);
+            for (int k = reported; k < best; k++) {
+                if (at < resumeAt[k]) {
+                    continue;
+                }
+                FieldMatch candidate;
+                if (k == reported) {
+                    candidate = new FieldMatch(k, matcher.toMatchResult(), offsets[k], groupCounts[k]);
+                } else {
+                    Matcher alone = single(single, k, text);
+                    alone.region(at, text.length());
+                    if (!alone.lookingAt()) {
+                        continue;
+                    }
+                    candidate = new FieldMatch(k, alone.toMatchResult(), 0, groupCounts[k]);
+                }
+                if (accept.test(candidate)) {
+                    result = candidate;
+                    best = k;
+                    break;
+                }
+                resumeAt[k] = candidate.end() > at ? candidate.end() : at + 1;
+            }
+            if (best > 0 && best < count) {
+                matcher.usePattern(merged[best - 1]);
+            }
+            from = at + 1;
+        }
+        return result;
+    }
+
+    private int alternativeAt(Matcher matcher, int limit) {
+        for (int k = 0; k < limit; k++) {
+            if (matcher.start(offsets[k]) >= 0) {
+                return k;
+            }
+        }
+        throw new IllegalStateException("Merged pattern matched no alternative");
+    }
+
+    private Matcher single(Matcher[] single, int k, CharSequence text) {
+        if (single[k] == null) {
+            single[k] = alternatives.get(k).matcher(text);
+            single[k].useTransparentBounds(true);
+            single[k].useAnchoringBounds(false);
+        }
+        return single[k];
+    }
+
+    private static void checkMergeable(Pattern pattern) {
+        String regex = pattern.pattern();
+        for (int i = 0; i < regex.length() - 1; i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                char next = regex.charAt(i + 1);
+                if ((next >= '1' && next <= '9') || next == 'k') {
+                    throw new IllegalArgumentException("Back-references cannot be merged: " + regex);
+                }
+                i++;
+            } else if (c == '(' && regex.startsWith("?<", i + 1) && i + 3 < regex.length()
+                    && Character.isLetter(regex.charAt(i + 3))) {
+                throw new IllegalArgumentException("Named groups cannot be merged: " + regex);
+            }
+        }
+    }
+
+    private static String inlineFlags(Pattern pattern) {
+        int flags = pattern.flags();
+        if ((flags & (Pattern.LITERAL | Pattern.CANON_EQ)) != 0) {
+            throw new IllegalArgumentException("LITERAL and CANON_EQ patterns cannot be merged: " + pattern);
+        }
+        StringBuilder inline = new StringBuilder();
+        if ((flags & Pattern.CASE_INSENSITIVE) != 0) {
+            inline.append('i');
+        }
+        if ((flags & Pattern.MULTILINE) != 0) {
+            inline.append('m');
+        }
+        if ((flags & Pattern.DOTALL) != 0) {
+            inline.append('s');
+        }
+        if ((flags & Pattern.UNICODE_CASE) != 0) {
+            inline.append('u');
+        }
+        if ((flags & Pattern.COMMENTS) != 0) {
+            inline.append('x');
+        }
+        if ((flags & Pattern.UNIX_LINES) != 0) {
+            inline.append('d');
+        }
+        if ((flags & Pattern.UNICODE_CHARACTER_CLASS) != 0) {
+            inline.append('U');
+        }
+        return inline.toString();
+    }
+}
@@ -1,76 +1,88 @@
 package com.demo.parser;
 
+import com.demo.detection.IssuerSignature;
+import com.demo.detection.Keyword;
+import com.demo.model.CardIssuer;
+import com.demo.model.DateRange;
 import com.demo.model.StatementData;
+import com.demo.model.TransactionTable;
+import com.demo.text.Amount;
+import com.demo.text.CardNumberScanner;
+import com.demo.text.CardShape;
+import com.demo.text.DateNormalizer;
+import com.demo.text.GuardedMatcher;
+import com.demo.text.NumericDateScanner;
+import com.demo.text.Span;
+import com.demo.text.DocumentView;
+import com.demo.text.TextWindow;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 
 @Component
 public class HDFCParser extends StatementParser {
-    
-    @Override
-    public boolean canParse(String text) {
 
-        return Pattern.compile("hdfc\\s+bank", Pattern.CASE_INSENSITIVE).matcher(text).find() ||
-               Pattern.compile("hdfc\\s+bank\\s+credit\\s+card", Pattern.CASE_INSENSITIVE).matcher(text).find() ||
-               (text.toLowerCase().contains("hdfc") && text.toLowerCase().contains("we understand your world"));
-    }
+    private static final IssuerSignature SIGNATURE = IssuerSignature.builder("HDFC")
+            .phrase(Keyword.spaced("hdfc bank"), Keyword.spaced("hdfc bank credit card"))
+            .anchored("hdfc").with("we understand your world").end()
+            .build();
+
+    private static final PatternCatalog.Issuer PATTERNS = PatternCatalog.issuer("HDFC");
+    private static final long MAX_BALANCE = Amount.rupees(500000);
+    private static final FieldMatcher STMT_DATE_FIELD = FieldMatcher.of(PATTERNS,
+            PATTERNS.compile("(?:statement\\s+date|date\\s+of\\s+statement)\\s*[:]\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("(?:statement\\s+date|date\\s+of\\s+statement)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("statement\\s+for\\s+.*?(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE));
+    private static final Pattern CARD_PATTERN = PATTERNS.compile("(?:card\\s+no|card\\s+number|card)\\s*[:]?\\s*\\d{4}\\s+\\d{2}[xX]{2}\\s+[xX]{4}\\s+(\\d{4})", Pattern.CASE_INSENSITIVE);
+    private static final CardNumberScanner CARD_SCANNER = CardNumberScanner.of(CardShape.SPLIT_MASK, CardShape.GROUPED_MASK, CardShape.FOUR_GROUPS);
+    private static final Pattern CARD_NAME_PATTERN = PATTERNS.compile("(millennia|regalia|diners|infinia|moneyback|freedom|titanium|platinum|gold|classic|aura|imperia|infinity)\\s+credit\\s+card\\s+statement", Pattern.CASE_INSENSITIVE);
+    private static final Pattern VARIANT_PATTERN = PATTERNS.compile("\\b(millennia|regalia|diners|infinia|moneyback|freedom|titanium|platinum|gold|classic|aura|imperia|infinity)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CYCLE_PATTERN = PATTERNS.compile("(?:billing\\s+period|statement\\s+period|period)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s*[-–]?\\s*to\\s*\\s*\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CYCLE_PATTERN_2 = PATTERNS.compile("(?:billing\\s+period|statement\\s+period|period)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s*[-–]\\s*\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DATE_RANGE_PATTERN = PATTERNS.compile("[:]\\s*(\\d{1,2}/\\d{1,2}/\\d{4}\\s*[-–]?\\s*to\\s*\\s*\\d{1,2}/\\d{1,2}/\\d{4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DUE_DATE_PATTERN_1 = PATTERNS.compile("payment\\s+due\\s+date\\s*[:]?\\s*(\\d{1,2}/\\d{1,2}/\\d{4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DUE_DATE_PATTERN_2 = PATTERNS.compile("(?:due\\s+date|payment\\s+due)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DUE_DATE_PATTERN_3 = PATTERNS.compile("payment\\s+due\\s+date[^\\d]*(\\d{1,2}/\\d{1,2}/\\d{4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TOTAL_DUES_PATTERN = PATTERNS.compile("total\\s+dues?\\s*[:]?\\s*[₹Rr]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SIMPLE_PATTERN = PATTERNS.compile("total\\s+dues?\\s*[:]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TRANS_LINE_PATTERN = PATTERNS.compile("(\\d{1,2}/\\d{1,2}/\\d{4})\\s+([A-Z][^\\n\\r]{5,}?)\\s+([\\d,]+\\.\\d{2})");
     
     @Override
-    public StatementData parse(InputStream pdfStream) throws IOException {
-        return parse(pdfStream, null);
+    public IssuerSignature signature() {
+        return SIGNATURE;
     }
     
     @Override
-    public StatementData parse(InputStream pdfStream, String password) throws IOException {
-        String text = extractTextFromPdf(pdfStream, password);
+    public StatementData parse(ParseContext parseContext) throws IOException {
+        String text = parseContext.getText();
+        DocumentView view = parseContext.getView();
         
         StatementData data = new StatementData();
-        data.setCardProvider("HDFC");
+        data.setIssuer(CardIssuer.HDFC);
         
 
-        Pattern cardPattern = Pattern.compile("(?:card\\s+no|card\\s+number|card)\\s*[:]?\\s*\\d{4}\\s+\\d{2}[xX]{2}\\s+[xX]{4}\\s+(\\d{4})", Pattern.CASE_INSENSITIVE);
-        Matcher cardMatcher = cardPattern.matcher(text);
+        GuardedMatcher cardMatcher = parseContext.matcher(CARD_PATTERN, text);
         if (cardMatcher.find()) {
-            data.setCardLastFourDigits(cardMatcher.group(1));
+            data.setCardLastFour(lastFour(cardMatcher.group(1)));
         } else {
 
-            Pattern altPattern = Pattern.compile("(?:\\d{4}\\s+)?\\d{4}\\s+\\d{1,2}[xX]{1,2}\\s+[xX]{2,4}\\s+(\\d{4})");
-            Matcher altMatcher = altPattern.matcher(text);
-            if (altMatcher.find()) {
-                data.setCardLastFourDigits(altMatcher.group(1));
+            String cardLast4 = CARD_SCANNER.findLastFour(text);
+            if (cardLast4 != null) {
+                data.setCardLastFour(lastFour(cardLast4));
             } else {
-
-                Pattern flexiblePattern = Pattern.compile("\\d{4}\\s+\\d{2}[xX]{2}\\s+[xX]{4}\\s+(\\d{4})");
-                Matcher flexibleMatcher = flexiblePattern.matcher(text);
-                if (flexibleMatcher.find()) {
-                    data.setCardLastFourDigits(flexibleMatcher.group(1));
-                } else {
-
-                    Pattern standardPattern = Pattern.compile("\\d{4}[\\s-]\\d{4}[\\s-]\\d{4}[\\s-](\\d{4})");
-                    Matcher standardMatcher = standardPattern.matcher(text);
-                    if (standardMatcher.find()) {
-                        data.setCardLastFourDigits(standardMatcher.group(1));
-                    } else {
-                        data.setCardLastFourDigits(extractLastFourDigits(text));
-                    }
-                }
+                data.setCardLastFour(extractLastFourDigits(text));
             }
         }
         
 
-        Pattern cardNamePattern = Pattern.compile("(millennia|regalia|diners|infinia|moneyback|freedom|titanium|platinum|gold|classic|aura|imperia|infinity)\\s+credit\\s+card\\s+statement", Pattern.CASE_INSENSITIVE);
-        Matcher cardNameMatcher = cardNamePattern.matcher(text);
+        GuardedMatcher cardNameMatcher = parseContext.matcher(CARD_NAME_PATTERN, text);
         if (cardNameMatcher.find()) {
             data.setCardVariant(cardNameMatcher.group(1));
         } else {
 
-            Pattern variantPattern = Pattern.compile("\\b(millennia|regalia|diners|infinia|moneyback|freedom|titanium|platinum|gold|classic|aura|imperia|infinity)\\b", Pattern.CASE_INSENSITIVE);
-            Matcher variantMatcher = variantPattern.matcher(text);
+            GuardedMatcher variantMatcher = parseContext.matcher(VARIANT_PATTERN, text);
             if (variantMatcher.find()) {
                 data.setCardVariant(variantMatcher.group(1));
             } else {
@@ -82,74 +94,62 @@ public class HDFCParser extends StatementParser {
         String stmtDate = null;
         
 
-        Pattern[] stmtDatePatterns = {
-            Pattern.compile("(?:statement\\s+date|date\\s+of\\s+statement)\\s*[:]\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("(?:statement\\s+date|date\\s+of\\s+statement)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("statement\\s+for\\s+.*?(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE)
-        };
         
-        for (Pattern pattern : stmtDatePatterns) {
-            Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
-                stmtDate = matcher.group(1);
-                break;
-            }
+        FieldMatch stmtDateMatch = parseContext.find(STMT_DATE_FIELD, text);
+        if (stmtDateMatch != null) {
+            stmtDate = DateNormalizer.normalize(stmtDateMatch.group(1));
         }
         
 
         if (stmtDate == null) {
-            int stmtForIndex = text.toLowerCase().indexOf("statement for hdfc bank credit card");
+            int stmtForIndex = view.indexOf("statement for hdfc bank credit card");
             if (stmtForIndex >= 0) {
-                String sectionAfter = text.substring(stmtForIndex, Math.min(stmtForIndex + 300, text.length()));
-                Pattern dateNearStmt = Pattern.compile("(\\d{1,2}/\\d{1,2}/\\d{4})");
-                Matcher dateMatcher = dateNearStmt.matcher(sectionAfter);
-                if (dateMatcher.find()) {
-                    stmtDate = dateMatcher.group(1);
+                TextWindow sectionAfter = view.window(stmtForIndex, Math.min(stmtForIndex + 300, text.length()));
+                long dateSpan = NumericDateScanner.ANYWHERE.find(sectionAfter);
+                if (dateSpan != Span.NONE) {
+                    stmtDate = DateNormalizer.normalize(Span.text(sectionAfter, dateSpan));
                 }
             }
         }
         
         if (stmtDate != null) {
-            data.setStatementPeriod(stmtDate);
+            data.setStatementPeriod(DateRange.parse(stmtDate));
         }
         
 
         String billingCycle = null;
         
 
-        Pattern cyclePattern = Pattern.compile("(?:billing\\s+period|statement\\s+period|period)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s*[-–]?\\s*to\\s*\\s*\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
-        Matcher cycleMatcher = cyclePattern.matcher(text);
+        GuardedMatcher cycleMatcher = parseContext.matcher(CYCLE_PATTERN, text);
         if (cycleMatcher.find()) {
             billingCycle = cycleMatcher.group(1);
-            data.setBillingCycle(billingCycle);
+            data.setBillingCycle(DateRange.parse(billingCycle));
             if (stmtDate == null) {
-                data.setStatementPeriod(billingCycle);
+                data.setStatementPeriod(DateRange.parse(billingCycle));
             }
         } else {
 
-            Pattern cyclePattern2 = Pattern.compile("(?:billing\\s+period|statement\\s+period|period)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s*[-–]\\s*\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
-            Matcher cycleMatcher2 = cyclePattern2.matcher(text);
+            GuardedMatcher cycleMatcher2 = parseContext.matcher(CYCLE_PATTERN_2, text);
             if (cycleMatcher2.find()) {
                 billingCycle = cycleMatcher2.group(1);
-                data.setBillingCycle(billingCycle);
+                data.setBillingCycle(DateRange.parse(billingCycle));
                 if (stmtDate == null) {
-                    data.setStatementPeriod(billingCycle);
+                    data.setStatementPeriod(DateRange.parse(billingCycle));
                 }
             } else {
 
-                int periodIndex = text.toLowerCase().indexOf("billing period");
+                int periodIndex = view.indexOf("billing period");
                 if (periodIndex < 0) {
-                    periodIndex = text.toLowerCase().indexOf("statement period");
+                    periodIndex = view.indexOf("statement period");
                 }
                 if (periodIndex >= 0) {
-                    String periodSection = text.substring(periodIndex, Math.min(periodIndex + 100, text.length()));
-                    Pattern dateRangePattern = Pattern.compile("[:]\\s*(\\d{1,2}/\\d{1,2}/\\d{4}\\s*[-–]?\\s*to\\s*\\s*\\d{1,2}/\\d{1,2}/\\d{4})", Pattern.CASE_INSENSITIVE);
-                    Matcher dateRangeMatcher = dateRangePattern.matcher(periodSection);
+                    TextWindow periodSection = view.window(periodIndex, Math.min(periodIndex + 100, text.length()));
+                    GuardedMatcher dateRangeMatcher = parseContext.matcher(DATE_RANGE_PATTERN, periodSection);
                     if (dateRangeMatcher.find()) {
                         billingCycle = dateRangeMatcher.group(1);
-                        data.setBillingCycle(billingCycle);
+                        data.setBillingCycle(DateRange.parse(billingCycle));
                         if (stmtDate == null) {
-                            data.setStatementPeriod(billingCycle);
+                            data.setStatementPeriod(DateRange.parse(billingCycle));
                         }
                     }
                 }
@@ -157,9 +157,7 @@ public class HDFCParser extends StatementParser {
 
                 if (billingCycle == null) {
                     if (stmtDate != null) {
-                        data.setBillingCycle(stmtDate);
-                    } else {
-                        data.setBillingCycle("N/A");
+                        data.setBillingCycle(DateRange.parse(stmtDate));
                     }
                 }
             }
@@ -167,26 +165,21 @@ public class HDFCParser extends StatementParser {
         
 
         String dueDate = null;
-        Pattern dueDatePattern1 = Pattern.compile("payment\\s+due\\s+date\\s*[:]?\\s*(\\d{1,2}/\\d{1,2}/\\d{4})", Pattern.CASE_INSENSITIVE);
-        Matcher dueDateMatcher1 = dueDatePattern1.matcher(text);
+        GuardedMatcher dueDateMatcher1 = parseContext.matcher(DUE_DATE_PATTERN_1, text);
         if (dueDateMatcher1.find()) {
-            dueDate = dueDateMatcher1.group(1);
-            data.setPaymentDueDate(dueDate);
+            dueDate = DateNormalizer.normalize(dueDateMatcher1.group(1));
+            data.setPaymentDueDate(DateNormalizer.toEpochDay(dueDate));
         } else {
-            Pattern dueDatePattern2 = Pattern.compile("(?:due\\s+date|payment\\s+due)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
-            Matcher dueDateMatcher2 = dueDatePattern2.matcher(text);
+            GuardedMatcher dueDateMatcher2 = parseContext.matcher(DUE_DATE_PATTERN_2, text);
             if (dueDateMatcher2.find()) {
-                dueDate = dueDateMatcher2.group(1);
-                data.setPaymentDueDate(dueDate);
+                dueDate = DateNormalizer.normalize(dueDateMatcher2.group(1));
+                data.setPaymentDueDate(DateNormalizer.toEpochDay(dueDate));
             } else {
 
-                Pattern dueDatePattern3 = Pattern.compile("payment\\s+due\\s+date[^\\d]*(\\d{1,2}/\\d{1,2}/\\d{4})", Pattern.CASE_INSENSITIVE);
-                Matcher dueDateMatcher3 = dueDatePattern3.matcher(text);
+                GuardedMatcher dueDateMatcher3 = parseContext.matcher(DUE_DATE_PATTERN_3, text);
                 if (dueDateMatcher3.find()) {
-                    dueDate = dueDateMatcher3.group(1);
-                    data.setPaymentDueDate(dueDate);
-                } else {
-                    data.setPaymentDueDate("N/A");
+                    dueDate = DateNormalizer.normalize(dueDateMatcher3.group(1));
+                    data.setPaymentDueDate(DateNormalizer.toEpochDay(dueDate));
                 }
             }
         }
@@ -195,59 +188,44 @@ public class HDFCParser extends StatementParser {
         String balance = null;
         
 
-        int paymentDueIndex = text.toLowerCase().indexOf("payment due date");
+        int paymentDueIndex = view.indexOf("payment due date");
         if (paymentDueIndex >= 0) {
-            String summarySection = text.substring(paymentDueIndex, Math.min(paymentDueIndex + 800, text.length()));
-            Pattern totalDuesNearDue = Pattern.compile(
-                "total\\s+dues?\\s*[:]?\\s*[₹Rr]?\\s*([\\d,]+(?:\\.\\d{2})?)",
-                Pattern.CASE_INSENSITIVE
-            );
-            Matcher matcher = totalDuesNearDue.matcher(summarySection);
+            TextWindow summarySection = view.window(paymentDueIndex, Math.min(paymentDueIndex + 800, text.length()));
+            GuardedMatcher matcher = parseContext.matcher(TOTAL_DUES_PATTERN, summarySection);
             while (matcher.find()) {
-                String valueStr = matcher.group(1).replace(",", "");
-                try {
-                    double value = Double.parseDouble(valueStr);
-                    // Accept any value > 0 if near Payment Due Date (very lenient)
-                    if (value > 0) {
-                        balance = matcher.group(1);
-                        break;
-                    }
-                } catch (NumberFormatException e) {
-                    // Skip
+                long value = Amount.parse(summarySection, matcher.start(1), matcher.end(1));
+                // Accept any value > 0 if near Payment Due Date (very lenient)
+                if (value > 0) {
+                    balance = matcher.group(1);
+                    break;
                 }
             }
         }
         
 
         if (balance == null) {
-            Pattern totalDuesPattern = Pattern.compile(
-                "total\\s+dues?\\s*[:]?\\s*[₹Rr]?\\s*([\\d,]+(?:\\.\\d{2})?)",
-                Pattern.CASE_INSENSITIVE
-            );
-            Matcher allTotalDues = totalDuesPattern.matcher(text);
+            GuardedMatcher allTotalDues = parseContext.matcher(TOTAL_DUES_PATTERN, text);
             
-            double maxValue = 0;
+            long maxValue = 0;
             String maxValueStr = null;
             
             while (allTotalDues.find()) {
                 int pos = allTotalDues.start();
-                String valueStr = allTotalDues.group(1).replace(",", "");
-                try {
-                    double value = Double.parseDouble(valueStr);
-
-                    String context = text.substring(Math.max(0, pos - 150), Math.min(text.length(), pos + 150)).toLowerCase();
-                    
-
-                    boolean isExcluded = (context.contains("opening balance") && context.indexOf("opening balance") < context.indexOf("total dues")) ||
-                                       (context.contains("previous balance") && context.indexOf("previous balance") < context.indexOf("total dues")) ||
-                                       value > 500000; // Only exclude very large credit limits
-                    
-                    if (!isExcluded && value > maxValue && value > 0 && value <= 500000) {
-                        maxValue = value;
-                        maxValueStr = allTotalDues.group(1);
-                    }
-                } catch (NumberFormatException e) {
-                    // Skip
+                long value = Amount.parse(text, allTotalDues.start(1), allTotalDues.end(1));
+                if (value == Amount.INVALID) {
+                    continue;
+                }
+
+                TextWindow context = view.around(pos, 150, 150);
+                
+
+                boolean isExcluded = (context.contains("opening balance") && context.indexOf("opening balance") < context.indexOf("total dues")) ||
+                                   (context.contains("previous balance") && context.indexOf("previous balance") < context.indexOf("total dues")) ||
+                                   value > MAX_BALANCE; // Only exclude very large credit limits
+                
+                if (!isExcluded && value > maxValue && value > 0 && value <= MAX_BALANCE) {
+                    maxValue = value;
+                    maxValueStr = allTotalDues.group(1);
                 }
             }
             
@@ -258,26 +236,17 @@ public class HDFCParser extends StatementParser {
         
 
         if (balance == null) {
-            Pattern simplePattern = Pattern.compile(
-                "total\\s+dues?\\s*[:]?\\s*([\\d,]+(?:\\.\\d{2})?)",
-                Pattern.CASE_INSENSITIVE
-            );
-            Matcher simpleMatcher = simplePattern.matcher(text);
+            GuardedMatcher simpleMatcher = parseContext.matcher(SIMPLE_PATTERN, text);
             
-            double maxValue = 0;
+            long maxValue = 0;
             String maxValueStr = null;
             
             while (simpleMatcher.find()) {
-                String valueStr = simpleMatcher.group(1).replace(",", "");
-                try {
-                    double value = Double.parseDouble(valueStr);
-                    // Just pick the largest reasonable value
-                    if (value > maxValue && value > 0 && value <= 500000) {
-                        maxValue = value;
-                        maxValueStr = simpleMatcher.group(1);
-                    }
-                } catch (NumberFormatException e) {
-                    // Skip
+                long value = Amount.parse(text, simpleMatcher.start(1), simpleMatcher.end(1));
+                // Just pick the largest reasonable value
+                if (value > maxValue && value > 0 && value <= MAX_BALANCE) {
+                    maxValue = value;
+                    maxValueStr = simpleMatcher.group(1);
                 }
             }
             
@@ -287,9 +256,7 @@ public class HDFCParser extends StatementParser {
         }
         
         if (balance != null) {
-            data.setTotalBalance("₹" + balance);
-        } else {
-            data.setTotalBalance("N/A");
+            data.setTotalBalance(Amount.parse(balance));
         }
         
 
@@ -297,13 +264,13 @@ public class HDFCParser extends StatementParser {
         int transactionCount = 0;
         
 
-        int domesticTransIndex = text.toLowerCase().indexOf("domestic transactions");
+        int domesticTransIndex = view.indexOf("domestic transactions");
         if (domesticTransIndex >= 0) {
             // Extract transaction section (but stop before "EMI" or "Important Information")
-            String transSection = text.substring(domesticTransIndex);
-            int endIndex1 = transSection.toLowerCase().indexOf("emi");
-            int endIndex2 = transSection.toLowerCase().indexOf("important information");
-            int endIndex3 = transSection.toLowerCase().indexOf("international transactions");
+            TextWindow transSection = view.window(domesticTransIndex);
+            int endIndex1 = transSection.indexOf("emi");
+            int endIndex2 = transSection.indexOf("important information");
+            int endIndex3 = transSection.indexOf("international transactions");
             
             int endIndex = transSection.length(); // Default to full length
             if (endIndex1 > 0) endIndex = Math.min(endIndex, endIndex1);
@@ -311,37 +278,26 @@ public class HDFCParser extends StatementParser {
             if (endIndex3 > 0) endIndex = Math.min(endIndex, endIndex3);
             
             if (endIndex < transSection.length()) {
-                transSection = transSection.substring(0, endIndex);
+                transSection = transSection.head(endIndex);
             }
             
 
-            Pattern datePattern = Pattern.compile("\\b(\\d{1,2}/\\d{1,2}/\\d{4})\\b");
-            java.util.regex.Matcher dateMatcher = datePattern.matcher(transSection);
-            java.util.List<String> allDates = new java.util.ArrayList<>();
+            transactionCount = countDates(transSection, stmtDate, dueDate);
             
-            while (dateMatcher.find()) {
-                String date = dateMatcher.group(1);
 
-                if ((stmtDate == null || !date.equals(stmtDate)) && 
-                    (dueDate == null || !date.equals(dueDate))) {
-                    allDates.add(date);
-                }
-            }
-            
-            transactionCount = allDates.size();
-            
-
-            Pattern transLinePattern = Pattern.compile("(\\d{1,2}/\\d{1,2}/\\d{4})\\s+[A-Z][^\\n\\r]{5,}?\\s+([\\d,]+(?:\\.\\d{2})?)");
-            java.util.regex.Matcher transLineMatcher = transLinePattern.matcher(transSection);
+            GuardedMatcher transLineMatcher = parseContext.matcher(TRANS_LINE_PATTERN, transSection);
+            TransactionTable.Builder transactions = TransactionTable.builder();
             int lineCount = 0;
             
             while (transLineMatcher.find()) {
-                String transDate = transLineMatcher.group(1);
+                String transDate = DateNormalizer.normalize(transLineMatcher.group(1));
                 if ((stmtDate == null || !transDate.equals(stmtDate)) && 
                     (dueDate == null || !transDate.equals(dueDate))) {
                     lineCount++;
+                    addTransaction(transactions, transSection, transLineMatcher, 2, 3);
                 }
             }
+            data.setTransactions(transactions.build());
             
 
             transactionCount = Math.max(transactionCount, lineCount);
@@ -349,11 +305,11 @@ public class HDFCParser extends StatementParser {
         
 
         if (transactionCount < 12 && domesticTransIndex >= 0) {
-            String transSection = text.substring(domesticTransIndex);
-            int endIndex1 = transSection.toLowerCase().indexOf("emi");
-            int endIndex2 = transSection.toLowerCase().indexOf("important information");
-            int endIndex3 = transSection.toLowerCase().indexOf("international transactions");
-            int endIndex4 = transSection.toLowerCase().indexOf("cash points");
+            TextWindow transSection = view.window(domesticTransIndex);
+            int endIndex1 = transSection.indexOf("emi");
+            int endIndex2 = transSection.indexOf("important information");
+            int endIndex3 = transSection.indexOf("international transactions");
+            int endIndex4 = transSection.indexOf("cash points");
             
             int endIndex = transSection.length(); // Default to full length
             if (endIndex1 > 0) endIndex = Math.min(endIndex, endIndex1);
@@ -362,34 +318,20 @@ public class HDFCParser extends StatementParser {
             if (endIndex4 > 0) endIndex = Math.min(endIndex, endIndex4);
             
             if (endIndex < transSection.length()) {
-                transSection = transSection.substring(0, endIndex);
+                transSection = transSection.head(endIndex);
             }
             
 
-            Pattern datePattern = Pattern.compile("\\b(\\d{1,2}/\\d{1,2}/\\d{4})\\b");
-            java.util.regex.Matcher dateMatcher = datePattern.matcher(transSection);
-            java.util.List<String> allDates = new java.util.ArrayList<>();
-            
-            while (dateMatcher.find()) {
-                String date = dateMatcher.group(1);
-                // Exclude statement-related dates only
-                if ((stmtDate == null || !date.equals(stmtDate)) && 
-                    (dueDate == null || !date.equals(dueDate))) {
-                    allDates.add(date);
-                }
-            }
-
-            git init
+            // Exclude statement-related dates only
+            int dateCount = countDates(transSection, stmtDate, dueDate);
 
-            if (allDates.size() > transactionCount) {
-                transactionCount = allDates.size();
+            if (dateCount > transactionCount) {
+                transactionCount = dateCount;
             }
         }
         
         if (transactionCount > 0) {
-            data.setTotalTransactions(String.valueOf(transactionCount));
-        } else {
-            data.setTotalTransactions("N/A");
+            data.setTotalTransactions(transactionCount);
         }
         
         return data;
@@ -1,35 +1,95 @@
 package com.demo.parser;
 
+import com.demo.detection.IssuerSignature;
+import com.demo.detection.Keyword;
+import com.demo.model.CardIssuer;
+import com.demo.model.DateRange;
 import com.demo.model.StatementData;
+import com.demo.model.TransactionTable;
+import com.demo.text.Amount;
+import com.demo.text.CardNumberScanner;
+import com.demo.text.CardShape;
+import com.demo.text.DateNormalizer;
+import com.demo.text.GuardedMatcher;
+import com.demo.text.DocumentView;
+import com.demo.text.TextWindow;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.regex.Matcher;
+import java.util.List;
 import java.util.regex.Pattern;
 
 
 @Component
 public class ICICIParser extends StatementParser {
+
+    private static final IssuerSignature SIGNATURE = IssuerSignature.builder("ICICI")
+            .phrase("icici", "icici bank")
+            .phrase(Keyword.spaced("icici bank"), Keyword.spaced("icici card"), Keyword.spaced("icici credit"))
+            .build();
+
+    private static final PatternCatalog.Issuer PATTERNS = PatternCatalog.issuer("ICICI");
+    private static final long MAX_BALANCE = Amount.rupees(500000);
+    private static final long MIN_SUMMARY_BALANCE = Amount.rupees(1000);
+    private static final long MAX_SUMMARY_BALANCE = Amount.rupees(100000);
+    private static final List<Pattern> FILENAME_PATTERNS = List.of(
+            PATTERNS.compile("retail[_-](coral|ruby|platinum|emerald|sapphiro|apay|amazon|hpcl|hp|titanium|signature|miles)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("(coral|ruby|platinum|emerald|sapphiro|apay|amazon|hpcl|hp|titanium|signature|miles)[_-]retail", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("_([a-z]+)_retail", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("retail_([a-z]+)_", Pattern.CASE_INSENSITIVE));
+    private static final FieldMatcher SUMMARY_TOTAL_DUE_FIELD = FieldMatcher.of(PATTERNS,
+            PATTERNS.compile("total\\s+amount\\s+due\\s*[:]\\s*[₹RrSs]?\\s*([\\d]{1,3}(?:,\\d{2,3})+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due[:]\\s*([\\d]{1,3}(?:,\\d{2,3})+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due\\s+([\\d]{1,3}(?:,\\d{2,3})+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due\\s*[:]\\s*[₹Rr]?[Ss]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due[:]\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due\\s+([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due\\s*[:]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE));
+    private static final List<Pattern> TOTAL_DUE_PATTERNS = List.of(
+            PATTERNS.compile("total\\s+amount\\s+due\\s*[:]\\s*[₹Rr]?[Ss]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due[:]\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due\\s+([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due\\s*[:]?\\s*[₹Rr]?[Ss]?\\s*([\\d]{1,3}(?:,\\d{2,3})+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due\\s*[:]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due\\s*[:]?\\s*[₹Rr]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE));
+    private static final FieldMatcher ALT_FIELD = FieldMatcher.of(PATTERNS,
+            PATTERNS.compile("amount\\s+due\\s*[:]\\s*[₹Rr]?[Ss]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+due\\s*[:]\\s*[₹Rr]?[Ss]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("outstanding\\s+amount\\s*[:]\\s*[₹Rr]?[Ss]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE));
+    private static final FieldMatcher SUMMARY_FIELD = FieldMatcher.of(PATTERNS,
+            PATTERNS.compile("total\\s+amount\\s+due\\s*[:]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("amount\\s+due\\s*[:]\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+due\\s*[:]\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("outstanding\\s+amount\\s*[:]\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE));
+    private static final CardNumberScanner ICICI_CARD_SCANNER = CardNumberScanner.of(CardShape.COMPACT_MASK);
+    private static final Pattern CARD_PATTERN = PATTERNS.compile("(?:card\\s+no|card\\s+number|card|credit\\s+card)\\s*[:]?\\s*\\d{4}\\s*[xX]{4,12}\\s*(\\d{4})", Pattern.CASE_INSENSITIVE);
+    private static final CardNumberScanner CARD_SCANNER = CardNumberScanner.of(CardShape.SPACED_MASK, CardShape.FOUR_GROUPS);
+    private static final Pattern VARIANT_PATTERN = PATTERNS.compile("\\b(coral|ruby|platinum|emerald|sapphiro|apay|amazon|hpcl|hp|titanium|signature|miles)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern STMT_DATE_PATTERN_1 = PATTERNS.compile("(?:statement\\s+date)\\s*[:]\\s*([a-z]+\\s+\\d{1,2},\\s+\\d{4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern STMT_DATE_PATTERN_2 = PATTERNS.compile("(?:statement\\s+date)\\s*[:]\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DATE_NEAR_STMT = PATTERNS.compile("[:]\\s*(\\d{1,2}/\\d{1,2}/\\d{4})");
+    private static final Pattern CYCLE_PATTERN = PATTERNS.compile("(?:statement\\s+period|billing\\s+period|period)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s*[-–]?\\s*to\\s*\\s*\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DATE_PATTERN = PATTERNS.compile("(?:period|statement\\s+date)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s+to\\s+\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DUE_DATE_PATTERN_1 = PATTERNS.compile("(?:payment\\s+due\\s+date|due\\s+date)\\s*[:]\\s*([a-z]+\\s+\\d{1,2},\\s+\\d{4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DUE_DATE_PATTERN_2 = PATTERNS.compile("(?:payment\\s+due\\s+date|due\\s+date)\\s*[:]\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DATE_AFTER_PATTERN = PATTERNS.compile("[:]\\s*([a-z]+\\s+\\d{1,2},\\s+\\d{4})|(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SIMPLE_PATTERN = PATTERNS.compile("total\\s+amount\\s+due\\s*[:]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NUMBER_PATTERN = PATTERNS.compile("([\\d]{1,3}(?:,\\d{2,3})+(?:\\.\\d{2})?)");
+    private static final Pattern TRANS_LINE_PATTERN = PATTERNS.compile("(\\d{1,2}/\\d{1,2}/\\d{4})\\s+([A-Z][^\\n]{5,}?)\\s+([\\d,]+\\.\\d{2})");
+    private static final Pattern TRANS_PATTERN = PATTERNS.compile("(\\d+)\\s+(?:transaction|purchase|charge|payment|debit|credit)", Pattern.CASE_INSENSITIVE);
     
     @Override
-    public boolean canParse(String text) {
-        return text.toLowerCase().contains("icici") || 
-               text.toLowerCase().contains("icici bank") ||
-               Pattern.compile("icici\\s+(?:bank|card|credit)", Pattern.CASE_INSENSITIVE).matcher(text).find();
-    }
-    
-    @Override
-    public StatementData parse(InputStream pdfStream) throws IOException {
-        return parse(pdfStream, null);
+    public IssuerSignature signature() {
+        return SIGNATURE;
     }
     
     @Override
-    public StatementData parse(InputStream pdfStream, String password) throws IOException {
-        String text = extractTextFromPdf(pdfStream, password);
+    public StatementData parse(ParseContext parseContext) throws IOException {
+        String text = parseContext.getText();
+        DocumentView view = parseContext.getView();
         
         StatementData data = new StatementData();
-        data.setCardProvider("ICICI");
+        data.setIssuer(CardIssuer.ICICI);
         
 
         
@@ -38,9 +98,9 @@ public class ICICIParser extends StatementParser {
 
         
 
-        int statementIndex = text.toLowerCase().indexOf("statement for");
-        int creditCardIndex = text.toLowerCase().indexOf("credit card statement");
-        int cardNoIndex = text.toLowerCase().indexOf("card no");
+        int statementIndex = view.indexOf("statement for");
+        int creditCardIndex = view.indexOf("credit card statement");
+        int cardNoIndex = view.indexOf("card no");
         
         int startIndex = Math.max(Math.max(statementIndex, creditCardIndex), cardNoIndex);
         if (startIndex < 0) {
@@ -49,58 +109,37 @@ public class ICICIParser extends StatementParser {
             startIndex = Math.max(startIndex, 500);
         }
         
-        String bodyText = text.substring(startIndex);
+        TextWindow bodyText = view.window(startIndex);
         
 
-        Pattern iciciCardPattern = Pattern.compile("\\d{4}[xX]{8,12}(\\d{4})");
-        Matcher iciciCardMatcher = iciciCardPattern.matcher(bodyText);
-        if (iciciCardMatcher.find()) {
-            cardLast4 = iciciCardMatcher.group(1);
-        } else {
+        cardLast4 = ICICI_CARD_SCANNER.findLastFour(bodyText);
+        if (cardLast4 == null) {
 
-            Pattern cardPattern = Pattern.compile("(?:card\\s+no|card\\s+number|card|credit\\s+card)\\s*[:]?\\s*\\d{4}\\s*[xX]{4,12}\\s*(\\d{4})", Pattern.CASE_INSENSITIVE);
-            Matcher cardMatcher = cardPattern.matcher(bodyText);
+            GuardedMatcher cardMatcher = parseContext.matcher(CARD_PATTERN, bodyText);
             if (cardMatcher.find()) {
                 cardLast4 = cardMatcher.group(1);
             } else {
 
-                Pattern spacedPattern = Pattern.compile("\\d{4}\\s+[xX]{4}\\s+[xX]{4}\\s+(\\d{4})");
-                Matcher spacedMatcher = spacedPattern.matcher(bodyText);
-                if (spacedMatcher.find()) {
-                    cardLast4 = spacedMatcher.group(1);
-                } else {
-
-                    Pattern dashPattern = Pattern.compile("\\d{4}[-\\s]\\d{4}[-\\s]\\d{4}[-\\s](\\d{4})");
-                    Matcher dashMatcher = dashPattern.matcher(bodyText);
-                    if (dashMatcher.find()) {
-                        cardLast4 = dashMatcher.group(1);
-                    }
-                }
+                cardLast4 = CARD_SCANNER.findLastFour(bodyText);
             }
         }
         
         if (cardLast4 != null) {
-            data.setCardLastFourDigits(cardLast4);
+            data.setCardLastFour(lastFour(cardLast4));
         } else {
-            data.setCardLastFourDigits(extractLastFourDigits(text));
+            data.setCardLastFour(extractLastFourDigits(text));
         }
         
 
         String variant = null;
         
 
-        String filenameArea = text.length() > 5000 ? text.substring(0, 5000) : text;
+        TextWindow filenameArea = view.head(5000);
         
 
-        Pattern[] filenamePatterns = {
-            Pattern.compile("retail[_-](coral|ruby|platinum|emerald|sapphiro|apay|amazon|hpcl|hp|titanium|signature|miles)", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("(coral|ruby|platinum|emerald|sapphiro|apay|amazon|hpcl|hp|titanium|signature|miles)[_-]retail", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("_([a-z]+)_retail", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("retail_([a-z]+)_", Pattern.CASE_INSENSITIVE)
-        };
         
-        for (Pattern pattern : filenamePatterns) {
-            Matcher filenameMatcher = pattern.matcher(filenameArea);
+        for (Pattern pattern : FILENAME_PATTERNS) {
+            GuardedMatcher filenameMatcher = parseContext.matcher(pattern, filenameArea);
             if (filenameMatcher.find()) {
                 String match = filenameMatcher.group(1).toLowerCase();
 
@@ -116,13 +155,12 @@ public class ICICIParser extends StatementParser {
         
 
         if (variant == null) {
-            String headerSection = text.length() > 5000 ? text.substring(0, 5000) : text;
-            Pattern variantPattern = Pattern.compile("\\b(coral|ruby|platinum|emerald|sapphiro|apay|amazon|hpcl|hp|titanium|signature|miles)\\b", Pattern.CASE_INSENSITIVE);
-            Matcher variantMatcher = variantPattern.matcher(headerSection);
+            TextWindow headerSection = view.head(5000);
+            GuardedMatcher variantMatcher = parseContext.matcher(VARIANT_PATTERN, headerSection);
             while (variantMatcher.find()) {
                 String match = variantMatcher.group(1).toLowerCase();
                 int pos = variantMatcher.start();
-                String context = headerSection.substring(Math.max(0, pos - 150), Math.min(headerSection.length(), pos + 150)).toLowerCase();
+                TextWindow context = headerSection.around(pos, 150, 150);
 
                 if (context.contains("icici") || 
                     context.contains("credit card") ||
@@ -137,8 +175,7 @@ public class ICICIParser extends StatementParser {
         
 
         if (variant == null) {
-            Pattern docVariantPattern = Pattern.compile("\\b(coral|ruby|platinum|emerald|sapphiro|apay|amazon|hpcl|hp|titanium|signature|miles)\\b", Pattern.CASE_INSENSITIVE);
-            Matcher docVariantMatcher = docVariantPattern.matcher(text);
+            GuardedMatcher docVariantMatcher = parseContext.matcher(VARIANT_PATTERN, text);
             if (docVariantMatcher.find()) {
                 variant = docVariantMatcher.group(1).toLowerCase();
             }
@@ -156,258 +193,138 @@ public class ICICIParser extends StatementParser {
         String statementDate = null;
         
 
-        Pattern stmtDatePattern1 = Pattern.compile(
-            "(?:statement\\s+date)\\s*[:]\\s*([a-z]+)\\s+(\\d{1,2}),\\s+(\\d{4})", 
-            Pattern.CASE_INSENSITIVE
-        );
-        Matcher stmtDateMatcher1 = stmtDatePattern1.matcher(text);
+        GuardedMatcher stmtDateMatcher1 = parseContext.matcher(STMT_DATE_PATTERN_1, text);
         if (stmtDateMatcher1.find()) {
-            String month = stmtDateMatcher1.group(1).toLowerCase();
-            String day = stmtDateMatcher1.group(2);
-            String year = stmtDateMatcher1.group(3);
-            
-
-            String monthNum = "01";
-            if (month.startsWith("jan")) monthNum = "01";
-            else if (month.startsWith("feb")) monthNum = "02";
-            else if (month.startsWith("mar")) monthNum = "03";
-            else if (month.startsWith("apr")) monthNum = "04";
-            else if (month.startsWith("may")) monthNum = "05";
-            else if (month.startsWith("jun")) monthNum = "06";
-            else if (month.startsWith("jul")) monthNum = "07";
-            else if (month.startsWith("aug")) monthNum = "08";
-            else if (month.startsWith("sep")) monthNum = "09";
-            else if (month.startsWith("oct")) monthNum = "10";
-            else if (month.startsWith("nov")) monthNum = "11";
-            else if (month.startsWith("dec")) monthNum = "12";
-            
-            statementDate = String.format("%02d/%s/%s", Integer.parseInt(day), monthNum, year);
+            statementDate = DateNormalizer.normalize(stmtDateMatcher1.group(1));
         }
         
 
         if (statementDate == null) {
-            Pattern stmtDatePattern2 = Pattern.compile(
-                "(?:statement\\s+date)\\s*[:]\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", 
-                Pattern.CASE_INSENSITIVE
-            );
-            Matcher stmtDateMatcher2 = stmtDatePattern2.matcher(text);
+            GuardedMatcher stmtDateMatcher2 = parseContext.matcher(STMT_DATE_PATTERN_2, text);
             if (stmtDateMatcher2.find()) {
-                statementDate = stmtDateMatcher2.group(1);
+                statementDate = DateNormalizer.normalize(stmtDateMatcher2.group(1));
             }
         }
         
 
         if (statementDate == null) {
-            int stmtDateIndex = text.toLowerCase().indexOf("statement date");
+            int stmtDateIndex = view.indexOf("statement date");
             if (stmtDateIndex >= 0) {
-                String sectionAfter = text.substring(stmtDateIndex, Math.min(stmtDateIndex + 100, text.length()));
-                Pattern dateNearStmt = Pattern.compile("[:]\\s*(\\d{1,2}/\\d{1,2}/\\d{4})");
-                Matcher dateMatcher = dateNearStmt.matcher(sectionAfter);
+                TextWindow sectionAfter = view.window(stmtDateIndex, Math.min(stmtDateIndex + 100, text.length()));
+                GuardedMatcher dateMatcher = parseContext.matcher(DATE_NEAR_STMT, sectionAfter);
                 if (dateMatcher.find()) {
-                    statementDate = dateMatcher.group(1);
+                    statementDate = DateNormalizer.normalize(dateMatcher.group(1));
                 }
             }
         }
         
 
         String billingCycle = null;
-        Pattern cyclePattern = Pattern.compile("(?:statement\\s+period|billing\\s+period|period)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s*[-–]?\\s*to\\s*\\s*\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
-        Matcher cycleMatcher = cyclePattern.matcher(text);
+        GuardedMatcher cycleMatcher = parseContext.matcher(CYCLE_PATTERN, text);
         if (cycleMatcher.find()) {
             billingCycle = cycleMatcher.group(1);
-            data.setBillingCycle(billingCycle);
+            data.setBillingCycle(DateRange.parse(billingCycle));
         } else {
 
-            Pattern datePattern = Pattern.compile("(?:period|statement\\s+date)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s+to\\s+\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
-            Matcher dateMatcher = datePattern.matcher(text);
+            GuardedMatcher dateMatcher = parseContext.matcher(DATE_PATTERN, text);
             if (dateMatcher.find()) {
                 billingCycle = dateMatcher.group(1);
-                data.setBillingCycle(billingCycle);
-            } else {
-                data.setBillingCycle("N/A");
+                data.setBillingCycle(DateRange.parse(billingCycle));
             }
         }
         
 
         if (statementDate != null) {
-            data.setStatementPeriod(statementDate);
+            data.setStatementPeriod(DateRange.parse(statementDate));
         } else if (billingCycle != null) {
-            data.setStatementPeriod(billingCycle);
+            data.setStatementPeriod(DateRange.parse(billingCycle));
         }
         
 
         if (billingCycle == null && statementDate != null) {
-            data.setBillingCycle(statementDate);
+            data.setBillingCycle(DateRange.parse(statementDate));
         }
         
 
         String paymentDueDate = null;
         
 
-        Pattern dueDatePattern1 = Pattern.compile(
-            "(?:payment\\s+due\\s+date|due\\s+date)\\s*[:]\\s*([a-z]+)\\s+(\\d{1,2}),\\s+(\\d{4})", 
-            Pattern.CASE_INSENSITIVE
-        );
-        Matcher dueDateMatcher1 = dueDatePattern1.matcher(text);
+        GuardedMatcher dueDateMatcher1 = parseContext.matcher(DUE_DATE_PATTERN_1, text);
         if (dueDateMatcher1.find()) {
-            String month = dueDateMatcher1.group(1).toLowerCase();
-            String day = dueDateMatcher1.group(2);
-            String year = dueDateMatcher1.group(3);
-            
-
-            String monthNum = "01";
-            if (month.startsWith("jan")) monthNum = "01";
-            else if (month.startsWith("feb")) monthNum = "02";
-            else if (month.startsWith("mar")) monthNum = "03";
-            else if (month.startsWith("apr")) monthNum = "04";
-            else if (month.startsWith("may")) monthNum = "05";
-            else if (month.startsWith("jun")) monthNum = "06";
-            else if (month.startsWith("jul")) monthNum = "07";
-            else if (month.startsWith("aug")) monthNum = "08";
-            else if (month.startsWith("sep")) monthNum = "09";
-            else if (month.startsWith("oct")) monthNum = "10";
-            else if (month.startsWith("nov")) monthNum = "11";
-            else if (month.startsWith("dec")) monthNum = "12";
-            
-            paymentDueDate = String.format("%02d/%s/%s", Integer.parseInt(day), monthNum, year);
+            paymentDueDate = DateNormalizer.normalize(dueDateMatcher1.group(1));
         } else {
 
-            Pattern dueDatePattern2 = Pattern.compile(
-                "(?:payment\\s+due\\s+date|due\\s+date)\\s*[:]\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", 
-                Pattern.CASE_INSENSITIVE
-            );
-            Matcher dueDateMatcher2 = dueDatePattern2.matcher(text);
+            GuardedMatcher dueDateMatcher2 = parseContext.matcher(DUE_DATE_PATTERN_2, text);
             if (dueDateMatcher2.find()) {
-                paymentDueDate = dueDateMatcher2.group(1);
+                paymentDueDate = DateNormalizer.normalize(dueDateMatcher2.group(1));
             } else {
 
-                int dueDateIndex = text.toLowerCase().indexOf("payment due date");
+                int dueDateIndex = view.indexOf("payment due date");
                 if (dueDateIndex >= 0) {
-                    String afterDueDate = text.substring(dueDateIndex, Math.min(dueDateIndex + 150, text.length()));
-                    Pattern dateAfterPattern = Pattern.compile("[:]\\s*([a-z]+\\s+\\d{1,2},\\s+\\d{4})|(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
-                    Matcher dateAfterMatcher = dateAfterPattern.matcher(afterDueDate);
+                    TextWindow afterDueDate = view.window(dueDateIndex, Math.min(dueDateIndex + 150, text.length()));
+                    GuardedMatcher dateAfterMatcher = parseContext.matcher(DATE_AFTER_PATTERN, afterDueDate);
                     if (dateAfterMatcher.find()) {
-                        String match = dateAfterMatcher.group(0);
-                        // If it's text format, convert it
-                        if (match.matches("(?i)[a-z]+\\s+\\d{1,2},\\s+\\d{4}")) {
-                            // Convert text to numeric format
-                            Pattern textDatePattern = Pattern.compile("([a-z]+)\\s+(\\d{1,2}),\\s+(\\d{4})", Pattern.CASE_INSENSITIVE);
-                            Matcher textDateMatcher = textDatePattern.matcher(match);
-                            if (textDateMatcher.find()) {
-                                String month = textDateMatcher.group(1).toLowerCase();
-                                String day = textDateMatcher.group(2);
-                                String year = textDateMatcher.group(3);
-                                String monthNum = "01";
-                                if (month.startsWith("jan")) monthNum = "01";
-                                else if (month.startsWith("feb")) monthNum = "02";
-                                else if (month.startsWith("mar")) monthNum = "03";
-                                else if (month.startsWith("apr")) monthNum = "04";
-                                else if (month.startsWith("may")) monthNum = "05";
-                                else if (month.startsWith("jun")) monthNum = "06";
-                                else if (month.startsWith("jul")) monthNum = "07";
-                                else if (month.startsWith("aug")) monthNum = "08";
-                                else if (month.startsWith("sep")) monthNum = "09";
-                                else if (month.startsWith("oct")) monthNum = "10";
-                                else if (month.startsWith("nov")) monthNum = "11";
-                                else if (month.startsWith("dec")) monthNum = "12";
-                                paymentDueDate = String.format("%02d/%s/%s", Integer.parseInt(day), monthNum, year);
-                            }
-                        } else {
-                            paymentDueDate = match;
-                        }
+                        String match = dateAfterMatcher.group(1) != null ? dateAfterMatcher.group(1) : dateAfterMatcher.group(2);
+                        paymentDueDate = DateNormalizer.normalize(match);
                     }
                 }
             }
         }
         
         if (paymentDueDate != null) {
-            data.setPaymentDueDate(paymentDueDate);
-        } else {
-            data.setPaymentDueDate("N/A");
+            data.setPaymentDueDate(DateNormalizer.toEpochDay(paymentDueDate));
         }
         
 
         String balance = null;
         
 
-        int paymentDueIndex = text.toLowerCase().indexOf("payment due date");
-        int statementDateIndex = text.toLowerCase().indexOf("statement date");
-        int amountDueIndex = text.toLowerCase().indexOf("amount due");
-        int totalIndex = text.toLowerCase().indexOf("total");
+        int paymentDueIndex = view.indexOf("payment due date");
+        int statementDateIndex = view.indexOf("statement date");
+        int amountDueIndex = view.indexOf("amount due");
+        int totalIndex = view.indexOf("total");
         
         int searchStart = Math.max(Math.max(paymentDueIndex, statementDateIndex), Math.max(amountDueIndex, totalIndex));
         
         if (searchStart >= 0) {
-            String summarySection = text.substring(searchStart, Math.min(searchStart + 2000, text.length()));
+            TextWindow summarySection = view.window(searchStart, Math.min(searchStart + 2000, text.length()));
             
 
-            Pattern[] patterns1 = {
-
-                Pattern.compile("total\\s+amount\\s+due\\s*[:]\\s*[₹RrSs]?\\s*([\\d]{1,3}(?:,\\d{2,3})+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("total\\s+amount\\s+due[:]\\s*([\\d]{1,3}(?:,\\d{2,3})+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("total\\s+amount\\s+due\\s+([\\d]{1,3}(?:,\\d{2,3})+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("total\\s+amount\\s+due\\s*[:]\\s*[₹Rr]?[Ss]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("total\\s+amount\\s+due[:]\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("total\\s+amount\\s+due\\s+([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("total\\s+amount\\s+due\\s*[:]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE)
-            };
             
-            for (Pattern pattern : patterns1) {
-                Matcher matcher = pattern.matcher(summarySection);
-                while (matcher.find()) {
-                    String valueStr = matcher.group(1).replace(",", "");
-                    try {
-                        double value = Double.parseDouble(valueStr);
-                        // Accept any reasonable value (>= 1000 to exclude small amounts)
-                        if (value >= 1000 && value <= 100000) {
-                            balance = matcher.group(1);
-                            break;
-                        }
-                    } catch (NumberFormatException e) {
-                        // Skip
-                    }
-                }
-                if (balance != null) break;
+            // Accept any reasonable value (>= 1000 to exclude small amounts)
+            FieldMatch summaryMatch = parseContext.find(SUMMARY_TOTAL_DUE_FIELD, summarySection, m -> amountWithin(m, MIN_SUMMARY_BALANCE, MAX_SUMMARY_BALANCE));
+            if (summaryMatch != null) {
+                balance = summaryMatch.group(1);
             }
         }
         
 
         if (balance == null) {
-            Pattern[] patterns = {
-                Pattern.compile("total\\s+amount\\s+due\\s*[:]\\s*[₹Rr]?[Ss]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("total\\s+amount\\s+due[:]\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("total\\s+amount\\s+due\\s+([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("total\\s+amount\\s+due\\s*[:]?\\s*[₹Rr]?[Ss]?\\s*([\\d]{1,3}(?:,\\d{2,3})+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("total\\s+amount\\s+due\\s*[:]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("total\\s+amount\\s+due\\s*[:]?\\s*[₹Rr]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE)
-            };
             
-            double maxValue = 0;
+            long maxValue = 0;
             String maxValueStr = null;
             
-            for (Pattern pattern : patterns) {
-                Matcher allTotalAmountDue = pattern.matcher(text);
+            for (Pattern pattern : TOTAL_DUE_PATTERNS) {
+                GuardedMatcher allTotalAmountDue = parseContext.matcher(pattern, text);
                 while (allTotalAmountDue.find()) {
                     int pos = allTotalAmountDue.start();
-                    String valueStr = allTotalAmountDue.group(1).replace(",", "");
-                    try {
-                        double value = Double.parseDouble(valueStr);
-                        // Get context to check for exclusions
-                        String context = text.substring(Math.max(0, pos - 200), Math.min(text.length(), pos + 200)).toLowerCase();
-                        
-                        // Only exclude if explicitly near bad keywords (check order)
-                        boolean isExcluded = (context.contains("available credit") && 
-                                            context.indexOf("available credit") < context.indexOf("total amount due")) ||
-                                           (context.contains("credit limit") && 
-                                            context.indexOf("credit limit") < context.indexOf("total amount due")) ||
-                                           value > 500000; // Only exclude very large credit limits
-                        
-                        if (!isExcluded && value > maxValue && value > 0 && value <= 500000) {
-                            maxValue = value;
-                            maxValueStr = allTotalAmountDue.group(1);
-                        }
-                    } catch (NumberFormatException e) {
-                        // Skip
+                    long value = Amount.parse(text, allTotalAmountDue.start(1), allTotalAmountDue.end(1));
+                    if (value == Amount.INVALID) {
+                        continue;
+                    }
+                    // Get context to check for exclusions
+                    TextWindow context = view.around(pos, 200, 200);
+                    
+                    // Only exclude if explicitly near bad keywords (check order)
+                    boolean isExcluded = (context.contains("available credit") && 
+                                        context.indexOf("available credit") < context.indexOf("total amount due")) ||
+                                       (context.contains("credit limit") && 
+                                        context.indexOf("credit limit") < context.indexOf("total amount due")) ||
+                                       value > MAX_BALANCE; // Only exclude very large credit limits
+                    
+                    if (!isExcluded && value > maxValue && value > 0 && value <= MAX_BALANCE) {
+                        maxValue = value;
+                        maxValueStr = allTotalAmountDue.group(1);
                     }
                 }
             }
@@ -419,93 +336,48 @@ public class ICICIParser extends StatementParser {
         
 
         if (balance == null) {
-            Pattern[] altPatterns = {
-                Pattern.compile("amount\\s+due\\s*[:]\\s*[₹Rr]?[Ss]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("total\\s+due\\s*[:]\\s*[₹Rr]?[Ss]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("outstanding\\s+amount\\s*[:]\\s*[₹Rr]?[Ss]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE)
-            };
             
-            for (Pattern pattern : altPatterns) {
-                Matcher matcher = pattern.matcher(text);
-                while (matcher.find()) {
-                    String valueStr = matcher.group(1).replace(",", "");
-                    try {
-                        double value = Double.parseDouble(valueStr);
-
-                        if (value > 0 && value <= 500000) {
-                            balance = matcher.group(1);
-                            break;
-                        }
-                    } catch (NumberFormatException e) {
-
-                    }
-                }
-                if (balance != null) break;
+            FieldMatch altMatch = parseContext.find(ALT_FIELD, text, ICICIParser::isPositiveAmount);
+            if (altMatch != null) {
+                balance = altMatch.group(1);
             }
         }
         
 
         if (balance == null) {
-            int paymentSummaryIndex = text.toLowerCase().indexOf("payment summary");
-            int amountDueIndexSearch = text.toLowerCase().indexOf("amount due");
+            int paymentSummaryIndex = view.indexOf("payment summary");
+            int amountDueIndexSearch = view.indexOf("amount due");
             
             int summarySearchStart = Math.max(paymentSummaryIndex, amountDueIndexSearch);
             if (summarySearchStart < 0) {
-                summarySearchStart = text.toLowerCase().indexOf("total");
+                summarySearchStart = view.indexOf("total");
             }
             
             if (summarySearchStart >= 0) {
-                String summarySection = text.substring(summarySearchStart, Math.min(summarySearchStart + 1200, text.length()));
+                TextWindow summarySection = view.window(summarySearchStart, Math.min(summarySearchStart + 1200, text.length()));
                 
-                Pattern[] summaryPatterns = {
-                    Pattern.compile("total\\s+amount\\s+due\\s*[:]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                    Pattern.compile("amount\\s+due\\s*[:]\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                    Pattern.compile("total\\s+due\\s*[:]\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                    Pattern.compile("outstanding\\s+amount\\s*[:]\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE)
-                };
                 
-                for (Pattern pattern : summaryPatterns) {
-                    Matcher matcher = pattern.matcher(summarySection);
-                    while (matcher.find()) {
-                        String valueStr = matcher.group(1).replace(",", "");
-                        try {
-                            double value = Double.parseDouble(valueStr);
-                            // Accept reasonable values
-                            if (value > 0 && value <= 500000) {
-                                balance = matcher.group(1);
-                                break;
-                            }
-                        } catch (NumberFormatException e) {
-                            // Skip
-                        }
-                    }
-                    if (balance != null) break;
+                // Accept reasonable values
+                FieldMatch summaryMatch = parseContext.find(SUMMARY_FIELD, summarySection, ICICIParser::isPositiveAmount);
+                if (summaryMatch != null) {
+                    balance = summaryMatch.group(1);
                 }
             }
         }
         
 
         if (balance == null) {
-            Pattern simplePattern = Pattern.compile(
-                "total\\s+amount\\s+due\\s*[:]?\\s*([\\d,]+(?:\\.\\d{2})?)",
-                Pattern.CASE_INSENSITIVE
-            );
-            Matcher simpleMatcher = simplePattern.matcher(text);
+            GuardedMatcher simpleMatcher = parseContext.matcher(SIMPLE_PATTERN, text);
             
-            double maxValue = 0;
+            long maxValue = 0;
             String maxValueStr = null;
             
             while (simpleMatcher.find()) {
-                String valueStr = simpleMatcher.group(1).replace(",", "");
-                try {
-                    double value = Double.parseDouble(valueStr);
+                long value = Amount.parse(text, simpleMatcher.start(1), simpleMatcher.end(1));
 
-                    if (value > maxValue && value >= 1000 && value <= 100000) {
-                        maxValue = value;
-                        maxValueStr = simpleMatcher.group(1);
-                    }
-                } catch (NumberFormatException e) {
-                    // Skip
+                if (value > maxValue && value >= MIN_SUMMARY_BALANCE && value <= MAX_SUMMARY_BALANCE) {
+                    maxValue = value;
+                    maxValueStr = simpleMatcher.group(1);
                 }
             }
             
@@ -517,30 +389,24 @@ public class ICICIParser extends StatementParser {
 
         if (balance == null) {
 
-            int summaryStart = text.toLowerCase().indexOf("payment");
+            int summaryStart = view.indexOf("payment");
             if (summaryStart < 0) {
-                summaryStart = text.toLowerCase().indexOf("statement");
+                summaryStart = view.indexOf("statement");
             }
             if (summaryStart >= 0) {
-                String summaryArea = text.substring(summaryStart, Math.min(summaryStart + 2500, text.length()));
+                TextWindow summaryArea = view.window(summaryStart, Math.min(summaryStart + 2500, text.length()));
 
-                Pattern numberPattern = Pattern.compile("([\\d]{1,3}(?:,\\d{2,3})+(?:\\.\\d{2})?)");
-                Matcher numberMatcher = numberPattern.matcher(summaryArea);
+                GuardedMatcher numberMatcher = parseContext.matcher(NUMBER_PATTERN, summaryArea);
                 
-                double maxValue = 0;
+                long maxValue = 0;
                 String maxValueStr = null;
                 
                 while (numberMatcher.find()) {
-                    String valueStr = numberMatcher.group(1).replace(",", "");
-                    try {
-                        double value = Double.parseDouble(valueStr);
-
-                        if (value > maxValue && value >= 1000 && value <= 100000) {
-                            maxValue = value;
-                            maxValueStr = numberMatcher.group(1);
-                        }
-                    } catch (NumberFormatException e) {
-                        // Skip
+                    long value = Amount.parse(summaryArea, numberMatcher.start(1), numberMatcher.end(1));
+
+                    if (value > maxValue && value >= MIN_SUMMARY_BALANCE && value <= MAX_SUMMARY_BALANCE) {
+                        maxValue = value;
+                        maxValueStr = numberMatcher.group(1);
                     }
                 }
                 
@@ -551,86 +417,75 @@ public class ICICIParser extends StatementParser {
         }
         
         if (balance != null) {
-            data.setTotalBalance("₹" + balance);
-        } else {
-            data.setTotalBalance("N/A");
+            data.setTotalBalance(Amount.parse(balance));
         }
         
 
         int transactionCount = 0;
         
 
-        int transDetailsIndex = text.toLowerCase().indexOf("transaction details");
+        int transDetailsIndex = view.indexOf("transaction details");
         if (transDetailsIndex < 0) {
-            transDetailsIndex = text.toLowerCase().indexOf("date");
+            transDetailsIndex = view.indexOf("date");
         }
         
         if (transDetailsIndex >= 0) {
 
-            String transSection = text.substring(transDetailsIndex);
-            int endIndex1 = transSection.toLowerCase().indexOf("emi");
-            int endIndex2 = transSection.toLowerCase().indexOf("spends overview");
+            TextWindow transSection = view.window(transDetailsIndex);
+            int endIndex1 = transSection.indexOf("emi");
+            int endIndex2 = transSection.indexOf("spends overview");
             int endIndex = transSection.length();
             if (endIndex1 > 0) endIndex = Math.min(endIndex, endIndex1);
             if (endIndex2 > 0) endIndex = Math.min(endIndex, endIndex2);
-            transSection = transSection.substring(0, endIndex);
+            transSection = transSection.head(endIndex);
             
 
-            Pattern transLinePattern = Pattern.compile("(\\d{1,2}/\\d{1,2}/\\d{4})\\s+[A-Z][^\\n]{5,}?\\s+([\\d,]+(?:\\.\\d{2})?)");
-            java.util.regex.Matcher transLineMatcher = transLinePattern.matcher(transSection);
+            GuardedMatcher transLineMatcher = parseContext.matcher(TRANS_LINE_PATTERN, transSection);
             
+            TransactionTable.Builder transactions = TransactionTable.builder();
             java.util.Set<String> uniqueTransactions = new java.util.HashSet<>();
             while (transLineMatcher.find()) {
-                String transDate = transLineMatcher.group(1);
-                String amount = transLineMatcher.group(2);
+                String transDay = DateNormalizer.normalize(transLineMatcher.group(1));
                 // Exclude statement date and payment due date
-                if ((paymentDueDate == null || !transDate.equals(paymentDueDate)) &&
-                    (statementDate == null || !transDate.equals(statementDate))) {
-                    try {
-                        double amt = Double.parseDouble(amount.replace(",", ""));
-                        if (amt >= 0) { // Accept all amounts including credits
-                            uniqueTransactions.add(transDate + "|" + amount);
-                        }
-                    } catch (NumberFormatException e) {
-                        // Skip
+                if ((paymentDueDate == null || !transDay.equals(paymentDueDate)) &&
+                    (statementDate == null || !transDay.equals(statementDate))) {
+                    if (Amount.parse(transSection, transLineMatcher.start(3), transLineMatcher.end(3)) != Amount.INVALID) {
+                        uniqueTransactions.add(transactionKey(transLineMatcher, 3));
                     }
+                    addTransaction(transactions, transSection, transLineMatcher, 2, 3);
                 }
             }
+            data.setTransactions(transactions.build());
             
             transactionCount = uniqueTransactions.size();
             
 
-            Pattern datePattern = Pattern.compile("\\b(\\d{1,2}/\\d{1,2}/\\d{4})\\b");
-            java.util.regex.Matcher dateMatcher = datePattern.matcher(transSection);
-            int allDateCount = 0;
-            
-            while (dateMatcher.find()) {
-                String date = dateMatcher.group(1);
-
-                if ((paymentDueDate == null || !date.equals(paymentDueDate)) &&
-                    (statementDate == null || !date.equals(statementDate))) {
-                    allDateCount++;
-                }
-            }
+            int allDateCount = countDates(transSection, paymentDueDate, statementDate);
             
 
             transactionCount = Math.max(transactionCount, allDateCount);
         }
         
         if (transactionCount > 0) {
-            data.setTotalTransactions(String.valueOf(transactionCount));
+            data.setTotalTransactions(transactionCount);
         } else {
 
-            Pattern transPattern = Pattern.compile("(\\d+)\\s+(?:transaction|purchase|charge|payment|debit|credit)", Pattern.CASE_INSENSITIVE);
-            Matcher transMatcher = transPattern.matcher(text);
+            GuardedMatcher transMatcher = parseContext.matcher(TRANS_PATTERN, text);
             if (transMatcher.find()) {
-                data.setTotalTransactions(transMatcher.group(1));
-            } else {
-                data.setTotalTransactions("N/A");
+                data.setTotalTransactions(count(transMatcher.group(1)));
             }
         }
         
         return data;
     }
-}
 
+    private static boolean isPositiveAmount(FieldMatch match) {
+        return amountWithin(match, 1, MAX_BALANCE);
+    }
+
+    /** Whether the match's amount lies within {@code [min, max]} paise. */
+    private static boolean amountWithin(FieldMatch match, long min, long max) {
+        long value = Amount.parse(match.group(1));
+        return value >= min && value <= max;
+    }
+}
@@ -1,89 +1,109 @@
 package com.demo.parser;
 
+import com.demo.detection.IssuerSignature;
+import com.demo.model.CardIssuer;
+import com.demo.model.DateRange;
 import com.demo.model.StatementData;
+import com.demo.model.TransactionTable;
+import com.demo.text.Amount;
+import com.demo.text.CardNumberScanner;
+import com.demo.text.CardShape;
+import com.demo.text.DateNormalizer;
+import com.demo.text.GuardedMatcher;
+import com.demo.text.NumericDateScanner;
+import com.demo.text.Span;
+import com.demo.text.DocumentView;
+import com.demo.text.TextWindow;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.regex.Matcher;
+import java.util.BitSet;
+import java.util.List;
 import java.util.regex.Pattern;
 
 
 @Component
 public class KotakBankParser extends StatementParser {
-    
-    @Override
-    public boolean canParse(String text) {
-        String lowerText = text.toLowerCase();
-        
-
-        String headerSection = text.length() > 3000 ? text.substring(0, 3000).toLowerCase() : lowerText;
-        
 
-        if (headerSection.contains("kotak credit card") || 
-            headerSection.contains("kotak bank credit card") ||
-            headerSection.contains("kotak bank statement") ||
-            headerSection.contains("my kotak credit card")) {
-            return true;
-        }
-        
-
-        if (headerSection.contains("kotak") && 
-            (headerSection.contains("credit card") || 
-             headerSection.contains("statement") ||
-             headerSection.contains("bank"))) {
-            return true;
-        }
-        
-        return false;
-    }
+    private static final IssuerSignature SIGNATURE = IssuerSignature.builder("Kotak Bank")
+            .within(ParseContext.HEADER_LENGTH)
+            .phrase("kotak credit card", "kotak bank credit card", "kotak bank statement", "my kotak credit card")
+            .anchored("kotak").with("credit card", "statement", "bank").end()
+            .build();
+
+    private static final PatternCatalog.Issuer PATTERNS = PatternCatalog.issuer("Kotak Bank");
+    private static final long MAX_BALANCE = Amount.rupees(100000);
+    private static final FieldMatcher DUE_DATE_FIELD = FieldMatcher.of(PATTERNS,
+            PATTERNS.compile("remember\\s+to\\s+pay\\s+by\\s*[:]\\s*(\\d{1,2}[-]\\w{3}[-]\\d{2,4})", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("remember\\s+to\\s+pay\\s+by[:]\\s*(\\d{1,2}[-]\\w{3}[-]\\d{2,4})", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("(?:payment\\s+due\\s+date|due\\s+date)\\s*[:]\\s*(\\d{1,2}[-]\\w{3}[-]\\d{2,4})", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("pay\\s+by\\s*[:]\\s*(\\d{1,2}[-]\\w{3}[-]\\d{2,4})", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("(?:payment\\s+due|due\\s+date|pay\\s+by|remember\\s+to\\s+pay)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE));
+    private static final FieldMatcher BALANCE_FIELD = FieldMatcher.of(PATTERNS,
+            PATTERNS.compile("total\\s+amount\\s+due\\s*\\(?(?:tad|payable)\\)?\\s*[:]\\s*[Rr][Ss]\\.?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due\\s*\\(?(?:tad|payable)\\)?\\s*[:]\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due\\s*(?:tad|payable)\\s*[:]\\s*[Rr][Ss]\\.?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due\\s*[:]\\s*[Rr][Ss]\\.?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due\\s*[:]\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("total\\s+amount\\s+due\\s*[:]?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE));
+    private static final FieldMatcher SUMMARY_FIELD = FieldMatcher.of(PATTERNS,
+            PATTERNS.compile("total\\s+amount\\s+due\\s*[:]?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("amount\\s+due\\s*[:]?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("tad\\s*[:]?\\s*[Rr][Ss]\\.?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE));
+    private static final List<String> CREDIT_LIMIT_PHRASES = List.of(
+            "credit limit", "available credit", "self set credit", "total credit limit");
+    private static final List<String> SUMMARY_CREDIT_PHRASES = List.of(
+            "credit limit", "available credit", "self set credit");
+    private static final List<Pattern> TRANS_LINE_PATTERNS = List.of(
+            PATTERNS.compile("(\\d{1,2}/\\d{1,2}/\\d{4})\\s+([A-Z][^\\n\\r]{5,}?)\\s+([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("(\\d{1,2}/\\d{1,2}/\\d{4})\\s+([A-Za-z][^\\n\\r]{3,}?)\\s+([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE),
+            PATTERNS.compile("(\\d{1,2}/\\d{1,2}/\\d{4})\\s+([^\\d]{5,100})\\s+([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE));
+    private static final Pattern CARD_PATTERN_1 = PATTERNS.compile("(?:primary\\s+card\\s+number|card\\s+number)\\s*[:]\\s*\\d{4}\\s*[xX]{4,12}\\s*(\\d{4})", Pattern.CASE_INSENSITIVE);
+    private static final CardNumberScanner CARD_SCANNER = CardNumberScanner.of(CardShape.BIN_MASK, CardShape.SPACED_MASK);
+    private static final Pattern VARIANT_PATTERN = PATTERNS.compile("\\b(royal|legend|mojo|united|white|league|dream|hdfc|primio|indigo|nxt|lifestyle|insta|gold|platinum|titanium|premium|signature|infinity|pvr|dining|travel|super|ruby|emerald|sapphire|black)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PERIOD_PATTERN_1 = PATTERNS.compile("(?:transaction\\s+details|period|statement\\s+period)\\s*(?:from)?\\s*(\\d{1,2}[-]\\w{3}[-]\\d{2,4})\\s+to\\s+(\\d{1,2}[-]\\w{3}[-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PERIOD_PATTERN_2 = PATTERNS.compile("(?:statement\\s+period|period)\\s*[:]?\\s*(\\d{1,2}[-]\\w{3}[-]\\d{2,4})\\s+to\\s+(\\d{1,2}[-]\\w{3}[-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern STMT_DATE_PATTERN = PATTERNS.compile("statement\\s+date\\s*[:]\\s*(\\d{1,2}[-]\\w{3}[-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SUMMARY_DUE_DATE_PATTERN = PATTERNS.compile("(?:remember\\s+to\\s+pay\\s+by|payment\\s+due|due\\s+date|pay\\s+by)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NO_PAYMENT_PATTERN = PATTERNS.compile("remember\\s+to\\s+pay\\s+by\\s*[:]\\s*no\\s+payment\\s+required", Pattern.CASE_INSENSITIVE);
+    private static final Pattern OUTSTANDING_PATTERN = PATTERNS.compile("total\\s+outstanding\\s+including\\s*[:]\\s*[Rr][Ss]\\.?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NUMBER_PATTERN = PATTERNS.compile("([-]?[\\d]{1,3}(?:,\\d{2,3})+(?:\\.\\d{2})?)");
+    private static final Pattern SIMPLE_NUMBER_PATTERN = PATTERNS.compile("([-]?[\\d]+(?:\\.[\\d]{2})?)");
     
     @Override
-    public StatementData parse(InputStream pdfStream) throws IOException {
-        return parse(pdfStream, null);
+    public IssuerSignature signature() {
+        return SIGNATURE;
     }
     
     @Override
-    public StatementData parse(InputStream pdfStream, String password) throws IOException {
-        String text = extractTextFromPdf(pdfStream, password);
+    public StatementData parse(ParseContext parseContext) throws IOException {
+        String text = parseContext.getText();
+        DocumentView view = parseContext.getView();
         
         StatementData data = new StatementData();
-        data.setCardProvider("Kotak Bank");
+        data.setIssuer(CardIssuer.KOTAK);
         
 
         String cardLast4 = null;
         
 
-        Pattern cardPattern1 = Pattern.compile("(?:primary\\s+card\\s+number|card\\s+number)\\s*[:]\\s*\\d{4}\\s*[xX]{4,12}\\s*(\\d{4})", Pattern.CASE_INSENSITIVE);
-        Matcher cardMatcher1 = cardPattern1.matcher(text);
+        GuardedMatcher cardMatcher1 = parseContext.matcher(CARD_PATTERN_1, text);
         if (cardMatcher1.find()) {
             cardLast4 = cardMatcher1.group(1);
         } else {
 
-            Pattern cardPattern2 = Pattern.compile("\\d{4}\\d{2}[xX]{6,12}(\\d{4})");
-            Matcher cardMatcher2 = cardPattern2.matcher(text);
-            if (cardMatcher2.find()) {
-                cardLast4 = cardMatcher2.group(1);
-            } else {
-
-                Pattern cardPattern3 = Pattern.compile("\\d{4}\\s+[xX]{4}\\s+[xX]{4}\\s+(\\d{4})");
-                Matcher cardMatcher3 = cardPattern3.matcher(text);
-                if (cardMatcher3.find()) {
-                    cardLast4 = cardMatcher3.group(1);
-                }
-            }
+            cardLast4 = CARD_SCANNER.findLastFour(text);
         }
         
         if (cardLast4 != null) {
-            data.setCardLastFourDigits(cardLast4);
+            data.setCardLastFour(lastFour(cardLast4));
         } else {
-            data.setCardLastFourDigits(extractLastFourDigits(text));
+            data.setCardLastFour(extractLastFourDigits(text));
         }
         
 
         String variant = null;
-        Pattern variantPattern = Pattern.compile("\\b(royal|legend|mojo|united|white|league|dream|hdfc|primio|indigo|nxt|lifestyle|insta|gold|platinum|titanium|premium|signature|infinity|pvr|dining|travel|super|ruby|emerald|sapphire|black)\\b", Pattern.CASE_INSENSITIVE);
-        Matcher variantMatcher = variantPattern.matcher(text);
+        GuardedMatcher variantMatcher = parseContext.matcher(VARIANT_PATTERN, text);
         if (variantMatcher.find()) {
             variant = variantMatcher.group(1);
 
@@ -98,41 +118,36 @@ public class KotakBankParser extends StatementParser {
         String billingCycle = null;
         
 
-        Pattern periodPattern1 = Pattern.compile("(?:transaction\\s+details|period|statement\\s+period)\\s*(?:from)?\\s*(\\d{1,2}[-]\\w{3}[-]\\d{2,4})\\s+to\\s+(\\d{1,2}[-]\\w{3}[-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
-        Matcher periodMatcher1 = periodPattern1.matcher(text);
+        GuardedMatcher periodMatcher1 = parseContext.matcher(PERIOD_PATTERN_1, text);
         if (periodMatcher1.find()) {
             String startDate = periodMatcher1.group(1);
             String endDate = periodMatcher1.group(2);
-            statementPeriod = convertKotakDateFormat(startDate) + " - " + convertKotakDateFormat(endDate);
+            statementPeriod = DateNormalizer.normalize(startDate) + " - " + DateNormalizer.normalize(endDate);
             billingCycle = statementPeriod;
         } else {
 
-            Pattern periodPattern2 = Pattern.compile("(?:statement\\s+period|period)\\s*[:]?\\s*(\\d{1,2}[-]\\w{3}[-]\\d{2,4})\\s+to\\s+(\\d{1,2}[-]\\w{3}[-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
-            Matcher periodMatcher2 = periodPattern2.matcher(text);
+            GuardedMatcher periodMatcher2 = parseContext.matcher(PERIOD_PATTERN_2, text);
             if (periodMatcher2.find()) {
                 String startDate = periodMatcher2.group(1);
                 String endDate = periodMatcher2.group(2);
-                statementPeriod = convertKotakDateFormat(startDate) + " - " + convertKotakDateFormat(endDate);
+                statementPeriod = DateNormalizer.normalize(startDate) + " - " + DateNormalizer.normalize(endDate);
                 billingCycle = statementPeriod;
             }
         }
         
         if (statementPeriod != null) {
-            data.setStatementPeriod(statementPeriod);
-            data.setBillingCycle(billingCycle);
-        } else {
-            data.setBillingCycle("N/A");
+            data.setStatementPeriod(DateRange.parse(statementPeriod));
+            data.setBillingCycle(DateRange.parse(billingCycle));
         }
         
 
         if (statementPeriod == null) {
-            Pattern stmtDatePattern = Pattern.compile("statement\\s+date\\s*[:]\\s*(\\d{1,2}[-]\\w{3}[-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
-            Matcher stmtDateMatcher = stmtDatePattern.matcher(text);
+            GuardedMatcher stmtDateMatcher = parseContext.matcher(STMT_DATE_PATTERN, text);
             if (stmtDateMatcher.find()) {
-                String stmtDate = convertKotakDateFormat(stmtDateMatcher.group(1));
-                data.setStatementPeriod(stmtDate);
+                String stmtDate = DateNormalizer.normalize(stmtDateMatcher.group(1));
+                data.setStatementPeriod(DateRange.parse(stmtDate));
                 if (billingCycle == null) {
-                    data.setBillingCycle(stmtDate);
+                    data.setBillingCycle(DateRange.parse(stmtDate));
                 }
             }
         }
@@ -141,62 +156,32 @@ public class KotakBankParser extends StatementParser {
         String paymentDueDate = null;
         
 
-        Pattern[] dueDatePatterns = {
-
-            Pattern.compile("remember\\s+to\\s+pay\\s+by\\s*[:]\\s*(\\d{1,2}[-]\\w{3}[-]\\d{2,4})", Pattern.CASE_INSENSITIVE),
-
-            Pattern.compile("remember\\s+to\\s+pay\\s+by[:]\\s*(\\d{1,2}[-]\\w{3}[-]\\d{2,4})", Pattern.CASE_INSENSITIVE),
-
-            Pattern.compile("(?:payment\\s+due\\s+date|due\\s+date)\\s*[:]\\s*(\\d{1,2}[-]\\w{3}[-]\\d{2,4})", Pattern.CASE_INSENSITIVE),
-
-            Pattern.compile("pay\\s+by\\s*[:]\\s*(\\d{1,2}[-]\\w{3}[-]\\d{2,4})", Pattern.CASE_INSENSITIVE),
-
-            Pattern.compile("(?:payment\\s+due|due\\s+date|pay\\s+by|remember\\s+to\\s+pay)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE)
-        };
         
-        for (Pattern pattern : dueDatePatterns) {
-            Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
-                String dateStr = matcher.group(1);
-
-                if (dateStr.contains("-") && dateStr.matches("\\d{1,2}-\\w{3}-\\d{2,4}")) {
-                    paymentDueDate = convertKotakDateFormat(dateStr);
-                } else {
-                    paymentDueDate = dateStr;
-                }
-                break;
-            }
+        FieldMatch dueDateMatch = parseContext.find(DUE_DATE_FIELD, text);
+        if (dueDateMatch != null) {
+            String dateStr = dueDateMatch.group(1);
+
+            paymentDueDate = DateNormalizer.normalize(dateStr);
         }
         
 
         if (paymentDueDate == null) {
-            int summaryIndex = text.toLowerCase().indexOf("statement summary");
+            int summaryIndex = view.indexOf("statement summary");
             if (summaryIndex >= 0) {
-                String summarySection = text.substring(summaryIndex, Math.min(summaryIndex + 2500, text.length()));
+                TextWindow summarySection = view.window(summaryIndex, Math.min(summaryIndex + 2500, text.length()));
                 
 
-                for (Pattern pattern : dueDatePatterns) {
-                    Matcher matcher = pattern.matcher(summarySection);
-                    if (matcher.find()) {
-                        String dateStr = matcher.group(1);
-                        if (dateStr.contains("-") && dateStr.matches("\\d{1,2}-\\w{3}-\\d{2,4}")) {
-                            paymentDueDate = convertKotakDateFormat(dateStr);
-                        } else {
-                            paymentDueDate = dateStr;
-                        }
-                        break;
-                    }
+                FieldMatch summaryDueDate = parseContext.find(DUE_DATE_FIELD, summarySection);
+                if (summaryDueDate != null) {
+                    String dateStr = summaryDueDate.group(1);
+                    paymentDueDate = DateNormalizer.normalize(dateStr);
                 }
                 
 
                 if (paymentDueDate == null) {
-                    Pattern summaryDueDatePattern = Pattern.compile(
-                        "(?:remember\\s+to\\s+pay\\s+by|payment\\s+due|due\\s+date|pay\\s+by)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})",
-                        Pattern.CASE_INSENSITIVE
-                    );
-                    Matcher summaryMatcher = summaryDueDatePattern.matcher(summarySection);
+                    GuardedMatcher summaryMatcher = parseContext.matcher(SUMMARY_DUE_DATE_PATTERN, summarySection);
                     if (summaryMatcher.find()) {
-                        paymentDueDate = summaryMatcher.group(1);
+                        paymentDueDate = DateNormalizer.normalize(summaryMatcher.group(1));
                     }
                 }
             }
@@ -204,8 +189,7 @@ public class KotakBankParser extends StatementParser {
         
 
         if (paymentDueDate == null) {
-            Pattern noPaymentPattern = Pattern.compile("remember\\s+to\\s+pay\\s+by\\s*[:]\\s*no\\s+payment\\s+required", Pattern.CASE_INSENSITIVE);
-            Matcher noPaymentMatcher = noPaymentPattern.matcher(text);
+            GuardedMatcher noPaymentMatcher = parseContext.matcher(NO_PAYMENT_PATTERN, text);
             if (noPaymentMatcher.find()) {
 
                 paymentDueDate = null;
@@ -213,136 +197,41 @@ public class KotakBankParser extends StatementParser {
         }
         
         if (paymentDueDate != null) {
-            data.setPaymentDueDate(paymentDueDate);
-        } else {
-            data.setPaymentDueDate("N/A");
+            data.setPaymentDueDate(DateNormalizer.toEpochDay(paymentDueDate));
         }
         
 
         String balance = null;
         
 
-        Pattern[] balancePatterns = {
-
-            Pattern.compile("total\\s+amount\\s+due\\s*\\(?(?:tad|payable)\\)?\\s*[:]\\s*[Rr][Ss]\\.?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-
-            Pattern.compile("total\\s+amount\\s+due\\s*\\(?(?:tad|payable)\\)?\\s*[:]\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-
-            Pattern.compile("total\\s+amount\\s+due\\s*(?:tad|payable)\\s*[:]\\s*[Rr][Ss]\\.?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-
-            Pattern.compile("total\\s+amount\\s+due\\s*[:]\\s*[Rr][Ss]\\.?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-
-            Pattern.compile("total\\s+amount\\s+due\\s*[:]\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-
-            Pattern.compile("total\\s+amount\\s+due\\s*[:]?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE)
-        };
         
-        for (Pattern pattern : balancePatterns) {
-            Matcher matcher = pattern.matcher(text);
-            while (matcher.find()) {
-                String valueStr = matcher.group(1);
-
-                int matchPos = matcher.start();
-                String context = text.substring(Math.max(0, matchPos - 100), 
-                                               Math.min(text.length(), matchPos + 200)).toLowerCase();
-                
-
-                boolean isExcluded = context.contains("credit limit") || 
-                                    context.contains("available credit") ||
-                                    context.contains("self set credit") ||
-                                    context.contains("total credit limit");
-                
-                if (!isExcluded) {
-                    try {
-                        double value = Math.abs(Double.parseDouble(valueStr.replace(",", "")));
-
-                        if (value < 100000) {
-                            balance = valueStr;
-                            break;
-                        }
-                    } catch (NumberFormatException e) {
-
-                    }
-                }
-            }
-            if (balance != null) break;
+        TextWindow document = view.window(0);
+        FieldMatch balanceMatch = parseContext.find(BALANCE_FIELD, document, m -> isBalance(document, m, CREDIT_LIMIT_PHRASES));
+        if (balanceMatch != null) {
+            balance = balanceMatch.group(1);
         }
         
 
         if (balance == null) {
-            int summaryIndex = text.toLowerCase().indexOf("statement summary");
+            int summaryIndex = view.indexOf("statement summary");
             if (summaryIndex >= 0) {
 
-                String summarySection = text.substring(summaryIndex, Math.min(summaryIndex + 3000, text.length()));
+                TextWindow summarySection = view.window(summaryIndex, Math.min(summaryIndex + 3000, text.length()));
                 
 
-                for (Pattern pattern : balancePatterns) {
-                    Matcher matcher = pattern.matcher(summarySection);
-                    while (matcher.find()) {
-                        String valueStr = matcher.group(1);
-
-                        int matchPos = matcher.start();
-                        String context = summarySection.substring(Math.max(0, matchPos - 100), 
-                                                                 Math.min(summarySection.length(), matchPos + 200)).toLowerCase();
-                        
-
-                        boolean isExcluded = context.contains("credit limit") || 
-                                            context.contains("available credit") ||
-                                            context.contains("self set credit") ||
-                                            context.contains("total credit limit");
-                        
-                        if (!isExcluded) {
-                            try {
-                                double value = Math.abs(Double.parseDouble(valueStr.replace(",", "")));
-
-                                if (value < 100000) {
-                                    balance = valueStr;
-                                    break;
-                                }
-                            } catch (NumberFormatException e) {
-                                // Continue
-                            }
-                        }
-                    }
-                    if (balance != null) break;
+                FieldMatch summaryBalance = parseContext.find(BALANCE_FIELD, summarySection,
+                        m -> isBalance(summarySection, m, CREDIT_LIMIT_PHRASES));
+                if (summaryBalance != null) {
+                    balance = summaryBalance.group(1);
                 }
                 
 
                 if (balance == null) {
-                    Pattern[] summaryPatterns = {
-                        Pattern.compile("total\\s+amount\\s+due\\s*[:]?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                        Pattern.compile("amount\\s+due\\s*[:]?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-                        Pattern.compile("tad\\s*[:]?\\s*[Rr][Ss]\\.?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE)
-                    };
                     
-                    for (Pattern pattern : summaryPatterns) {
-                        Matcher matcher = pattern.matcher(summarySection);
-                        while (matcher.find()) {
-                            String valueStr = matcher.group(1);
-
-                            int matchPos = matcher.start();
-                            String context = summarySection.substring(Math.max(0, matchPos - 100), 
-                                                                     Math.min(summarySection.length(), matchPos + 200)).toLowerCase();
-                            
-
-                            boolean isExcluded = context.contains("credit limit") || 
-                                                context.contains("available credit") ||
-                                                context.contains("self set credit");
-                            
-                            if (!isExcluded) {
-                                try {
-                                    double value = Math.abs(Double.parseDouble(valueStr.replace(",", "")));
-
-                                    if (value < 100000) {
-                                        balance = valueStr;
-                                        break; // Found valid balance
-                                    }
-                                } catch (NumberFormatException e) {
-                                    // Continue
-                                }
-                            }
-                        }
-                        if (balance != null) break;
+                    FieldMatch summaryTotal = parseContext.find(SUMMARY_FIELD, summarySection,
+                            m -> isBalance(summarySection, m, SUMMARY_CREDIT_PHRASES));
+                    if (summaryTotal != null) {
+                        balance = summaryTotal.group(1);
                     }
                 }
             }
@@ -350,11 +239,7 @@ public class KotakBankParser extends StatementParser {
         
 
         if (balance == null) {
-            Pattern outstandingPattern = Pattern.compile(
-                "total\\s+outstanding\\s+including\\s*[:]\\s*[Rr][Ss]\\.?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)",
-                Pattern.CASE_INSENSITIVE
-            );
-            Matcher outstandingMatcher = outstandingPattern.matcher(text);
+            GuardedMatcher outstandingMatcher = parseContext.matcher(OUTSTANDING_PATTERN, text);
             if (outstandingMatcher.find()) {
                 balance = outstandingMatcher.group(1);
             }
@@ -363,84 +248,71 @@ public class KotakBankParser extends StatementParser {
 
         if (balance == null) {
 
-            int tadIndex = text.toLowerCase().indexOf("total amount due");
-            int amountDueIndex = text.toLowerCase().indexOf("amount due");
+            int tadIndex = view.indexOf("total amount due");
+            int amountDueIndex = view.indexOf("amount due");
             int searchStart = Math.max(tadIndex, amountDueIndex);
             
             if (searchStart >= 0) {
 
-                String searchSection = text.substring(searchStart, Math.min(searchStart + 1000, text.length()));
+                TextWindow searchSection = view.window(searchStart, Math.min(searchStart + 1000, text.length()));
                 
 
-                Pattern numberPattern = Pattern.compile("([-]?[\\d]{1,3}(?:,\\d{2,3})+(?:\\.\\d{2})?)");
-                Matcher numberMatcher = numberPattern.matcher(searchSection);
+                GuardedMatcher numberMatcher = parseContext.matcher(NUMBER_PATTERN, searchSection);
                 
-                double maxValue = 0;
+                long maxValue = 0;
                 String maxValueStr = null;
                 
                 while (numberMatcher.find()) {
                     String valueStr = numberMatcher.group(1);
                     // Get context to check for exclusions
                     int matchPos = numberMatcher.start();
-                    String context = searchSection.substring(Math.max(0, matchPos - 100), 
-                                                           Math.min(searchSection.length(), matchPos + 200)).toLowerCase();
+                    TextWindow context = searchSection.around(matchPos, 100, 200);
                     
 
-                    boolean isExcluded = context.contains("credit limit") || 
-                                        context.contains("available credit") ||
-                                        context.contains("self set credit") ||
-                                        context.contains("total credit limit");
+                    boolean isExcluded = context.containsAny(CREDIT_LIMIT_PHRASES);
                     
                     if (!isExcluded) {
-                        try {
-                            double value = Math.abs(Double.parseDouble(valueStr.replace(",", "")));
+                        long value = Amount.parse(searchSection, numberMatcher.start(1), numberMatcher.end(1));
+                        if (value == Amount.INVALID) {
+                            continue;
+                        }
+                        value = Math.abs(value);
 
-                            if (value > maxValue && value < 100000) {
-                                maxValue = value;
-                                maxValueStr = valueStr;
-                            }
-                        } catch (NumberFormatException e) {
-                            // Continue
+                        if (value > maxValue && value < MAX_BALANCE) {
+                            maxValue = value;
+                            maxValueStr = valueStr;
                         }
                     }
                 }
                 
 
-                if (maxValueStr == null || maxValue < 1000) {
-                    Pattern simpleNumberPattern = Pattern.compile("([-]?[\\d]+(?:\\.[\\d]{2})?)");
-                    Matcher simpleMatcher = simpleNumberPattern.matcher(searchSection);
+                if (maxValueStr == null || maxValue < Amount.rupees(1000)) {
+                    GuardedMatcher simpleMatcher = parseContext.matcher(SIMPLE_NUMBER_PATTERN, searchSection);
                     
                     while (simpleMatcher.find()) {
                         String valueStr = simpleMatcher.group(1);
 
                         int matchPos = simpleMatcher.start();
-                        String context = searchSection.substring(Math.max(0, matchPos - 100), 
-                                                               Math.min(searchSection.length(), matchPos + 200)).toLowerCase();
-                        String beforeMatch = searchSection.substring(0, matchPos).toLowerCase();
+                        TextWindow context = searchSection.around(matchPos, 100, 200);
+                        TextWindow beforeMatch = searchSection.head(matchPos);
                         
 
-                        boolean isExcluded = context.contains("credit limit") || 
-                                            context.contains("available credit") ||
-                                            context.contains("self set credit") ||
-                                            context.contains("total credit limit");
+                        boolean isExcluded = context.containsAny(CREDIT_LIMIT_PHRASES);
                         
-                        if (!isExcluded) {
-                            try {
-                                double value = Math.abs(Double.parseDouble(valueStr));
-
-                                if (value < 100000) {
-                                    if ((beforeMatch.contains("total") || beforeMatch.contains("due") || beforeMatch.contains("amount")) &&
-                                        (maxValueStr == null || value > maxValue)) {
-                                        maxValue = value;
-                                        maxValueStr = valueStr;
-
-                                        if (maxValue > 0 && maxValue < 10000) {
-                                            break;
-                                        }
+                        long value = Amount.parse(searchSection, simpleMatcher.start(1), simpleMatcher.end(1));
+                        if (!isExcluded && value != Amount.INVALID) {
+                            value = Math.abs(value);
+
+                            if (value < MAX_BALANCE) {
+                                if ((beforeMatch.contains("total") || beforeMatch.contains("due") || beforeMatch.contains("amount")) &&
+                                    (maxValueStr == null || value > maxValue)) {
+                                    maxValue = value;
+                                    maxValueStr = valueStr;
+
+                                    if (maxValue > 0 && maxValue < Amount.rupees(10000)) {
+                                        break;
                                     }
                                 }
-                            } catch (NumberFormatException e) {
-                                // Continue
                             }
                         }
                     }
@@ -454,22 +326,20 @@ public class KotakBankParser extends StatementParser {
         
         if (balance != null) {
 
-            data.setTotalBalance("₹" + balance);
-        } else {
-            data.setTotalBalance("N/A");
+            data.setTotalBalance(Amount.parse(balance));
         }
         
 
         int transactionCount = 0;
         
 
-        int transDetailsIndex = text.toLowerCase().indexOf("transaction details");
+        int transDetailsIndex = view.indexOf("transaction details");
         if (transDetailsIndex >= 0) {
-            String transSection = text.substring(transDetailsIndex);
+            TextWindow transSection = view.window(transDetailsIndex);
 
-            int endIndex1 = transSection.toLowerCase().indexOf("total purchase");
-            int endIndex2 = transSection.toLowerCase().indexOf("total retail purchases");
-            int endIndex3 = transSection.toLowerCase().indexOf("my rewards");
+            int endIndex1 = transSection.indexOf("total purchase");
+            int endIndex2 = transSection.indexOf("total retail purchases");
+            int endIndex3 = transSection.indexOf("my rewards");
             
             int endIndex = transSection.length();
             if (endIndex1 > 0) endIndex = Math.min(endIndex, endIndex1);
@@ -477,37 +347,31 @@ public class KotakBankParser extends StatementParser {
             if (endIndex3 > 0) endIndex = Math.min(endIndex, endIndex3);
             
             if (endIndex < transSection.length()) {
-                transSection = transSection.substring(0, endIndex);
+                transSection = transSection.head(endIndex);
             }
             
 
-            Pattern[] transLinePatterns = {
-
-                Pattern.compile("(\\d{1,2}/\\d{1,2}/\\d{4})\\s+[A-Z][^\\n\\r]{5,}?\\s+([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-
-                Pattern.compile("(\\d{1,2}/\\d{1,2}/\\d{4})\\s+[A-Za-z][^\\n\\r]{3,}?\\s+([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
-
-                Pattern.compile("(\\d{1,2}/\\d{1,2}/\\d{4})\\s+[^\\d]{5,100}\\s+([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE)
-            };
             
+            // The patterns overlap, so a line is stored from the first one that finds it
+            TransactionTable.Builder transactions = TransactionTable.builder();
+            BitSet lineStarts = new BitSet();
             java.util.Set<String> uniqueTransactions = new java.util.HashSet<>();
-            
-            for (Pattern transLinePattern : transLinePatterns) {
-                Matcher transLineMatcher = transLinePattern.matcher(transSection);
+            for (Pattern transLinePattern : TRANS_LINE_PATTERNS) {
+                GuardedMatcher transLineMatcher = parseContext.matcher(transLinePattern, transSection);
                 while (transLineMatcher.find()) {
-                    String transDate = transLineMatcher.group(1);
-                    String amount = transLineMatcher.group(2);
-
-                    uniqueTransactions.add(transDate + "|" + amount.trim());
+                    uniqueTransactions.add(transactionKey(transLineMatcher, 3));
+                    if (!lineStarts.get(transLineMatcher.start())) {
+                        lineStarts.set(transLineMatcher.start());
+                        addTransaction(transactions, transSection, transLineMatcher, 2, 3);
+                    }
                 }
             }
+            data.setTransactions(transactions.build());
             
             transactionCount = uniqueTransactions.size();
             
 
             if (transactionCount <= 1) {
-                Pattern datePattern = Pattern.compile("\\b(\\d{1,2}/\\d{1,2}/\\d{4})\\b");
-                java.util.regex.Matcher dateMatcher = datePattern.matcher(transSection);
                 java.util.Set<String> allDates = new java.util.HashSet<>();
 
 
@@ -521,8 +385,9 @@ public class KotakBankParser extends StatementParser {
                     }
                 }
                 
-                while (dateMatcher.find()) {
-                    String date = dateMatcher.group(1);
+                long dateSpan = NumericDateScanner.WORD_BOUNDED.find(transSection);
+                while (dateSpan != Span.NONE) {
+                    String date = DateNormalizer.normalize(Span.text(transSection, dateSpan));
 
                     boolean isExcluded = false;
                     if (stmtStartDate != null && date.equals(stmtStartDate)) isExcluded = true;
@@ -532,6 +397,7 @@ public class KotakBankParser extends StatementParser {
                     if (!isExcluded) {
                         allDates.add(date);
                     }
+                    dateSpan = NumericDateScanner.WORD_BOUNDED.find(transSection, Span.end(dateSpan));
                 }
                 
 
@@ -542,57 +408,23 @@ public class KotakBankParser extends StatementParser {
         }
         
         if (transactionCount > 0) {
-            data.setTotalTransactions(String.valueOf(transactionCount));
-        } else {
-            data.setTotalTransactions("N/A");
+            data.setTotalTransactions(transactionCount);
         }
         
         return data;
     }
     
 
-    private String convertKotakDateFormat(String dateStr) {
-        if (dateStr == null) return null;
-        
-        try {
-            Pattern datePattern = Pattern.compile("(\\d{1,2})[-](\\w{3})[-](\\d{2,4})", Pattern.CASE_INSENSITIVE);
-            Matcher matcher = datePattern.matcher(dateStr);
-            if (matcher.find()) {
-                String day = matcher.group(1);
-                String monthStr = matcher.group(2).toLowerCase();
-                String year = matcher.group(3);
-                
-
-                String monthNum = "01";
-                if (monthStr.startsWith("jan")) monthNum = "01";
-                else if (monthStr.startsWith("feb")) monthNum = "02";
-                else if (monthStr.startsWith("mar")) monthNum = "03";
-                else if (monthStr.startsWith("apr")) monthNum = "04";
-                else if (monthStr.startsWith("may")) monthNum = "05";
-                else if (monthStr.startsWith("jun")) monthNum = "06";
-                else if (monthStr.startsWith("jul")) monthNum = "07";
-                else if (monthStr.startsWith("aug")) monthNum = "08";
-                else if (monthStr.startsWith("sep")) monthNum = "09";
-                else if (monthStr.startsWith("oct")) monthNum = "10";
-                else if (monthStr.startsWith("nov")) monthNum = "11";
-                else if (monthStr.startsWith("dec")) monthNum = "12";
-                
-
-                String formattedDay = day.length() == 1 ? "0" + day : day;
-                
-
-                if (year.length() == 2) {
-                    int yearInt = Integer.parseInt(year);
-                    year = yearInt < 50 ? "20" + year : "19" + year;
-                }
-                
-                return String.format("%s/%s/%s", formattedDay, monthNum, year);
-            }
-        } catch (Exception e) {
-
+    /**
+     * Accepts an amount under one lakh that is not printed next to one of the
+     * credit limit phrases.
+     */
+    private static boolean isBalance(TextWindow text, FieldMatch match, List<String> excluded) {
+        if (text.around(match.start(), 100, 200).containsAny(excluded)) {
+            return false;
         }
-        
-        return dateStr;
+        long value = Amount.parse(match.group(1));
+        return value != Amount.INVALID && Math.abs(value) < MAX_BALANCE;
     }
 }
 
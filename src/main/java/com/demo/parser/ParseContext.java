@@ -0,0 +1,220 @@
+package com.demo.parser;
+
+import com.demo.detection.DocumentFingerprint;
+import com.demo.pdf.DocumentOpener;
+import com.demo.pdf.ExtractedText;
+import com.demo.pdf.ExtractedTextStore;
+import com.demo.pdf.FieldExtractor;
+import com.demo.pdf.PdfTextExtractor;
+import com.demo.pdf.StreamingTextStripper;
+import com.demo.text.Deadline;
+import com.demo.text.DocumentView;
+import com.demo.text.GuardedCharSequence;
+import com.demo.text.GuardedMatcher;
+import com.demo.text.MatchBudget;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Per-request view of one statement PDF. The document is loaded and decrypted
+ * once, and the same context is handed to every parser's {@code canParse} and
+ * to the winning parser's {@code parse}.
+ * <p>
+ * Text is extracted in two stages: issuer detection only needs the header, so
+ * {@link #getHeaderText()} strips pages from the front until enough text
+ * exists; {@link #getText()} strips the remaining pages on first use, which
+ * only happens for the parser that wins detection. Long documents are handed
+ * to the {@link PdfTextExtractor}, which may strip page ranges in parallel.
+ * <p>
+ * When the text was found in the {@link ExtractedTextStore} the document is
+ * only opened if something asks for it; text extracted from the PDF is written
+ * back to the store when the context is closed.
+ * <p>
+ * Parsers run their regex searches through {@link #matcher} and
+ * {@link #find}, which charge them to the context's {@link MatchBudget} so a
+ * runaway pattern is abandoned instead of stalling the request. Loading,
+ * stripping and searching all stop at the context's {@link Deadline}.
+ * Not thread-safe; a context belongs to a single request.
+ */
+public class ParseContext implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ParseContext.class);
+
+    /** Number of leading characters the issuer checks look at. */
+    public static final int HEADER_LENGTH = 3000;
+
+    private final DocumentOpener opener;
+    private final PdfTextExtractor extractor;
+    private final ExtractedTextStore store;
+    private final String storeKey;
+    private final boolean storedText;
+    private PDDocument document;
+    private String headerText;
+    private int headerPages;
+    private String text;
+    private boolean partialText;
+    private DocumentView view;
+    private final MatchBudget matchBudget;
+    private final Deadline deadline;
+    private DocumentFingerprint fingerprint;
+
+    private ParseContext(DocumentOpener opener, PdfTextExtractor extractor,
+                         ExtractedTextStore store, String storeKey, ExtractedText stored,
+                         MatchBudget matchBudget, Deadline deadline) throws IOException {
+        this.opener = opener;
+        this.matchBudget = matchBudget;
+        this.deadline = deadline;
+        this.extractor = extractor;
+        this.store = store;
+        this.storeKey = storeKey;
+        this.storedText = stored != null;
+        if (stored != null) {
+            this.headerText = stored.getHeaderText();
+            this.text = stored.getText();
+        } else {
+            this.document = opener.open();
+        }
+    }
+
+    static ParseContext open(DocumentOpener opener, PdfTextExtractor extractor,
+                             ExtractedTextStore store, String storeKey, ExtractedText stored,
+                             MatchBudget matchBudget, Deadline deadline) throws IOException {
+        try {
+            return new ParseContext(opener, extractor, store, storeKey, stored, matchBudget, deadline);
+        } catch (InvalidPasswordException e) {
+            throw new IOException("PDF is password-protected. Please provide the correct password.", e);
+        }
+    }
+
+    public PDDocument getDocument() throws IOException {
+        if (document == null) {
+            if (opener == null) {
+                throw new IllegalStateException("Context was built from stored text and has no PDF");
+            }
+            document = opener.open();
+        }
+        return document;
+    }
+
+    /**
+     * Metadata and font fingerprint of the PDF, or {@code null} when the
+     * context was served from stored text and the document is not open.
+     */
+    public DocumentFingerprint getFingerprint() throws IOException {
+        if (fingerprint == null && document != null) {
+            fingerprint = DocumentFingerprint.of(document);
+        }
+        return fingerprint;
+    }
+
+    public String getHeaderText() throws IOException {
+        if (headerText == null) {
+            int pageCount = document.getNumberOfPages();
+            StringBuilder header = new StringBuilder();
+            while (headerPages < pageCount && header.length() < HEADER_LENGTH) {
+                headerPages++;
+                header.append(extractor.extract(document, headerPages, headerPages, opener, deadline));
+            }
+            headerText = header.toString();
+        }
+        return headerText;
+    }
+    
+    public String getText() throws IOException {
+        if (text == null) {
+            String header = getHeaderText();
+            int pageCount = document.getNumberOfPages();
+            text = headerPages < pageCount
+                    ? header + extractor.extract(document, headerPages + 1, pageCount, opener, deadline)
+                    : header;
+        }
+        return text;
+    }
+
+    /**
+     * The text wrapped for lowercase keyword lookups and zero-copy sections.
+     * Built once from whatever {@link #getText()} returns.
+     */
+    public DocumentView getView() throws IOException {
+        if (view == null) {
+            view = DocumentView.of(getText());
+        }
+        return view;
+    }
+
+    public MatchBudget getMatchBudget() {
+        return matchBudget;
+    }
+
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    /** Matcher whose searches are charged to this context's regex budget. */
+    public GuardedMatcher matcher(Pattern pattern, CharSequence input) {
+        return matchBudget.matcher(pattern, input);
+    }
+
+    /** {@link FieldMatcher#find(CharSequence)} within the regex budget; {@code null} when abandoned. */
+    public FieldMatch find(FieldMatcher field, CharSequence input) {
+        GuardedCharSequence guarded = matchBudget.guard(input);
+        return matchBudget.search(field.toString(), guarded, () -> field.find(guarded));
+    }
+
+    /** {@link FieldMatcher#find(CharSequence, Predicate)} within the regex budget. */
+    public FieldMatch find(FieldMatcher field, CharSequence input, Predicate<? super FieldMatch> accept) {
+        GuardedCharSequence guarded = matchBudget.guard(input);
+        return matchBudget.search(field.toString(), guarded, () -> field.find(guarded, accept));
+    }
+
+    /**
+     * Extracts pages after the header only until every field extractor is
+     * complete, skipping the rest of the document. Later calls to
+     * {@link #getText()} return this partial text.
+     */
+    public String getTextUntil(List<? extends FieldExtractor> fields) throws IOException {
+        if (text != null) {
+            return text;
+        }
+        String header = getHeaderText();
+        DocumentView headerView = DocumentView.of(header);
+        for (int n = 0; n < headerView.lineCount(); n++) {
+            String line = headerView.line(n).toString();
+            for (FieldExtractor field : fields) {
+                field.offer(line);
+            }
+        }
+        StreamingTextStripper stripper = new StreamingTextStripper(fields, deadline);
+        if (stripper.isSatisfied() || headerPages >= document.getNumberOfPages()) {
+            partialText = headerPages < document.getNumberOfPages();
+            text = header;
+            return text;
+        }
+        stripper.setStartPage(headerPages + 1);
+        text = header + stripper.stream(document);
+        partialText = stripper.isSatisfied();
+        return text;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (store != null && !storedText && !partialText && text != null) {
+            try {
+                store.put(storeKey, new ExtractedText(text, headerText.length()));
+            } catch (IOException e) {
+                log.warn("Could not write extracted text to the store", e);
+            }
+        }
+        if (document != null) {
+            document.close();
+        }
+    }
+}
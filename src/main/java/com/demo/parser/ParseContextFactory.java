@@ -0,0 +1,93 @@
+package com.demo.parser;
+
+import com.demo.config.ParserProperties;
+import com.demo.pdf.DocumentOpener;
+import com.demo.pdf.ExtractedText;
+import com.demo.pdf.ExtractedTextStore;
+import com.demo.pdf.PdfLoader;
+import com.demo.pdf.PdfSource;
+import com.demo.pdf.PdfTextExtractor;
+import com.demo.text.Deadline;
+import com.demo.text.MatchBudget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Creates {@link ParseContext}s with the configured loading, extraction,
+ * regex time limit and parse deadline settings, consulting the
+ * {@link ExtractedTextStore} first when one is enabled.
+ */
+@Component
+public class ParseContextFactory {
+
+    private final PdfLoader loader;
+    private final PdfTextExtractor extractor;
+    private final ExtractedTextStore textStore;
+    private final Duration matchTimeout;
+    private final Duration parseBudget;
+    private final Duration parseTimeout;
+
+    @Autowired
+    public ParseContextFactory(ParserProperties properties, PdfTextExtractor extractor,
+                               Optional<ExtractedTextStore> textStore) {
+        this(new PdfLoader(properties.getLoading().isMemoryMapped(),
+                           properties.getLoading().getMaxMainMemory().toBytes()),
+             extractor, textStore.orElse(null),
+             properties.getPatterns().getMatchTimeout(), properties.getPatterns().getParseBudget(),
+             properties.getParseTimeout());
+    }
+
+    public ParseContextFactory(PdfLoader loader, PdfTextExtractor extractor, ExtractedTextStore textStore) {
+        this(loader, extractor, textStore, new ParserProperties.Patterns().getMatchTimeout(),
+             new ParserProperties.Patterns().getParseBudget(), new ParserProperties().getParseTimeout());
+    }
+
+    public ParseContextFactory(PdfLoader loader, PdfTextExtractor extractor, ExtractedTextStore textStore,
+                               Duration matchTimeout, Duration parseBudget, Duration parseTimeout) {
+        this.loader = loader;
+        this.extractor = extractor;
+        this.textStore = textStore;
+        this.matchTimeout = matchTimeout;
+        this.parseBudget = parseBudget;
+        this.parseTimeout = parseTimeout;
+    }
+
+    /** Factory with default settings and single-threaded extraction. */
+    public static ParseContextFactory defaults() {
+        ParserProperties.Loading loading = new ParserProperties.Loading();
+        return new ParseContextFactory(new PdfLoader(loading.isMemoryMapped(), loading.getMaxMainMemory().toBytes()),
+                                       PdfTextExtractor.sequential(), null);
+    }
+
+    /** A deadline the configured parse timeout from now, for one request. */
+    public Deadline newDeadline() {
+        return Deadline.after(parseTimeout);
+    }
+
+    public ParseContext open(PdfSource source, String password) throws IOException {
+        return open(source, password, newDeadline());
+    }
+
+    public ParseContext open(PdfSource source, String password, Deadline deadline) throws IOException {
+        DocumentOpener opener = () -> loader.load(source, password, deadline);
+        if (textStore == null) {
+            return ParseContext.open(opener, extractor, null, null, null, newBudget(deadline), deadline);
+        }
+        String key = source.keyFor(password);
+        return ParseContext.open(opener, extractor, textStore, key, textStore.get(key), newBudget(deadline), deadline);
+    }
+
+    /** Context over previously extracted text, with no PDF behind it. */
+    public ParseContext fromText(ExtractedText text) throws IOException {
+        Deadline deadline = newDeadline();
+        return ParseContext.open(null, extractor, null, null, text, newBudget(deadline), deadline);
+    }
+
+    private MatchBudget newBudget(Deadline deadline) {
+        return new MatchBudget(matchTimeout, parseBudget, deadline);
+    }
+}
@@ -0,0 +1,93 @@
+package com.demo.parser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Every regex the parsers use. Parsers declare their patterns as static
+ * constants compiled through {@link #issuer(String)}, so they are compiled
+ * once when the parser classes load and never on the request path; the
+ * catalog keeps them grouped per issuer for validation and warm-up at boot.
+ * A regex declared twice by the same issuer, as fallback lists often do,
+ * shares one compiled instance.
+ */
+public final class PatternCatalog {
+
+    private static final Map<String, Issuer> ISSUERS = new LinkedHashMap<>();
+
+    private PatternCatalog() {
+    }
+
+    public static synchronized Issuer issuer(String name) {
+        return ISSUERS.computeIfAbsent(name, Issuer::new);
+    }
+
+    /** Registered patterns per issuer, in declaration order. */
+    public static synchronized Map<String, List<Pattern>> patterns() {
+        Map<String, List<Pattern>> patterns = new LinkedHashMap<>();
+        ISSUERS.forEach((name, issuer) -> patterns.put(name, issuer.getPatterns()));
+        return Collections.unmodifiableMap(patterns);
+    }
+
+    /**
+     * Checks that every given issuer has declared its patterns and that no
+     * pattern matches empty input, which would make the parsers' {@code find()}
+     * loops spin on zero-length matches.
+     *
+     * @throws IllegalStateException listing every problem found
+     */
+    public static void validate(Collection<String> issuers) {
+        List<String> problems = new ArrayList<>();
+        Map<String, List<Pattern>> catalog = patterns();
+        for (String issuer : issuers) {
+            if (catalog.getOrDefault(issuer, List.of()).isEmpty()) {
+                problems.add(issuer + " has no patterns in the catalog");
+            }
+        }
+        catalog.forEach((issuer, patterns) -> {
+            for (Pattern pattern : patterns) {
+                if (pattern.matcher("").find()) {
+                    problems.add(issuer + " has a pattern matching empty input: " + pattern.pattern());
+                }
+            }
+        });
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Invalid pattern catalog:\n" + String.join("\n", problems));
+        }
+    }
+
+    public static final class Issuer {
+
+        private final String name;
+        private final Map<String, Pattern> patterns = new LinkedHashMap<>();
+
+        private Issuer(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Pattern compile(String regex) {
+            return compile(regex, 0);
+        }
+
+        public Pattern compile(String regex, int flags) {
+            synchronized (PatternCatalog.class) {
+                return patterns.computeIfAbsent(flags + ":" + regex, key -> Pattern.compile(regex, flags));
+            }
+        }
+
+        public List<Pattern> getPatterns() {
+            synchronized (PatternCatalog.class) {
+                return List.copyOf(patterns.values());
+            }
+        }
+    }
+}
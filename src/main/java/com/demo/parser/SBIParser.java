@@ -1,89 +1,75 @@
 package com.demo.parser;
 
+import com.demo.detection.IssuerSignature;
+import com.demo.model.CardIssuer;
+import com.demo.model.DateRange;
 import com.demo.model.StatementData;
+import com.demo.text.Amount;
+import com.demo.text.CardNumberScanner;
+import com.demo.text.CardShape;
+import com.demo.text.DateNormalizer;
+import com.demo.text.GuardedMatcher;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.regex.Matcher;
+import java.util.List;
 import java.util.regex.Pattern;
 
 
 @Component
 public class SBIParser extends StatementParser {
-    
-    @Override
-    public boolean canParse(String text) {
-        String lowerText = text.toLowerCase();
-        
-
-        if (lowerText.contains("axis bank") || 
-            lowerText.contains("lic axis bank") ||
-            lowerText.contains("axis bank credit card")) {
-            return false;
-        }
-        
-
-        String headerSection = text.length() > 3000 ? text.substring(0, 3000).toLowerCase() : lowerText;
-        
-
-        if (headerSection.contains("state bank of india") || 
-            headerSection.contains("sbi credit card statement") ||
-            headerSection.contains("sbi card statement") ||
-            headerSection.contains("sbi statement")) {
-            return true;
-        }
-        
 
-        if (headerSection.contains("sbi") && 
-            (headerSection.contains("credit card") || 
-             headerSection.contains("bank") || 
-             headerSection.contains("statement"))) {
-
-            int sbiIndex = headerSection.indexOf("sbi");
-            String sbiContext = headerSection.substring(Math.max(0, sbiIndex - 100), 
-                                                        Math.min(headerSection.length(), sbiIndex + 100));
-            if (sbiContext.contains("bank") || sbiContext.contains("credit") || 
-                sbiContext.contains("card") || sbiContext.contains("statement") ||
-                sbiContext.contains("state")) {
-                return true;
-            }
-        }
-        
-        return false;
-    }
+    private static final IssuerSignature SIGNATURE = IssuerSignature.builder("SBI")
+            .exclude("axis bank", "lic axis bank", "axis bank credit card")
+            .within(ParseContext.HEADER_LENGTH)
+            .phrase("state bank of india", "sbi credit card statement", "sbi card statement", "sbi statement")
+            .anchored("sbi")
+                .with("credit card", "bank", "statement")
+                .near(100, 100, "bank", "credit", "card", "statement", "state")
+                .end()
+            .build();
+
+    private static final PatternCatalog.Issuer PATTERNS = PatternCatalog.issuer("SBI");
+    private static final List<Pattern> KEYWORD_BALANCE_PATTERNS = balancePatterns(PATTERNS,
+            "total amount due", "outstanding", "balance", "total due", "amount due");
+    private static final Pattern CARD_PATTERN = PATTERNS.compile("(?:card|account)\\s+(?:number|no|ending|#)?\\s*[:]?\\s*(?:\\*{4,}|x{4,}|\\d{4,})?\\s*(?:\\*{0,4}|x{0,4})?\\s*(\\d{4})", Pattern.CASE_INSENSITIVE);
+    private static final CardNumberScanner ALT_SCANNER = CardNumberScanner.of(CardShape.FOUR_GROUPS);
+    private static final Pattern VARIANT_PATTERN = PATTERNS.compile("(simplyclick|simplysave|prime|elite|aurum|rpl|supercard|fbb|air|platinum|gold)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CYCLE_PATTERN = PATTERNS.compile("(?:statement\\s+period|billing\\s+period|period)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s*[-–]?\\s*\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DATE_PATTERN = PATTERNS.compile("(?:period|statement\\s+date)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s+to\\s+\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DUE_DATE_PATTERN = PATTERNS.compile("(?:payment\\s+due|due\\s+date|pay\\s+by)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BALANCE_PATTERN = PATTERNS.compile("(?:total\\s+amount\\s+due|outstanding|balance|total\\s+due|amount\\s+due)\\s*[:]?\\s*[Rr][Ss]?\\.?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALT_BALANCE_PATTERN = PATTERNS.compile("(?:total\\s+amount\\s+due|outstanding|balance|total\\s+due|amount\\s+due)\\s*[:]?\\s*([\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TRANS_PATTERN = PATTERNS.compile("(\\d+)\\s+(?:transaction|purchase|charge|payment|debit|credit)", Pattern.CASE_INSENSITIVE);
     
     @Override
-    public StatementData parse(InputStream pdfStream) throws IOException {
-        return parse(pdfStream, null);
+    public IssuerSignature signature() {
+        return SIGNATURE;
     }
     
     @Override
-    public StatementData parse(InputStream pdfStream, String password) throws IOException {
-        String text = extractTextFromPdf(pdfStream, password);
+    public StatementData parse(ParseContext parseContext) throws IOException {
+        String text = parseContext.getText();
         
         StatementData data = new StatementData();
-        data.setCardProvider("SBI");
+        data.setIssuer(CardIssuer.SBI);
         
 
-        Pattern cardPattern = Pattern.compile("(?:card|account)\\s+(?:number|no|ending|#)?\\s*[:]?\\s*(?:\\*{4,}|x{4,}|\\d{4,})?\\s*(?:\\*{0,4}|x{0,4})?\\s*(\\d{4})", Pattern.CASE_INSENSITIVE);
-        Matcher cardMatcher = cardPattern.matcher(text);
+        GuardedMatcher cardMatcher = parseContext.matcher(CARD_PATTERN, text);
         if (cardMatcher.find()) {
-            data.setCardLastFourDigits(cardMatcher.group(1));
+            data.setCardLastFour(lastFour(cardMatcher.group(1)));
         } else {
 
-            Pattern altPattern = Pattern.compile("\\d{4}[\\s-]\\d{4}[\\s-]\\d{4}[\\s-](\\d{4})");
-            Matcher altMatcher = altPattern.matcher(text);
-            if (altMatcher.find()) {
-                data.setCardLastFourDigits(altMatcher.group(1));
+            String cardLast4 = ALT_SCANNER.findLastFour(text);
+            if (cardLast4 != null) {
+                data.setCardLastFour(lastFour(cardLast4));
             } else {
-                data.setCardLastFourDigits(extractLastFourDigits(text));
+                data.setCardLastFour(extractLastFourDigits(text));
             }
         }
         
 
-        Pattern variantPattern = Pattern.compile("(simplyclick|simplysave|prime|elite|aurum|rpl|supercard|fbb|air|platinum|gold)", Pattern.CASE_INSENSITIVE);
-        Matcher variantMatcher = variantPattern.matcher(text);
+        GuardedMatcher variantMatcher = parseContext.matcher(VARIANT_PATTERN, text);
         if (variantMatcher.find()) {
             data.setCardVariant(variantMatcher.group(1));
         } else {
@@ -91,63 +77,43 @@ public class SBIParser extends StatementParser {
         }
         
 
-        Pattern cyclePattern = Pattern.compile("(?:statement\\s+period|billing\\s+period|period)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s*[-–]?\\s*\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
-        Matcher cycleMatcher = cyclePattern.matcher(text);
+        GuardedMatcher cycleMatcher = parseContext.matcher(CYCLE_PATTERN, text);
         if (cycleMatcher.find()) {
-            data.setBillingCycle(cycleMatcher.group(1));
-            data.setStatementPeriod(cycleMatcher.group(1));
+            data.setBillingCycle(DateRange.parse(cycleMatcher.group(1)));
+            data.setStatementPeriod(DateRange.parse(cycleMatcher.group(1)));
         } else {
 
-            Pattern datePattern = Pattern.compile("(?:period|statement\\s+date)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\s+to\\s+\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
-            Matcher dateMatcher = datePattern.matcher(text);
+            GuardedMatcher dateMatcher = parseContext.matcher(DATE_PATTERN, text);
             if (dateMatcher.find()) {
-                data.setBillingCycle(dateMatcher.group(1));
-                data.setStatementPeriod(dateMatcher.group(1));
-            } else {
-                data.setBillingCycle("N/A");
+                data.setBillingCycle(DateRange.parse(dateMatcher.group(1)));
+                data.setStatementPeriod(DateRange.parse(dateMatcher.group(1)));
             }
         }
         
 
-        Pattern dueDatePattern = Pattern.compile("(?:payment\\s+due|due\\s+date|pay\\s+by)\\s*[:]?\\s*(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})", Pattern.CASE_INSENSITIVE);
-        Matcher dueDateMatcher = dueDatePattern.matcher(text);
+        GuardedMatcher dueDateMatcher = parseContext.matcher(DUE_DATE_PATTERN, text);
         if (dueDateMatcher.find()) {
-            data.setPaymentDueDate(dueDateMatcher.group(1));
-        } else {
-            data.setPaymentDueDate("N/A");
+            data.setPaymentDueDate(DateNormalizer.toEpochDay(dueDateMatcher.group(1)));
         }
         
 
-        Pattern balancePattern = Pattern.compile(
-            "(?:total\\s+amount\\s+due|outstanding|balance|total\\s+due|amount\\s+due)\\s*[:]?\\s*[Rr][Ss]?\\.?\\s*([\\d,]+(?:\\.\\d{2})?)",
-            Pattern.CASE_INSENSITIVE
-        );
-        Matcher balanceMatcher = balancePattern.matcher(text);
+        GuardedMatcher balanceMatcher = parseContext.matcher(BALANCE_PATTERN, text);
         if (balanceMatcher.find()) {
-            data.setTotalBalance("₹" + balanceMatcher.group(1));
+            data.setTotalBalance(Amount.parse(balanceMatcher.group(1)));
         } else {
 
-            Pattern altBalancePattern = Pattern.compile(
-                "(?:total\\s+amount\\s+due|outstanding|balance|total\\s+due|amount\\s+due)\\s*[:]?\\s*([\\d,]+(?:\\.\\d{2})?)",
-                Pattern.CASE_INSENSITIVE
-            );
-            Matcher altBalanceMatcher = altBalancePattern.matcher(text);
+            GuardedMatcher altBalanceMatcher = parseContext.matcher(ALT_BALANCE_PATTERN, text);
             if (altBalanceMatcher.find()) {
-                data.setTotalBalance("₹" + altBalanceMatcher.group(1));
+                data.setTotalBalance(Amount.parse(altBalanceMatcher.group(1)));
             } else {
-                data.setTotalBalance(extractBalance(text, new String[]{
-                    "total amount due", "outstanding", "balance", "total due", "amount due"
-                }));
+                data.setTotalBalance(extractBalance(parseContext, text, KEYWORD_BALANCE_PATTERNS));
             }
         }
         
 
-        Pattern transPattern = Pattern.compile("(\\d+)\\s+(?:transaction|purchase|charge|payment|debit|credit)", Pattern.CASE_INSENSITIVE);
-        Matcher transMatcher = transPattern.matcher(text);
+        GuardedMatcher transMatcher = parseContext.matcher(TRANS_PATTERN, text);
         if (transMatcher.find()) {
-            data.setTotalTransactions(transMatcher.group(1));
-        } else {
-            data.setTotalTransactions("N/A");
+            data.setTotalTransactions(count(transMatcher.group(1)));
         }
         
         return data;
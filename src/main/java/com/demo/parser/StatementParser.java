@@ -1,50 +1,164 @@
 package com.demo.parser;
 
+import com.demo.detection.IssuerClassifier;
+import com.demo.detection.IssuerSignature;
 import com.demo.model.StatementData;
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import com.demo.model.TransactionTable;
+import com.demo.pdf.PdfSource;
+import com.demo.text.Amount;
+import com.demo.text.CardNumberScanner;
+import com.demo.text.CardShape;
+import com.demo.text.DateNormalizer;
+import com.demo.text.GuardedMatcher;
+import com.demo.text.NumericDateScanner;
+import com.demo.text.Span;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 
 public abstract class StatementParser {
     
-    protected String extractTextFromPdf(InputStream pdfStream) throws IOException {
-        return extractTextFromPdf(pdfStream, null);
-    }
+    private static final CardNumberScanner CARD_NUMBER_SCANNER = CardNumberScanner.of(CardShape.ANY_PAN);
+    
+    private volatile IssuerClassifier classifier;
+    
+    /** Keywords and rules identifying this issuer's statements. */
+    public abstract IssuerSignature signature();
     
-    protected String extractTextFromPdf(InputStream pdfStream, String password) throws IOException {
-        byte[] pdfBytes = pdfStream.readAllBytes();
-        try (PDDocument document = Loader.loadPDF(pdfBytes, password)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
-        } catch (org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException e) {
-            throw new IOException("PDF is password-protected. Please provide the correct password.", e);
+    public boolean canParse(String text) {
+        IssuerClassifier own = classifier;
+        if (own == null) {
+            own = new IssuerClassifier(List.of(signature()));
+            classifier = own;
         }
+        return own.classify(text).isMatched();
+    }
+    
+    public boolean canParse(ParseContext context) throws IOException {
+        return canParse(context.getHeaderText());
     }
     
-    public abstract boolean canParse(String text);
+    public abstract StatementData parse(ParseContext context) throws IOException;
     
-    public abstract StatementData parse(InputStream pdfStream) throws IOException;
+    public StatementData parse(InputStream pdfStream) throws IOException {
+        return parse(pdfStream, null);
+    }
     
     public StatementData parse(InputStream pdfStream, String password) throws IOException {
-        return parse(pdfStream);
+        try (PdfSource source = PdfSource.spool(pdfStream);
+             ParseContext context = ParseContextFactory.defaults().open(source, password)) {
+            return parse(context);
+        }
     }
     
-    protected String extractLastFourDigits(String text) {
-        Pattern cardPattern = Pattern.compile("(?:\\*|x|X|\\d){11,12}(\\d{4})|(?:\\d{4}[\\s-]){3}(\\d{4})");
-        java.util.regex.Matcher matcher = cardPattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+    protected int extractLastFourDigits(CharSequence text) {
+        return lastFour(CARD_NUMBER_SCANNER.findLastFour(text));
+    }
+
+    /** The four digits as a number, or {@link StatementData#NO_VALUE}. */
+    protected static int lastFour(String digits) {
+        if (digits == null || digits.length() != 4) {
+            return StatementData.NO_VALUE;
         }
-        return "N/A";
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            char c = digits.charAt(i);
+            if (c < '0' || c > '9') {
+                return StatementData.NO_VALUE;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /** A printed count, or {@link StatementData#NO_VALUE} if it is not a number that fits an int. */
+    protected static int count(String digits) {
+        try {
+            return Integer.parseInt(digits);
+        } catch (NumberFormatException e) {
+            return StatementData.NO_VALUE;
+        }
+    }
+
+    /** Counts {@code d/m/yyyy} dates in a section, skipping any on the same day as one of {@code excluded}. */
+    protected static int countDates(CharSequence section, String... excluded) {
+        int[] excludedDays = new int[excluded.length];
+        for (int i = 0; i < excluded.length; i++) {
+            excludedDays[i] = DateNormalizer.toEpochDay(excluded[i]);
+        }
+        int count = 0;
+        long span = NumericDateScanner.WORD_BOUNDED.find(section);
+        while (span != Span.NONE) {
+            int day = DateNormalizer.toEpochDay(section, Span.start(span), Span.end(span));
+            if (day == DateNormalizer.INVALID || !contains(excludedDays, day)) {
+                count++;
+            }
+            span = NumericDateScanner.WORD_BOUNDED.find(section, Span.end(span));
+        }
+        return count;
+    }
+
+    /**
+     * Adds the transaction line {@code line} found in {@code section}, reading the date from group 1
+     * and the description and amount from the given groups. A {@code Dr} or {@code Cr} printed after
+     * the amount is read with it. Returns false, adding nothing, if the date or amount does not read.
+     */
+    protected static boolean addTransaction(TransactionTable.Builder table, CharSequence section,
+                                            GuardedMatcher line, int descriptionGroup, int amountGroup) {
+        int date = DateNormalizer.toEpochDay(section, line.start(1), line.end(1));
+        long paise = Amount.parse(section, line.start(amountGroup), suffixEnd(section, line.end(amountGroup)));
+        if (date == DateNormalizer.INVALID || paise == Amount.INVALID) {
+            return false;
+        }
+        int start = line.start(descriptionGroup);
+        int end = line.end(descriptionGroup);
+        while (start < end && Character.isWhitespace(section.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(section.charAt(end - 1))) {
+            end--;
+        }
+        table.add(date, paise, section, start, end);
+        return true;
+    }
+
+    /**
+     * Date and amount text of a transaction line. Transaction counts are
+     * de-duplicated on this key, apart from the rows stored, which keep every
+     * line that reads.
+     */
+    protected static String transactionKey(GuardedMatcher line, int amountGroup) {
+        return line.group(1) + "|" + line.group(amountGroup).trim();
+    }
+
+    /** End of a {@code Dr} or {@code Cr} following {@code end} on the same line, or {@code end}. */
+    private static int suffixEnd(CharSequence text, int end) {
+        int pos = end;
+        while (pos < text.length() && (text.charAt(pos) == ' ' || text.charAt(pos) == '\t')) {
+            pos++;
+        }
+        if (pos + 2 > text.length() || (text.charAt(pos + 1) | 0x20) != 'r') {
+            return end;
+        }
+        char first = (char) (text.charAt(pos) | 0x20);
+        boolean wordEnds = pos + 2 == text.length() || !Character.isLetter(text.charAt(pos + 2));
+        return (first == 'd' || first == 'c') && wordEnds ? pos + 2 : end;
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
     }
     
-    protected String extractDate(String text, String[] patterns) {
-        for (String pattern : patterns) {
-            Pattern datePattern = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
-            java.util.regex.Matcher matcher = datePattern.matcher(text);
+    protected String extractDate(ParseContext context, CharSequence text, List<Pattern> patterns) {
+        for (Pattern datePattern : patterns) {
+            GuardedMatcher matcher = context.matcher(datePattern, text);
             if (matcher.find()) {
                 return matcher.group(0);
             }
@@ -52,18 +166,23 @@ public abstract class StatementParser {
         return "N/A";
     }
     
-    protected String extractBalance(String text, String[] keywords) {
+    /** Patterns for {@link #extractBalance}: each keyword followed by an optional separator and an amount. */
+    protected static List<Pattern> balancePatterns(PatternCatalog.Issuer catalog, String... keywords) {
+        List<Pattern> patterns = new ArrayList<>();
         for (String keyword : keywords) {
-            Pattern balancePattern = Pattern.compile(
-                keyword + "\\s*[:\\.]?\\s*\\$?([\\d,]+(?:\\.[\\d]{2})?)",
-                Pattern.CASE_INSENSITIVE
-            );
-            java.util.regex.Matcher matcher = balancePattern.matcher(text);
+            patterns.add(catalog.compile(keyword + "\\s*[:\\.]?\\s*\\$?([\\d,]+(?:\\.[\\d]{2})?)", Pattern.CASE_INSENSITIVE));
+        }
+        return List.copyOf(patterns);
+    }
+    
+    /** Paise of the first amount the patterns find, or {@link StatementData#NO_AMOUNT}. */
+    protected long extractBalance(ParseContext context, CharSequence text, List<Pattern> patterns) {
+        for (Pattern balancePattern : patterns) {
+            GuardedMatcher matcher = context.matcher(balancePattern, text);
             if (matcher.find()) {
-                return "$" + matcher.group(1);
+                return Amount.parse(text, matcher.start(1), matcher.end(1));
             }
         }
-        return "N/A";
+        return StatementData.NO_AMOUNT;
     }
 }
-
@@ -0,0 +1,42 @@
+package com.demo.parser;
+
+import com.demo.pdf.FieldExtractor;
+import com.demo.pdf.PatternFieldExtractor;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Line detectors for the statement summary block: card number, due date,
+ * amount due and statement period. They are deliberately loose; a field that
+ * is never detected only means the whole document gets extracted.
+ */
+public final class SummaryFields {
+
+    private static final PatternCatalog.Issuer PATTERNS = PatternCatalog.issuer("Summary");
+    private static final Pattern CARD_NUMBER = PATTERNS.compile(
+            "(?:\\d|[xX*]){4}[\\s-]?(?:\\d|[xX*]){2,4}[\\s-]?(?:[xX*]){2,8}[\\s-]?(?:[xX*]){0,4}[\\s-]?\\d{4}");
+    private static final Pattern DUE_DATE = PATTERNS.compile(
+            "(?:due\\s+date|pay\\s+by|payment\\s+due).*\\d{1,2}[/-](?:\\d{1,2}|[a-z]{3})[/-]\\d{2,4}|"
+            + "(?:due\\s+date|pay\\s+by|payment\\s+due).*[a-z]+\\s+\\d{1,2},\\s+\\d{4}",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern AMOUNT_DUE = PATTERNS.compile(
+            "(?:total\\s+amount\\s+due|total\\s+dues?|total\\s+payment\\s+due|amount\\s+due|outstanding).*\\d[\\d,]*",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern PERIOD = PATTERNS.compile(
+            "(?:statement\\s+period|billing\\s+period|statement\\s+date|period).*\\d{1,2}[/-](?:\\d{1,2}|[a-z]{3})[/-]\\d{2,4}|"
+            + "statement\\s+date.*[a-z]+\\s+\\d{1,2},\\s+\\d{4}",
+            Pattern.CASE_INSENSITIVE);
+
+    private SummaryFields() {
+    }
+
+    /** A fresh set of extractors; they are stateful and belong to one extraction. */
+    public static List<FieldExtractor> create() {
+        return List.of(
+                new PatternFieldExtractor("cardNumber", CARD_NUMBER),
+                new PatternFieldExtractor("paymentDueDate", DUE_DATE),
+                new PatternFieldExtractor("totalBalance", AMOUNT_DUE),
+                new PatternFieldExtractor("statementPeriod", PERIOD));
+    }
+}
@@ -0,0 +1,85 @@
+package com.demo.pdf;
+
+import com.demo.text.Deadline;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadView;
+
+import java.io.IOException;
+
+/**
+ * PDF bytes that stop being readable once the parse's {@link Deadline} has
+ * passed. PDFBox reads the file while it loads the document and again as
+ * objects are parsed on demand, so checking here, every {@value #CHECK_INTERVAL}
+ * reads, bounds time spent on a malformed file that sends the parser
+ * scanning for objects.
+ */
+final class DeadlineRead implements RandomAccessRead {
+
+    static final int CHECK_INTERVAL = 64 * 1024;
+
+    private final RandomAccessRead read;
+    private final Deadline deadline;
+    private int reads;
+
+    DeadlineRead(RandomAccessRead read, Deadline deadline) {
+        this.read = read;
+        this.deadline = deadline;
+    }
+
+    private void count(int n) {
+        reads += n;
+        if (reads >= CHECK_INTERVAL) {
+            reads = 0;
+            deadline.check();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        count(1);
+        return read.read();
+    }
+
+    @Override
+    public int read(byte[] b, int offset, int length) throws IOException {
+        count(length);
+        return read.read(b, offset, length);
+    }
+
+    @Override
+    public long getPosition() throws IOException {
+        return read.getPosition();
+    }
+
+    @Override
+    public void seek(long position) throws IOException {
+        count(1);
+        read.seek(position);
+    }
+
+    @Override
+    public long length() throws IOException {
+        return read.length();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return read.isClosed();
+    }
+
+    @Override
+    public boolean isEOF() throws IOException {
+        return read.isEOF();
+    }
+
+    @Override
+    public RandomAccessReadView createView(long startPosition, long streamLength) throws IOException {
+        return new RandomAccessReadView(new DeadlineRead(read.createView(startPosition, streamLength), deadline),
+                0, streamLength, true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        read.close();
+    }
+}
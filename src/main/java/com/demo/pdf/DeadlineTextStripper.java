@@ -0,0 +1,43 @@
+package com.demo.pdf;
+
+import com.demo.text.Deadline;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Text stripper that checks the parse's {@link Deadline} before every page
+ * and every {@value #CHECK_INTERVAL} content-stream operators, so neither a
+ * long document nor one page with an enormous content stream can run on
+ * past it.
+ */
+public class DeadlineTextStripper extends PDFTextStripper {
+
+    static final int CHECK_INTERVAL = 4096;
+
+    private final Deadline deadline;
+    private int operators;
+
+    public DeadlineTextStripper(Deadline deadline) {
+        this.deadline = deadline;
+    }
+
+    @Override
+    public void processPage(PDPage page) throws IOException {
+        deadline.check();
+        super.processPage(page);
+    }
+
+    @Override
+    protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+        if (++operators == CHECK_INTERVAL) {
+            operators = 0;
+            deadline.check();
+        }
+        super.processOperator(operator, operands);
+    }
+}
@@ -0,0 +1,15 @@
+package com.demo.pdf;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.IOException;
+
+/**
+ * Opens an independent handle on an already-validated document. PDDocument is
+ * not thread-safe, so every extraction worker strips pages from its own handle.
+ */
+@FunctionalInterface
+public interface DocumentOpener {
+
+    PDDocument open() throws IOException;
+}
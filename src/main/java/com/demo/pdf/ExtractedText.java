@@ -0,0 +1,28 @@
+package com.demo.pdf;
+
+/**
+ * Text extracted from one statement, with the length of the leading part that
+ * issuer detection looked at.
+ */
+public final class ExtractedText {
+
+    private final String text;
+    private final int headerLength;
+
+    public ExtractedText(String text, int headerLength) {
+        this.text = text;
+        this.headerLength = headerLength;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getHeaderText() {
+        return text.substring(0, headerLength);
+    }
+
+    public int getHeaderLength() {
+        return headerLength;
+    }
+}
@@ -0,0 +1,197 @@
+package com.demo.pdf;
+
+import com.demo.config.ParserProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only file of deflate-compressed extracted text, so statements already
+ * seen are not decrypted and stripped again after a restart.
+ * <p>
+ * Each record is a fixed 48-byte header (magic, SHA-256 of the key, header
+ * length, raw and compressed sizes) followed by the compressed UTF-8 text.
+ * The record index is rebuilt in memory on startup by walking the headers, and
+ * a lookup maps just that record's bytes. A torn record at the end of the file
+ * (crash during append) is truncated away on startup.
+ * <p>
+ * Keys are the same document-plus-password keys the result cache uses, so
+ * stored text is only served to callers that know the PDF password.
+ */
+@Component
+@ConditionalOnProperty(prefix = "parser.text-store", name = "enabled", havingValue = "true")
+public class ExtractedTextStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ExtractedTextStore.class);
+
+    private static final int MAGIC = 0x54585431; // "TXT1"
+    private static final int RECORD_HEADER_SIZE = 4 + 32 + 4 + 4 + 4;
+
+    private final FileChannel channel;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ExtractedTextStore(ParserProperties properties) throws IOException {
+        this(Path.of(properties.getTextStore().getDirectory()));
+    }
+
+    public ExtractedTextStore(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.channel = FileChannel.open(directory.resolve("texts.dat"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        loadIndex();
+    }
+
+    private void loadIndex() throws IOException {
+        long size = channel.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        byte[] keyHash = new byte[32];
+        while (offset + RECORD_HEADER_SIZE <= size) {
+            header.clear();
+            channel.read(header, offset);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                break;
+            }
+            header.get(keyHash);
+            int headerLength = header.getInt();
+            int rawLength = header.getInt();
+            int compressedLength = header.getInt();
+            long payload = offset + RECORD_HEADER_SIZE;
+            if (compressedLength < 0 || payload + compressedLength > size) {
+                break;
+            }
+            index.put(HexFormat.of().formatHex(keyHash),
+                      new Entry(payload, compressedLength, rawLength, headerLength));
+            offset = payload + compressedLength;
+        }
+        if (offset < size) {
+            log.warn("Truncating {} bytes of incomplete records from the extracted-text store", size - offset);
+            channel.truncate(offset);
+        }
+    }
+
+    public ExtractedText get(String key) throws IOException {
+        Entry entry = index.get(hash(key));
+        return entry == null ? null : read(entry);
+    }
+
+    public void put(String key, ExtractedText text) throws IOException {
+        String keyHash = hash(key);
+        if (index.containsKey(keyHash)) {
+            return;
+        }
+        byte[] raw = text.getText().getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = deflate(raw);
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + compressed.length);
+        record.putInt(MAGIC)
+              .put(HexFormat.of().parseHex(keyHash))
+              .putInt(text.getHeaderLength())
+              .putInt(raw.length)
+              .putInt(compressed.length)
+              .put(compressed)
+              .flip();
+
+        synchronized (channel) {
+            if (index.containsKey(keyHash)) {
+                return;
+            }
+            long offset = channel.size();
+            long position = offset;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            index.put(keyHash, new Entry(offset + RECORD_HEADER_SIZE, compressed.length, raw.length,
+                                         text.getHeaderLength()));
+        }
+    }
+
+    /** Visits every stored text; used to re-run parsers without the original PDFs. */
+    public void forEach(BiConsumer<String, ExtractedText> visitor) throws IOException {
+        for (Map.Entry<String, Entry> stored : index.entrySet()) {
+            visitor.accept(stored.getKey(), read(stored.getValue()));
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private ExtractedText read(Entry entry) throws IOException {
+        MappedByteBuffer compressed = channel.map(FileChannel.MapMode.READ_ONLY, entry.offset, entry.compressedLength);
+        byte[] raw = new byte[entry.rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                read += inflater.inflate(raw, read, raw.length - read);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt record in extracted-text store", e);
+        } finally {
+            inflater.end();
+        }
+        return new ExtractedText(new String(raw, StandardCharsets.UTF_8), entry.headerLength);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String hash(String key) {
+        return HexFormat.of().formatHex(PdfSource.sha256().digest(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static final class Entry {
+        final long offset;
+        final int compressedLength;
+        final int rawLength;
+        final int headerLength;
+
+        Entry(long offset, int compressedLength, int rawLength, int headerLength) {
+            this.offset = offset;
+            this.compressedLength = compressedLength;
+            this.rawLength = rawLength;
+            this.headerLength = headerLength;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.demo.pdf;
+
+/**
+ * Watches extracted lines for one statement field. Streaming extraction stops
+ * once every registered extractor reports it is complete.
+ */
+public interface FieldExtractor {
+
+    void offer(String line);
+
+    boolean isComplete();
+}
@@ -0,0 +1,32 @@
+package com.demo.pdf;
+
+import java.util.regex.Pattern;
+
+/** A field that is complete as soon as one extracted line matches its pattern. */
+public class PatternFieldExtractor implements FieldExtractor {
+
+    private final String name;
+    private final Pattern pattern;
+    private boolean complete;
+
+    public PatternFieldExtractor(String name, Pattern pattern) {
+        this.name = name;
+        this.pattern = pattern;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void offer(String line) {
+        if (!complete && pattern.matcher(line).find()) {
+            complete = true;
+        }
+    }
+
+    @Override
+    public boolean isComplete() {
+        return complete;
+    }
+}
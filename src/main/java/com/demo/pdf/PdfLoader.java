@@ -0,0 +1,38 @@
+package com.demo.pdf;
+
+import com.demo.text.Deadline;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.IOException;
+
+/**
+ * Opens {@link PdfSource}s with PDFBox. Documents are read straight from the
+ * spooled file (memory-mapped or buffered) and PDFBox scratch buffers are held
+ * in memory only up to a fixed size before spilling to temp files.
+ */
+public class PdfLoader {
+
+    private final boolean memoryMapped;
+    private final StreamCacheCreateFunction streamCache;
+
+    public PdfLoader(boolean memoryMapped, long maxMainMemoryBytes) {
+        this.memoryMapped = memoryMapped;
+        this.streamCache = MemoryUsageSetting.setupMixed(maxMainMemoryBytes).streamCache;
+    }
+
+    /** Loads the document with every read of the file checking {@code deadline}. */
+    public PDDocument load(PdfSource source, String password, Deadline deadline) throws IOException {
+        RandomAccessRead read = new DeadlineRead(source.openRead(memoryMapped), deadline);
+        try {
+            return Loader.loadPDF(read, password, null, null, streamCache);
+        } catch (IOException | RuntimeException e) {
+            // includes DeadlineExceededException, which must not leave the file open
+            read.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.demo.pdf;
+
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.io.RandomAccessReadMemoryMappedFile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A statement PDF on local disk. Uploads are spooled to a temp file once and
+ * every PDFBox handle reads from that file, so heap use per request does not
+ * grow with the document size. Spooled files are deleted on {@link #close()};
+ * files passed to {@link #of(Path)} are left alone.
+ * <p>
+ * The SHA-256 of the content is computed while spooling and identifies the
+ * document in caches.
+ */
+public final class PdfSource implements Closeable {
+
+    private final Path path;
+    private final boolean temporary;
+    private String contentHash;
+
+    private PdfSource(Path path, boolean temporary, String contentHash) {
+        this.path = path;
+        this.temporary = temporary;
+        this.contentHash = contentHash;
+    }
+
+    public static PdfSource spool(InputStream pdfStream) throws IOException {
+        Path file = Files.createTempFile("statement-", ".pdf");
+        MessageDigest digest = sha256();
+        try {
+            Files.copy(new DigestInputStream(pdfStream, digest), file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new PdfSource(file, true, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    public static PdfSource of(Path file) {
+        return new PdfSource(file, false, null);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long size() throws IOException {
+        return Files.size(path);
+    }
+
+    /** Hex SHA-256 of the file content. */
+    public String getContentHash() throws IOException {
+        if (contentHash == null) {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(openStream(), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            contentHash = HexFormat.of().formatHex(digest.digest());
+        }
+        return contentHash;
+    }
+
+    /** Identifies this document opened with the given password, without revealing the password. */
+    public String keyFor(String password) throws IOException {
+        byte[] passwordHash = sha256().digest((password == null ? "" : password).getBytes(StandardCharsets.UTF_8));
+        return getContentHash() + ":" + HexFormat.of().formatHex(passwordHash);
+    }
+
+    public InputStream openStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    RandomAccessRead openRead(boolean memoryMapped) throws IOException {
+        return memoryMapped ? new RandomAccessReadMemoryMappedFile(path) : new RandomAccessReadBufferedFile(path);
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (temporary) {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.demo.pdf;
+
+import com.demo.config.ParserProperties;
+import com.demo.text.Deadline;
+import com.demo.text.DeadlineExceededException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Strips text from a page range, splitting long ranges into contiguous chunks
+ * that are extracted concurrently and stitched back together in page order.
+ * <p>
+ * The calling thread strips the first chunk from the document it already holds;
+ * every other chunk is stripped on a worker from its own {@link DocumentOpener}
+ * handle. Ranges shorter than the parallel threshold never leave the caller.
+ * Every chunk checks the request's {@link Deadline} page by page, and once one
+ * fails the others are cancelled rather than waited for.
+ */
+@Component
+public class PdfTextExtractor implements AutoCloseable {
+
+    private final int parallelThreshold;
+    private final int parallelism;
+    private final int minPagesPerChunk;
+    private ExecutorService workers;
+
+    @Autowired
+    public PdfTextExtractor(ParserProperties properties) {
+        this(properties.getExtraction().getParallelThreshold(),
+             properties.getExtraction().getParallelism(),
+             properties.getExtraction().getMinPagesPerChunk());
+    }
+
+    public PdfTextExtractor(int parallelThreshold, int parallelism, int minPagesPerChunk) {
+        this.parallelThreshold = parallelThreshold;
+        this.parallelism = Math.max(1, parallelism);
+        this.minPagesPerChunk = Math.max(1, minPagesPerChunk);
+    }
+
+    /** An extractor that always strips on the calling thread. */
+    public static PdfTextExtractor sequential() {
+        return new PdfTextExtractor(Integer.MAX_VALUE, 1, 1);
+    }
+
+    public String extract(PDDocument document, int startPage, int endPage, DocumentOpener opener,
+                          Deadline deadline) throws IOException {
+        int pageCount = endPage - startPage + 1;
+        if (pageCount <= 0) {
+            return "";
+        }
+        int chunks = Math.min(parallelism, pageCount / minPagesPerChunk);
+        if (pageCount < parallelThreshold || chunks < 2) {
+            return strip(document, startPage, endPage, deadline);
+        }
+
+        int chunkSize = (pageCount + chunks - 1) / chunks;
+        List<Future<String>> parts = new ArrayList<>(chunks);
+        for (int chunkStart = startPage + chunkSize; chunkStart <= endPage; chunkStart += chunkSize) {
+            int from = chunkStart;
+            int to = Math.min(endPage, chunkStart + chunkSize - 1);
+            parts.add(workers().submit(() -> {
+                try (PDDocument handle = opener.open()) {
+                    return strip(handle, from, to, deadline);
+                }
+            }));
+        }
+
+        try {
+            StringBuilder text = new StringBuilder(strip(document, startPage, startPage + chunkSize - 1, deadline));
+            for (Future<String> part : parts) {
+                text.append(part.get());
+            }
+            return text.toString();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while extracting PDF text");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof DeadlineExceededException deadlineExceeded) {
+                throw deadlineExceeded;
+            }
+            throw new IOException("Error extracting PDF text: " + cause.getMessage(), cause);
+        } finally {
+            for (Future<String> part : parts) {
+                part.cancel(true);
+            }
+        }
+    }
+
+    private static String strip(PDDocument document, int startPage, int endPage, Deadline deadline)
+            throws IOException {
+        PDFTextStripper stripper = new DeadlineTextStripper(deadline);
+        stripper.setStartPage(startPage);
+        stripper.setEndPage(endPage);
+        return stripper.getText(document);
+    }
+
+    private synchronized ExecutorService workers() {
+        if (workers == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, "pdf-extract-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return workers;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.demo.pdf;
+
+import com.demo.text.Deadline;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+/**
+ * Text stripper that hands each finished page, line by line, to a set of
+ * {@link FieldExtractor}s and skips every page after the one on which the last
+ * extractor completed.
+ */
+public class StreamingTextStripper extends DeadlineTextStripper {
+
+    private final List<? extends FieldExtractor> extractors;
+    private StringWriter buffer;
+    private int pageStart;
+    private boolean satisfied;
+
+    public StreamingTextStripper(List<? extends FieldExtractor> extractors, Deadline deadline) {
+        super(deadline);
+        this.extractors = extractors;
+        this.satisfied = allComplete();
+    }
+
+    /** Extracts pages from the configured start page until every field is found. */
+    public String stream(PDDocument document) throws IOException {
+        buffer = new StringWriter();
+        pageStart = 0;
+        writeText(document, buffer);
+        return buffer.toString();
+    }
+
+    public boolean isSatisfied() {
+        return satisfied;
+    }
+
+    @Override
+    public void processPage(PDPage page) throws IOException {
+        if (!satisfied) {
+            super.processPage(page);
+        }
+    }
+
+    @Override
+    protected void endPage(PDPage page) throws IOException {
+        super.endPage(page);
+        StringBuffer written = buffer.getBuffer();
+        String pageText = written.substring(pageStart);
+        pageStart = written.length();
+        for (String line : pageText.split("\\R")) {
+            for (FieldExtractor extractor : extractors) {
+                extractor.offer(line);
+            }
+        }
+        satisfied = allComplete();
+    }
+
+    private boolean allComplete() {
+        for (FieldExtractor extractor : extractors) {
+            if (!extractor.isComplete()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,107 @@
+package com.demo.service;
+
+import com.demo.config.ParserProperties;
+import com.demo.model.StatementData;
+import com.demo.pdf.PdfSource;
+import com.demo.text.Deadline;
+import com.demo.text.DeadlineExceededException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses statements on a dedicated pool of parse workers, so callers such as
+ * servlet request threads hand off the CPU-bound decrypt and parse and are
+ * free again at once. The pool has a fixed number of workers and a bounded
+ * queue; a statement submitted while the queue is full fails straight away
+ * with a {@link RejectedExecutionException} instead of waiting.
+ */
+@Service
+public class AsyncStatementParser implements AutoCloseable {
+
+    private final StatementParserService parserService;
+    private final ThreadPoolExecutor workers;
+
+    @Autowired
+    public AsyncStatementParser(StatementParserService parserService, ParserProperties properties) {
+        this(parserService, properties.getAsync().getWorkers(), properties.getAsync().getQueueCapacity());
+    }
+
+    public AsyncStatementParser(StatementParserService parserService, int workers, int queueCapacity) {
+        this.parserService = parserService;
+        int threads = Math.max(1, workers);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "statement-parse-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Parses the statement on a parse worker and closes {@code source} once
+     * it is done. Parse failures complete the future exceptionally with the
+     * {@link IOException}, or the {@link DeadlineExceededException} of a
+     * parse that ran out of time, wrapped in a {@link CompletionException}.
+     * Cancelling the future stops the parse at its next deadline check, even
+     * while it is still waiting in the queue, in which case the source is
+     * closed by the cancellation instead.
+     */
+    public CompletableFuture<StatementData> parse(PdfSource source, String password, boolean summaryOnly) {
+        Deadline deadline = parserService.newDeadline();
+        AtomicBoolean claimed = new AtomicBoolean();
+        CompletableFuture<StatementData> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    // cancelled while queued; the cancellation has closed the source
+                    return null;
+                }
+                try (source) {
+                    return summaryOnly
+                            ? parserService.parseSummary(source, password, deadline)
+                            : parserService.parseStatement(source, password, deadline);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, workers);
+        } catch (RejectedExecutionException e) {
+            closeQuietly(source);
+            return CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((data, error) -> {
+            if (error instanceof CancellationException) {
+                deadline.cancel();
+                if (claimed.compareAndSet(false, true)) {
+                    // CompletableFuture skips the supplier of a future cancelled before it runs
+                    closeQuietly(source);
+                }
+            }
+        });
+        return result;
+    }
+
+    private static void closeQuietly(PdfSource source) {
+        try {
+            source.close();
+        } catch (IOException ignored) {
+            // only a temp file left behind
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,60 @@
+package com.demo.service;
+
+import com.demo.model.StatementData;
+
+/**
+ * The outcome of one {@link ParseRequest} in a batch: the parsed statement,
+ * or the exception that parsing it threw. A failed statement does not stop
+ * the rest of the batch.
+ */
+public final class BatchResult {
+
+    private final int index;
+    private final String name;
+    private final StatementData data;
+    private final Exception error;
+
+    private BatchResult(int index, String name, StatementData data, Exception error) {
+        this.index = index;
+        this.name = name;
+        this.data = data;
+        this.error = error;
+    }
+
+    static BatchResult success(int index, String name, StatementData data) {
+        return new BatchResult(index, name, data, null);
+    }
+
+    static BatchResult failure(int index, String name, Exception error) {
+        return new BatchResult(index, name, null, error);
+    }
+
+    /** Position of the request in the batch, from 0. */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /** The parsed statement, or {@code null} if parsing failed. */
+    public StatementData getData() {
+        return data;
+    }
+
+    /** Why parsing failed, or {@code null} if it succeeded. */
+    public Exception getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult(index=" + index + ", name=" + name
+                + (error == null ? ", data=" + data : ", error=" + error) + ")";
+    }
+}
@@ -0,0 +1,80 @@
+package com.demo.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+
+/**
+ * Writes batch results as newline-delimited JSON, one line per statement:
+ * {@code {"index":0,"name":"a.pdf","success":true,"statement":{...}}} or
+ * {@code {"index":1,"name":"b.pdf","success":false,"error":"..."}}.
+ * <p>
+ * Lines are buffered rather than flushed one by one, so a burst of small
+ * results goes out in one chunk. The buffer is sent when it fills, when a
+ * line is written more than {@code maxFlushDelay} after the last flush, and
+ * whenever the caller {@link #flush() flushes} before waiting for more
+ * results. Writes block while the client is slow to read, which holds the
+ * batch back instead of queueing output in memory.
+ */
+public final class NdjsonResults {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private final OutputStream out;
+    private final JsonGenerator json;
+    private final long maxFlushDelayNanos;
+    private long lastFlush = System.nanoTime();
+
+    public NdjsonResults(ObjectMapper mapper, OutputStream out, int bufferSize, Duration maxFlushDelay) throws IOException {
+        this.out = new BufferedOutputStream(out, bufferSize);
+        this.json = mapper.createGenerator(this.out);
+        // json.flush() only empties the generator into our buffer; flush() decides when the client sees it
+        this.json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        this.json.setPrettyPrinter(new MinimalPrettyPrinter(""));
+        this.maxFlushDelayNanos = maxFlushDelay.toNanos();
+    }
+
+    public void write(BatchResult result) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("index", result.getIndex());
+        json.writeStringField("name", result.getName());
+        json.writeBooleanField("success", result.isSuccess());
+        if (result.isSuccess()) {
+            json.writeObjectField("statement", result.getData());
+        } else {
+            json.writeStringField("error", ParseErrors.message(result.getError()));
+        }
+        json.writeEndObject();
+        endLine();
+    }
+
+    /** A last line for a failure of the batch as a whole, such as an unreadable archive. */
+    public void writeFailure(String message) throws IOException {
+        json.writeStartObject();
+        json.writeBooleanField("success", false);
+        json.writeStringField("error", message);
+        json.writeEndObject();
+        endLine();
+        flush();
+    }
+
+    /** Sends every line written so far to the client. */
+    public void flush() throws IOException {
+        json.flush();
+        out.flush();
+        lastFlush = System.nanoTime();
+    }
+
+    private void endLine() throws IOException {
+        json.writeRaw('\n');
+        json.flush();
+        if (System.nanoTime() - lastFlush >= maxFlushDelayNanos) {
+            flush();
+        }
+    }
+}
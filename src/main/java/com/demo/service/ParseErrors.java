@@ -0,0 +1,28 @@
+package com.demo.service;
+
+import com.demo.text.DeadlineExceededException;
+import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
+
+import java.io.IOException;
+
+/** The messages API and batch clients see for statements that could not be parsed. */
+public final class ParseErrors {
+
+    public static final String WRONG_PASSWORD = "Incorrect PDF password. Please enter the correct password to unlock the PDF.";
+
+    private ParseErrors() {
+    }
+
+    public static String message(Exception error) {
+        if (error instanceof InvalidPasswordException || error.getCause() instanceof InvalidPasswordException) {
+            return WRONG_PASSWORD;
+        }
+        if (error instanceof DeadlineExceededException) {
+            return error.getMessage();
+        }
+        if (error instanceof IOException) {
+            return "Error parsing PDF: " + error.getMessage();
+        }
+        return "Unexpected error: " + error.getMessage();
+    }
+}
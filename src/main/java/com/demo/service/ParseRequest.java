@@ -0,0 +1,59 @@
+package com.demo.service;
+
+import com.demo.pdf.PdfSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * One statement of a batch: a name to report results under, how to get the
+ * PDF, and its password. The PDF is only opened when a worker picks the
+ * request up, so a batch of thousands of files holds none of them open
+ * while it waits.
+ */
+public final class ParseRequest {
+
+    /** Opens the statement PDF; the batch closes what it returns. */
+    @FunctionalInterface
+    public interface SourceOpener {
+        PdfSource open() throws IOException;
+    }
+
+    private final String name;
+    private final SourceOpener source;
+    private final String password;
+
+    public ParseRequest(String name, SourceOpener source, String password) {
+        this.name = name;
+        this.source = source;
+        this.password = password;
+    }
+
+    /** A statement already on local disk, read in place. */
+    public static ParseRequest of(Path file, String password) {
+        return new ParseRequest(file.toString(), () -> PdfSource.of(file), password);
+    }
+
+    /** A statement held in memory, spooled to a temp file when it is parsed. */
+    public static ParseRequest of(String name, byte[] pdf, String password) {
+        return new ParseRequest(name, () -> PdfSource.spool(new ByteArrayInputStream(pdf)), password);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    PdfSource open() throws IOException {
+        return source.open();
+    }
+
+    @Override
+    public String toString() {
+        return "ParseRequest(name=" + name + ")";
+    }
+}
@@ -0,0 +1,87 @@
+package com.demo.service;
+
+import com.demo.config.ParserProperties;
+import com.demo.model.StatementData;
+import com.demo.pdf.PdfSource;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parsed statements keyed by the SHA-256 of the PDF plus the SHA-256 of the
+ * password, so a re-upload of the same statement skips PDFBox entirely while
+ * a wrong password still has to go through decryption. Entries are bounded by
+ * their approximate heap size, so a few statements with thousands of
+ * transaction lines cannot crowd out memory, expire after a fixed time, and
+ * are evicted by Caffeine's frequency-aware (W-TinyLFU) policy.
+ * <p>
+ * Callers get their own copy of a cached statement and the cache keeps its
+ * own copy of a stored one, so changing a result never reaches other callers.
+ */
+@Component
+public class ParseResultCache {
+
+    /** Rough heap of a {@link StatementData} without its transaction lines. */
+    private static final int BASE_BYTES = 160;
+
+    private final Cache<String, StatementData> cache;
+    private final boolean enabled;
+
+    @Autowired
+    public ParseResultCache(ParserProperties properties) {
+        this(properties.getCache().isEnabled() ? properties.getCache().getMaxSize().toBytes() : 0,
+             properties.getCache().getTtl());
+    }
+
+    /** A {@code maxBytes} of 0 caches nothing. */
+    public ParseResultCache(long maxBytes, Duration ttl) {
+        this.enabled = maxBytes > 0;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher(ParseResultCache::weigh)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    private static int weigh(String key, StatementData data) {
+        long bytes = BASE_BYTES + 2L * key.length() + data.getTransactions().estimatedBytes()
+                + (data.getCardVariant() == null ? 0 : 48 + data.getCardVariant().length());
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    public String key(PdfSource source, String password) throws IOException {
+        return source.keyFor(password);
+    }
+
+    public StatementData get(String key) {
+        StatementData cached = cache.getIfPresent(key);
+        return cached == null ? null : cached.copy();
+    }
+
+    public void put(String key, StatementData data) {
+        if (enabled) {
+            cache.put(key, data.copy());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        cache.policy().eviction().ifPresent(eviction ->
+                eviction.weightedSize().ifPresent(bytes -> result.put("estimatedBytes", bytes)));
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("evictions", stats.evictionCount());
+        result.put("hitRate", stats.hitRate());
+        return result;
+    }
+}
@@ -0,0 +1,150 @@
+package com.demo.service;
+
+import com.demo.config.ParserProperties;
+import com.demo.pdf.PdfSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Parses many statements at once on a fixed pool of workers. Each batch keeps
+ * at most {@code maxInFlight} statements submitted ahead of the workers, so a
+ * batch of tens of thousands of files is read lazily from its iterable rather
+ * than queued up front. A statement that fails to parse is reported as a
+ * failed {@link BatchResult} and the rest of the batch carries on.
+ */
+@Service
+public class StatementBatchService implements AutoCloseable {
+
+    private final StatementParserService parserService;
+    private final int parallelism;
+    private final int maxInFlight;
+    private ExecutorService workers;
+
+    @Autowired
+    public StatementBatchService(StatementParserService parserService, ParserProperties properties) {
+        this(parserService, properties.getBatch().getParallelism(), properties.getBatch().getMaxInFlight());
+    }
+
+    public StatementBatchService(StatementParserService parserService, int parallelism, int maxInFlight) {
+        this.parserService = parserService;
+        this.parallelism = Math.max(1, parallelism);
+        this.maxInFlight = Math.max(this.parallelism, maxInFlight);
+    }
+
+    /** Parses every request and returns the results in request order. */
+    public List<BatchResult> parseAll(List<ParseRequest> requests) throws InterruptedException {
+        BatchResult[] results = new BatchResult[requests.size()];
+        parseAll(requests, result -> results[result.getIndex()] = result);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Parses every request, handing each result to {@code results} as soon as
+     * it completes, so in completion order rather than request order. The
+     * consumer runs on the calling thread and needs no synchronization. If it
+     * throws, or the caller is interrupted, statements still in flight are
+     * cancelled.
+     */
+    public void parseAll(Iterable<ParseRequest> requests, Consumer<BatchResult> results) throws InterruptedException {
+        parseAll(requests, results, () -> { });
+    }
+
+    /**
+     * Like {@link #parseAll(Iterable, Consumer)}, also running {@code whenIdle}
+     * on the calling thread each time every completed result has been handed
+     * over and the batch is about to wait for more, such as to flush output
+     * the consumer has buffered. A consumer that blocks, for example on a slow
+     * client, holds back new submissions, so at most {@code maxInFlight}
+     * statements and their results are held however large the batch.
+     */
+    public void parseAll(Iterable<ParseRequest> requests, Consumer<BatchResult> results, Runnable whenIdle)
+            throws InterruptedException {
+        CompletionService<BatchResult> completions = new ExecutorCompletionService<>(workers());
+        Set<Future<BatchResult>> pending = new HashSet<>();
+        try {
+            int index = 0;
+            for (ParseRequest request : requests) {
+                for (Future<BatchResult> done = completions.poll(); done != null; done = completions.poll()) {
+                    deliver(done, pending, results);
+                }
+                if (pending.size() >= maxInFlight) {
+                    deliver(awaitNext(completions, whenIdle), pending, results);
+                }
+                int position = index++;
+                pending.add(completions.submit(() -> parseOne(position, request)));
+            }
+            while (!pending.isEmpty()) {
+                deliver(awaitNext(completions, whenIdle), pending, results);
+            }
+        } finally {
+            for (Future<BatchResult> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static Future<BatchResult> awaitNext(CompletionService<BatchResult> completions, Runnable whenIdle)
+            throws InterruptedException {
+        Future<BatchResult> done = completions.poll();
+        if (done == null) {
+            whenIdle.run();
+            done = completions.take();
+        }
+        return done;
+    }
+
+    private BatchResult parseOne(int index, ParseRequest request) {
+        try (PdfSource source = request.open()) {
+            return BatchResult.success(index, request.getName(),
+                    parserService.parseStatement(source, request.getPassword()));
+        } catch (Exception e) {
+            return BatchResult.failure(index, request.getName(), e);
+        }
+    }
+
+    private static void deliver(Future<BatchResult> done, Set<Future<BatchResult>> pending,
+                                Consumer<BatchResult> results) throws InterruptedException {
+        pending.remove(done);
+        try {
+            results.accept(done.get());
+        } catch (ExecutionException e) {
+            // parseOne catches every Exception, so only an Error gets here
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private synchronized ExecutorService workers() {
+        if (workers == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, "statement-batch-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return workers;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package com.demo.service;
+
+import com.demo.config.ParserProperties;
+import com.demo.model.StatementData;
+import com.demo.pdf.PdfSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Headless ingestion of statement PDFs dropped into a watched directory,
+ * in three stages:
+ * <ol>
+ *   <li>A watcher thread scans the inbox, oldest file first, whenever the
+ *   {@link WatchService} reports a change and at least every
+ *   {@code pollInterval}. It claims a file by moving it atomically into the
+ *   inbox's {@value #PROCESSING} directory under a name no other claim has,
+ *   so a file is never parsed twice, a half-claimed file cannot exist, and
+ *   a file dropped again while the first one of that name is being parsed
+ *   is claimed and parsed separately. Results and failures keep the name
+ *   the file was dropped with.</li>
+ *   <li>A fixed pool of workers parses the claimed files with
+ *   {@link StatementParserService}.</li>
+ *   <li>The worker writes the statement as JSON to {@code results} and
+ *   deletes the PDF, or moves it to {@code processed} when that is set. A PDF
+ *   that fails to parse is moved to {@code failed} with a {@code .error.txt}
+ *   beside it.</li>
+ * </ol>
+ * At most {@code parallelism + queueCapacity} files are claimed at a time;
+ * the rest wait in the inbox, where they count as backlog. Files left in
+ * {@value #PROCESSING} by a previous run are parsed from there first, so
+ * they never replace a newer inbox file of the same name.
+ * <p>
+ * Throughput and backlog are logged and written to {@code statsFile} every
+ * {@code statsInterval} and on shutdown, as the headless profile has no web
+ * server to answer {@code /stats/ingest}.
+ */
+@Service
+@ConditionalOnProperty(prefix = "parser.ingest", name = "enabled", havingValue = "true")
+public class StatementIngester implements ApplicationRunner, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementIngester.class);
+
+    static final String PROCESSING = ".processing";
+    /** What {@link #claim} puts ahead of a file's name: this run's start time, a sequence number and a tilde. */
+    private static final Pattern CLAIM_PREFIX = Pattern.compile("^\\d+-\\d+~");
+
+    private final StatementParserService parserService;
+    private final ObjectMapper objectMapper;
+    private final ParserProperties.Ingest settings;
+    private final Path processing;
+    private final Semaphore claims;
+    private final int maxClaimed;
+    private final ExecutorService workers;
+    private final Throughput throughput = new Throughput();
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong claimSequence = new AtomicLong();
+    private final long runId = System.currentTimeMillis();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong parseNanos = new AtomicLong();
+    private final long startedAt = System.nanoTime();
+    private Properties passwords = new Properties();
+    private FileTime passwordsModified;
+    private boolean settling;
+    private volatile boolean running;
+    private Thread watcher;
+
+    @Autowired
+    public StatementIngester(StatementParserService parserService, ObjectMapper objectMapper,
+                             ParserProperties properties) {
+        this(parserService, objectMapper, properties.getIngest());
+    }
+
+    public StatementIngester(StatementParserService parserService, ObjectMapper objectMapper,
+                             ParserProperties.Ingest settings) {
+        this.parserService = parserService;
+        this.objectMapper = objectMapper;
+        this.settings = settings;
+        this.processing = settings.getInbox().resolve(PROCESSING);
+        int parallelism = Math.max(1, settings.getParallelism());
+        this.maxClaimed = parallelism + Math.max(0, settings.getQueueCapacity());
+        this.claims = new Semaphore(maxClaimed);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "statement-ingest-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        start();
+    }
+
+    /** Prepares the directories and starts watching the inbox. */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        for (Path directory : List.of(processing, settings.getResults(), settings.getFailed())) {
+            Files.createDirectories(directory);
+        }
+        if (settings.getProcessed() != null) {
+            Files.createDirectories(settings.getProcessed());
+        }
+        List<Path> abandoned = abandonedClaims();
+        WatchService watchService = settings.getInbox().getFileSystem().newWatchService();
+        settings.getInbox().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        running = true;
+        // not a daemon: in the headless profile this thread is what keeps the application running
+        watcher = new Thread(() -> watch(watchService, abandoned), "statement-ingest-watcher");
+        watcher.start();
+        log.info("Watching {} for statements with {} workers", settings.getInbox().toAbsolutePath(),
+                settings.getParallelism());
+    }
+
+    private void watch(WatchService watchService, List<Path> abandoned) {
+        long lastStats = System.nanoTime();
+        try (watchService) {
+            for (Path claim : abandoned) {
+                claims.acquire();
+                claimed.incrementAndGet();
+                workers.execute(() -> process(claim));
+            }
+            while (running) {
+                try {
+                    scan();
+                } catch (UncheckedIOException e) {
+                    log.warn(e.getMessage());
+                }
+                // a file still being written produces no event once it is done, so look again when it has settled
+                Duration wait = settling ? settings.getSettleTime() : settings.getPollInterval();
+                WatchKey key = watchService.poll(wait.toMillis(), TimeUnit.MILLISECONDS);
+                // events only say that something changed; drain them all and rescan
+                while (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                    key = watchService.poll();
+                }
+                if (System.nanoTime() - lastStats >= settings.getStatsInterval().toNanos()) {
+                    Map<String, Object> stats = stats();
+                    log.info("Ingest stats: {}", stats);
+                    writeStats(stats);
+                    lastStats = System.nanoTime();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            log.error("Stopped watching {}", settings.getInbox(), e);
+        }
+    }
+
+    /** Claims every settled PDF in the inbox, oldest first, waiting for a free worker slot before each. */
+    private void scan() throws InterruptedException {
+        List<Path> ready = readyFiles();
+        backlog.set(ready.size());
+        for (Path file : ready) {
+            claims.acquire();
+            Path claim = claim(file);
+            backlog.decrementAndGet();
+            if (claim == null) {
+                claims.release();
+                continue;
+            }
+            claimed.incrementAndGet();
+            workers.execute(() -> process(claim));
+        }
+    }
+
+    private List<Path> readyFiles() {
+        long settledBefore = System.currentTimeMillis() - settings.getSettleTime().toMillis();
+        List<Path> files = new ArrayList<>();
+        Map<Path, Long> modified = new HashMap<>();
+        settling = false;
+        try (DirectoryStream<Path> inbox = Files.newDirectoryStream(settings.getInbox())) {
+            for (Path file : inbox) {
+                if (!file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+                    continue;
+                }
+                try {
+                    long lastModified = Files.getLastModifiedTime(file).toMillis();
+                    if (lastModified > settledBefore) {
+                        settling = true;
+                    } else if (Files.isRegularFile(file)) {
+                        files.add(file);
+                        modified.put(file, lastModified);
+                    }
+                } catch (NoSuchFileException e) {
+                    // claimed or removed since the listing
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error listing " + settings.getInbox() + ": " + e.getMessage(), e);
+        }
+        files.sort(Comparator.comparing(modified::get));
+        return files;
+    }
+
+    /**
+     * Moves the file into the processing directory under a unique name; null
+     * if something else got to it first. The name must be unique because an
+     * atomic move is a plain rename on POSIX, which silently replaces a claim
+     * of the same name.
+     */
+    private Path claim(Path file) {
+        Path claim = processing.resolve(runId + "-" + claimSequence.incrementAndGet() + "~" + file.getFileName());
+        try {
+            return Files.move(file, claim, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (AtomicMoveNotSupportedException e) {
+            throw new IllegalStateException(processing + " must be on the same file system as the inbox", e);
+        } catch (IOException e) {
+            log.warn("Could not claim {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void process(Path claim) {
+        String name = CLAIM_PREFIX.matcher(claim.getFileName().toString()).replaceFirst("");
+        long start = System.nanoTime();
+        try {
+            try (PdfSource source = PdfSource.of(claim)) {
+                StatementData data = parserService.parseStatement(source, password(name));
+                parseNanos.addAndGet(System.nanoTime() - start);
+                writeResult(name, data);
+            } catch (Exception e) {
+                parseNanos.addAndGet(System.nanoTime() - start);
+                fail(claim, name, e);
+                return;
+            }
+            archive(claim, name);
+            succeeded.incrementAndGet();
+        } finally {
+            throughput.record();
+            claims.release();
+        }
+    }
+
+    /**
+     * Moves a parsed PDF to {@code processed}, or deletes it when that is not
+     * set. The result is already written, so a failure here leaves the PDF in
+     * the processing directory, to be parsed again on the next start, rather
+     * than reporting the statement as failed.
+     */
+    private void archive(Path claim, String name) {
+        try {
+            if (settings.getProcessed() != null) {
+                Files.move(claim, settings.getProcessed().resolve(name), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.delete(claim);
+            }
+        } catch (IOException e) {
+            log.error("Parsed {} but could not move it out of {}", name, processing, e);
+        }
+    }
+
+    private void writeResult(String name, StatementData data) throws IOException {
+        Path result = settings.getResults().resolve(baseName(name) + ".json");
+        // written aside, under a name of its own as two files of one name can be parsed at once,
+        // and moved into place so readers never see a partial file
+        Path partial = Files.createTempFile(settings.getResults(), baseName(name) + ".", ".json.partial");
+        try {
+            objectMapper.writeValue(partial.toFile(), data);
+            Files.move(partial, result, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    private void fail(Path claim, String name, Exception error) {
+        failed.incrementAndGet();
+        log.warn("Could not parse {}: {}", name, error.getMessage());
+        try {
+            Files.writeString(settings.getFailed().resolve(baseName(name) + ".error.txt"),
+                    error.getClass().getSimpleName() + ": " + error.getMessage() + System.lineSeparator(),
+                    StandardCharsets.UTF_8);
+            Files.move(claim, settings.getFailed().resolve(name), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("Could not move {} to {}", claim, settings.getFailed(), e);
+        }
+    }
+
+    private synchronized String password(String name) throws IOException {
+        Path file = settings.getPasswordsFile();
+        if (file != null) {
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (!modified.equals(passwordsModified)) {
+                Properties reloaded = new Properties();
+                try (InputStream in = Files.newInputStream(file)) {
+                    reloaded.load(in);
+                }
+                passwords = reloaded;
+                passwordsModified = modified;
+            }
+        }
+        return passwords.getProperty(name, settings.getPassword());
+    }
+
+    /** Claims a previous run left in the processing directory, to be parsed before the inbox. */
+    private List<Path> abandonedClaims() throws IOException {
+        List<Path> abandoned = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(processing)) {
+            for (Path file : files) {
+                abandoned.add(file);
+            }
+        }
+        if (!abandoned.isEmpty()) {
+            log.info("Resuming {} statements left over from a previous run", abandoned.size());
+        }
+        return abandoned;
+    }
+
+    private static String baseName(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /** Replaces {@code statsFile} with {@code stats}, moving it into place so readers never see a partial file. */
+    private void writeStats(Map<String, Object> stats) {
+        Path file = settings.getStatsFile();
+        if (file == null) {
+            return;
+        }
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path partial = Files.createTempFile(directory, "stats", ".json.partial");
+            try {
+                objectMapper.writeValue(partial.toFile(), stats);
+                Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        } catch (IOException e) {
+            log.warn("Could not write ingest stats to {}: {}", file, e.getMessage());
+        }
+    }
+
+    /** Throughput and backlog, for logs, {@code statsFile} and {@code /stats/ingest}. */
+    public Map<String, Object> stats() {
+        long completed = succeeded.get() + failed.get();
+        long lastMinute = throughput.lastMinute();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("backlog", backlog.get());
+        result.put("inProgress", maxClaimed - claims.availablePermits());
+        result.put("claimed", claimed.get());
+        result.put("succeeded", succeeded.get());
+        result.put("failed", failed.get());
+        result.put("lastMinute", lastMinute);
+        result.put("perHour", lastMinute * 60);
+        result.put("averageParseMillis", completed == 0 ? 0 : parseNanos.get() / completed / 1_000_000);
+        result.put("uptimeSeconds", (System.nanoTime() - startedAt) / 1_000_000_000);
+        return result;
+    }
+
+    /**
+     * Stops claiming files, waits briefly for the workers to finish the ones
+     * already claimed and writes the final stats. If interrupted, it stops
+     * waiting and keeps the interrupt.
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = watcher;
+        }
+        try {
+            if (thread != null) {
+                thread.interrupt();
+                thread.join();
+            }
+            workers.shutdown();
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                // whatever is still in the processing directory is parsed again on the next start
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (thread != null) {
+            writeStats(stats());
+        }
+    }
+
+    /** Files finished in each of the last 60 seconds. */
+    private static final class Throughput {
+
+        private final long[] seconds = new long[60];
+        private final long[] counts = new long[60];
+
+        synchronized void record() {
+            long now = System.currentTimeMillis() / 1000;
+            int slot = (int) (now % seconds.length);
+            if (seconds[slot] != now) {
+                seconds[slot] = now;
+                counts[slot] = 0;
+            }
+            counts[slot]++;
+        }
+
+        synchronized long lastMinute() {
+            long now = System.currentTimeMillis() / 1000;
+            long total = 0;
+            for (int slot = 0; slot < seconds.length; slot++) {
+                if (now - seconds[slot] < seconds.length) {
+                    total += counts[slot];
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -1,28 +1,57 @@
 package com.demo.service;
 
+import com.demo.detection.Classification;
+import com.demo.detection.DocumentFingerprint;
+import com.demo.detection.FingerprintIndex;
+import com.demo.detection.FingerprintMatch;
+import com.demo.detection.IssuerClassifier;
 import com.demo.model.StatementData;
+import com.demo.model.TransactionTable;
 import com.demo.parser.*;
+import com.demo.pdf.ExtractedTextStore;
+import com.demo.pdf.PdfSource;
+import com.demo.text.Deadline;
+import com.demo.text.DeadlineExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
 
 @Service
 public class StatementParserService {
     
+    private static final Logger log = LoggerFactory.getLogger(StatementParserService.class);
+    
     private final List<StatementParser> parsers;
+    private final Map<String, StatementParser> parsersByIssuer = new LinkedHashMap<>();
+    private final IssuerClassifier classifier;
+    private final ParseContextFactory contextFactory;
+    private final ParseResultCache resultCache;
+    private final FingerprintIndex fingerprints;
     
     @Autowired
     public StatementParserService(
+            ParseContextFactory contextFactory,
+            ParseResultCache resultCache,
+            FingerprintIndex fingerprints,
             BankOfBarodaParser bankOfBarodaParser,
             HDFCParser hdfcParser,
             ICICIParser iciciParser,
             SBIParser sbiParser,
             AxisBankParser axisBankParser,
             KotakBankParser kotakBankParser) {
+        this.contextFactory = contextFactory;
+        this.resultCache = resultCache;
+        this.fingerprints = fingerprints;
         this.parsers = new ArrayList<>();
         this.parsers.add(axisBankParser);
         this.parsers.add(kotakBankParser);
@@ -30,6 +59,10 @@ public class StatementParserService {
         this.parsers.add(iciciParser);
         this.parsers.add(sbiParser);
         this.parsers.add(bankOfBarodaParser);
+        for (StatementParser parser : parsers) {
+            parsersByIssuer.put(parser.signature().getIssuer(), parser);
+        }
+        this.classifier = new IssuerClassifier(parsers.stream().map(StatementParser::signature).toList());
     }
     
     public StatementData parseStatement(InputStream pdfStream) throws IOException {
@@ -37,48 +70,161 @@ public class StatementParserService {
     }
     
     public StatementData parseStatement(InputStream pdfStream, String password) throws IOException {
-        java.io.ByteArrayOutputStream buffer = new java.io.ByteArrayOutputStream();
-        byte[] data = new byte[1024];
-        int nRead;
-        while ((nRead = pdfStream.read(data, 0, data.length)) != -1) {
-            buffer.write(data, 0, nRead);
+        try (PdfSource source = PdfSource.spool(pdfStream)) {
+            return parseStatement(source, password);
+        }
+    }
+    
+    public StatementData parseStatement(PdfSource source, String password) throws IOException {
+        return parseStatement(source, password, contextFactory.newDeadline());
+    }
+    
+    /**
+     * Parses the statement, stopping with a {@link DeadlineExceededException}
+     * once {@code deadline} passes or is cancelled. The PDF is closed before
+     * the exception reaches the caller.
+     */
+    public StatementData parseStatement(PdfSource source, String password, Deadline deadline) throws IOException {
+        String cacheKey = resultCache.key(source, password);
+        StatementData cached = resultCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
         }
-        byte[] bufferArray = buffer.toByteArray();
         
-        for (StatementParser parser : parsers) {
-            try (InputStream tempStream1 = new java.io.ByteArrayInputStream(bufferArray);
-                 InputStream tempStream2 = new java.io.ByteArrayInputStream(bufferArray)) {
-                
-                String text = extractTextFromPdf(tempStream1, password);
-                
-                if (parser.canParse(text)) {
-                    return parser.parse(tempStream2, password);
-                }
-            } catch (Exception e) {
-                continue;
+        StatementData data = parseUncached(source, password, deadline);
+        resultCache.put(cacheKey, data);
+        return data;
+    }
+    
+    private StatementData parseUncached(PdfSource source, String password, Deadline deadline) throws IOException {
+        try (ParseContext context = contextFactory.open(source, password, deadline)) {
+            return parse(context);
+        }
+    }
+    
+    /** A deadline the configured parse timeout from now. */
+    public Deadline newDeadline() {
+        return contextFactory.newDeadline();
+    }
+    
+    /** Runs the current parsers over text kept in the extracted-text store, without the PDFs. */
+    public void reparseStored(ExtractedTextStore store, BiConsumer<String, StatementData> results) throws IOException {
+        store.forEach((key, text) -> {
+            try (ParseContext context = contextFactory.fromText(text)) {
+                results.accept(key, parse(context));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
+        });
+    }
+    
+    public StatementData parseSummary(InputStream pdfStream, String password) throws IOException {
+        try (PdfSource source = PdfSource.spool(pdfStream)) {
+            return parseSummary(source, password);
         }
-        
-        StatementData defaultData = new StatementData();
-        defaultData.setCardProvider("Unknown");
-        defaultData.setCardLastFourDigits("N/A");
-        defaultData.setCardVariant("N/A");
-        defaultData.setBillingCycle("N/A");
-        defaultData.setPaymentDueDate("N/A");
-        defaultData.setTotalBalance("N/A");
-        defaultData.setTotalTransactions("N/A");
-        defaultData.setStatementPeriod("N/A");
-        return defaultData;
-    }
-    
-    private String extractTextFromPdf(InputStream pdfStream, String password) throws IOException {
-        byte[] pdfBytes = pdfStream.readAllBytes();
-        try (org.apache.pdfbox.pdmodel.PDDocument document = 
-             org.apache.pdfbox.Loader.loadPDF(pdfBytes, password)) {
-            org.apache.pdfbox.text.PDFTextStripper stripper = new org.apache.pdfbox.text.PDFTextStripper();
-            return stripper.getText(document);
-        } catch (org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException e) {
-            throw new IOException("PDF is password-protected. Please provide the correct password.", e);
+    }
+    
+    /**
+     * Parses only the summary fields. Pages are extracted until the card number,
+     * due date, amount due and period have been seen, so the transaction count
+     * is not computed.
+     */
+    public StatementData parseSummary(PdfSource source, String password) throws IOException {
+        return parseSummary(source, password, contextFactory.newDeadline());
+    }
+    
+    /** {@link #parseSummary(PdfSource, String)} that stops once {@code deadline} passes or is cancelled. */
+    public StatementData parseSummary(PdfSource source, String password, Deadline deadline) throws IOException {
+        try (ParseContext context = contextFactory.open(source, password, deadline)) {
+            StatementParser parser = detectParser(context);
+            if (parser == null) {
+                return unknownStatement();
+            }
+            context.getTextUntil(SummaryFields.create());
+            StatementData data = parseWith(parser, context);
+            if (data == null) {
+                return unknownStatement();
+            }
+            data.setTotalTransactions(StatementData.NO_VALUE);
+            data.setTransactions(TransactionTable.EMPTY);
+            return data;
+        }
+    }
+    
+    private StatementData parse(ParseContext context) throws IOException {
+        StatementParser parser = detectParser(context);
+        if (parser == null) {
+            return unknownStatement();
+        }
+        StatementData data = parseWith(parser, context);
+        if (data == null) {
+            return unknownStatement();
+        }
+        // Every route is confirmed by the text, so only a parse that also found fields is learned
+        DocumentFingerprint fingerprint = fingerprints.isEnabled() ? context.getFingerprint() : null;
+        if (fingerprint != null && foundAnyField(data)) {
+            fingerprints.learn(fingerprint, parser.signature().getIssuer());
+        }
+        return data;
+    }
+
+    /**
+     * Runs the detected parser. A parser that throws on a statement it claimed
+     * reports the statement as unknown rather than failing the upload, as
+     * before detection moved out of the parsers; {@code null} then.
+     */
+    private StatementData parseWith(StatementParser parser, ParseContext context) throws IOException {
+        try {
+            return parser.parse(context);
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("{} failed on a statement it detected; reporting it as unknown",
+                    parser.getClass().getSimpleName(), e);
+            return null;
+        }
+    }
+
+    private static boolean foundAnyField(StatementData data) {
+        return data.hasCardLastFour() || data.hasPaymentDueDate() || data.hasTotalBalance()
+                || data.hasStatementPeriod() || data.hasBillingCycle() || !data.getTransactions().isEmpty();
+    }
+    
+    private StatementData unknownStatement() {
+        return new StatementData();
+    }
+    
+    public Map<String, Object> cacheStats() {
+        return resultCache.stats();
+    }
+    
+    /**
+     * Runs the keyword classifier on the header, then on the whole document
+     * if the header names no issuer. A learned metadata fingerprint only
+     * decides between issuers whose keywords the header shows, ahead of the
+     * classifier's priority order; a fingerprint the header does not back is
+     * ignored, so a wrongly learned route cannot stick.
+     */
+    private StatementParser detectParser(ParseContext context) throws IOException {
+        Classification header = classifier.classify(context.getHeaderText());
+        FingerprintMatch match = fingerprintMatch(context);
+        if (match != null && header.getScores().getOrDefault(match.getIssuer(), 0) > 0) {
+            return parsersByIssuer.get(match.getIssuer());
+        }
+        if (header.isMatched()) {
+            return parsersByIssuer.get(header.getIssuer());
+        }
+        // Issuer name not in the leading pages; fall back to the whole document
+        Classification document = classifier.classify(context.getText());
+        return document.isMatched() ? parsersByIssuer.get(document.getIssuer()) : null;
+    }
+    
+    private FingerprintMatch fingerprintMatch(ParseContext context) throws IOException {
+        DocumentFingerprint fingerprint = fingerprints.isEnabled() ? context.getFingerprint() : null;
+        if (fingerprint == null) {
+            return null;
         }
+        FingerprintMatch match = fingerprints.match(fingerprint);
+        return match != null && parsersByIssuer.containsKey(match.getIssuer()) ? match : null;
     }
 }
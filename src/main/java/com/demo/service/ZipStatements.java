@@ -0,0 +1,171 @@
+package com.demo.service;
+
+import com.demo.pdf.PdfSource;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * The PDFs of a ZIP archive as {@link ParseRequest}s, read from a stream one
+ * entry at a time. Each entry is spooled to a temp file when the batch asks
+ * for the next request, so the archive is never unpacked in memory and at
+ * most the batch's in-flight statements are on disk at once.
+ * <p>
+ * Every PDF is opened with the default password unless a
+ * {@value #PASSWORDS_ENTRY} entry, read in {@link Properties} format, maps
+ * its entry name or file name to another. The map applies to the PDFs
+ * after it in the archive, so it should be the first entry. An entry larger
+ * than the size limit is reported as a failed request rather than spooled.
+ */
+public final class ZipStatements implements Iterable<ParseRequest>, Closeable {
+
+    public static final String PASSWORDS_ENTRY = "passwords.properties";
+
+    private final ZipInputStream zip;
+    private final String defaultPassword;
+    private final long maxEntryBytes;
+    private final Properties passwords = new Properties();
+    /** Spooled entries no worker has opened yet; deleted on close if the batch stops early. */
+    private final Set<PdfSource> unclaimed = ConcurrentHashMap.newKeySet();
+    private boolean iterated;
+
+    public ZipStatements(InputStream archive, String defaultPassword, long maxEntryBytes) {
+        this.zip = new ZipInputStream(archive);
+        this.defaultPassword = defaultPassword;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    /** Reads the archive; it can be iterated only once. */
+    @Override
+    public synchronized Iterator<ParseRequest> iterator() {
+        if (iterated) {
+            throw new IllegalStateException("A ZIP stream can only be read once");
+        }
+        iterated = true;
+        return new Iterator<>() {
+
+            private ZipEntry next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = nextStatement();
+                }
+                return next != null;
+            }
+
+            @Override
+            public ParseRequest next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ZipEntry entry = next;
+                next = null;
+                return spool(entry);
+            }
+        };
+    }
+
+    private ZipEntry nextStatement() {
+        try {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                String name = entry.getName();
+                if (entry.isDirectory() || name.startsWith("__MACOSX/")) {
+                    continue;
+                }
+                if (fileName(name).equals(PASSWORDS_ENTRY)) {
+                    passwords.load(new EntryStream(zip, maxEntryBytes));
+                } else if (name.toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+                    return entry;
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading ZIP archive: " + e.getMessage(), e);
+        }
+    }
+
+    private ParseRequest spool(ZipEntry entry) {
+        String name = entry.getName();
+        String password = passwords.getProperty(name, passwords.getProperty(fileName(name), defaultPassword));
+        PdfSource source;
+        try {
+            source = PdfSource.spool(new EntryStream(zip, maxEntryBytes));
+        } catch (IOException e) {
+            return new ParseRequest(name, () -> {
+                throw e;
+            }, password);
+        }
+        unclaimed.add(source);
+        return new ParseRequest(name, () -> {
+            unclaimed.remove(source);
+            return source;
+        }, password);
+    }
+
+    private static String fileName(String entryName) {
+        return entryName.substring(entryName.lastIndexOf('/') + 1);
+    }
+
+    /** Deletes the spooled entries no worker opened; does not close the archive stream. */
+    @Override
+    public void close() throws IOException {
+        for (PdfSource source : unclaimed) {
+            source.close();
+        }
+        unclaimed.clear();
+    }
+
+    /** The current entry, failing past {@code limit} bytes and leaving the archive stream open. */
+    private static final class EntryStream extends FilterInputStream {
+
+        private final long limit;
+        private long read;
+
+        EntryStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            read += n;
+            if (read > limit) {
+                throw new IOException("ZIP entry is larger than " + limit + " bytes");
+            }
+        }
+
+        @Override
+        public void close() {
+            // the next getNextEntry() skips whatever is left of the entry
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.demo.text;
+
+/**
+ * Reads amounts as printed on Indian statements into a {@code long} count of
+ * paise, so parsers can compare and pick amounts exactly and without
+ * stripping commas into new strings or catching
+ * {@code NumberFormatException}. Nothing is allocated and nothing is thrown;
+ * text that is not an amount reads as {@link #INVALID}.
+ * <p>
+ * An amount is an optional sign, an optional {@code ₹}, {@code Rs}, {@code Rs.}
+ * or {@code INR} prefix, digits grouped by commas (lakh and crore grouping
+ * such as {@code 1,23,45,678.90} as well as thousands grouping), up to two
+ * decimals, and an optional {@code Dr} or {@code Cr} suffix; a credit
+ * ({@code Cr}) is negative. Commas are skipped wherever they fall among the
+ * digits, as the parsers' old comma stripping did, and whitespace around
+ * the parts is allowed.
+ */
+public final class Amount {
+
+    /** Returned for text that is not an amount. */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    /** More digits than this could overflow a long of paise. */
+    private static final int MAX_DIGITS = 16;
+
+    private Amount() {
+    }
+
+    /** Paise in a whole number of rupees. */
+    public static long rupees(long rupees) {
+        return rupees * 100;
+    }
+
+    public static long parse(CharSequence text) {
+        return text == null ? INVALID : parse(text, 0, text.length());
+    }
+
+    /** Paise of the amount in {@code text[start, end)}, or {@link #INVALID}. */
+    public static long parse(CharSequence text, int start, int end) {
+        int pos = skipSpaces(text, start, end);
+        boolean negative = false;
+        if (pos < end && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+            negative = text.charAt(pos) == '-';
+            pos = skipSpaces(text, pos + 1, end);
+        }
+        pos = skipSpaces(text, skipCurrency(text, pos, end), end);
+
+        long paise = 0;
+        int digits = 0;
+        for (; pos < end; pos++) {
+            char c = text.charAt(pos);
+            if (isDigit(c)) {
+                if (++digits > MAX_DIGITS) {
+                    return INVALID;
+                }
+                paise = paise * 10 + (c - '0');
+            } else if (c != ',') {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return INVALID;
+        }
+        int decimals = 0;
+        if (pos < end && text.charAt(pos) == '.') {
+            for (pos++; pos < end && isDigit(text.charAt(pos)); pos++) {
+                if (++decimals > 2) {
+                    return INVALID;
+                }
+                paise = paise * 10 + (text.charAt(pos) - '0');
+            }
+        }
+        for (; decimals < 2; decimals++) {
+            paise *= 10;
+        }
+
+        pos = skipSpaces(text, pos, end);
+        if (pos + 2 <= end && isLetter(text.charAt(pos), 'd') && isLetter(text.charAt(pos + 1), 'r')) {
+            pos = skipSpaces(text, pos + 2, end);
+        } else if (pos + 2 <= end && isLetter(text.charAt(pos), 'c') && isLetter(text.charAt(pos + 1), 'r')) {
+            negative = !negative;
+            pos = skipSpaces(text, pos + 2, end);
+        }
+        if (pos != end) {
+            return INVALID;
+        }
+        return negative ? -paise : paise;
+    }
+
+    /** Non-negative paise as rupees with Indian digit grouping and two decimals, e.g. {@code 1,23,456.70}. */
+    public static String format(long paise) {
+        String rupees = Long.toString(paise / 100);
+        StringBuilder text = new StringBuilder(rupees.length() + 8);
+        int head = rupees.length() - 3;
+        if (head > 0) {
+            int first = head % 2 == 0 ? 2 : 1;
+            text.append(rupees, 0, first);
+            for (int i = first; i < head; i += 2) {
+                text.append(',').append(rupees, i, i + 2);
+            }
+            text.append(',').append(rupees, head, rupees.length());
+        } else {
+            text.append(rupees);
+        }
+        long fraction = paise % 100;
+        return text.append('.').append((char) ('0' + fraction / 10)).append((char) ('0' + fraction % 10)).toString();
+    }
+
+    private static int skipCurrency(CharSequence text, int pos, int end) {
+        if (pos < end && text.charAt(pos) == '₹') {
+            return pos + 1;
+        }
+        if (pos + 3 <= end && isLetter(text.charAt(pos), 'i') && isLetter(text.charAt(pos + 1), 'n')
+                && isLetter(text.charAt(pos + 2), 'r')) {
+            return pos + 3;
+        }
+        if (pos + 2 <= end && isLetter(text.charAt(pos), 'r') && isLetter(text.charAt(pos + 1), 's')) {
+            return pos + 2 < end && text.charAt(pos + 2) == '.' ? pos + 3 : pos + 2;
+        }
+        return pos;
+    }
+
+    private static int skipSpaces(CharSequence text, int pos, int end) {
+        while (pos < end && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /** Whether {@code c} is the lowercase ASCII letter {@code lower} in either case. */
+    private static boolean isLetter(char c, char lower) {
+        return (c | 0x20) == lower;
+    }
+}
@@ -0,0 +1,97 @@
+package com.demo.text;
+
+/**
+ * Finds the last four digits of a card number by trying {@link CardShape}s
+ * in priority order, the way parsers used to try one regex after another,
+ * but in a single pass over the text. At each position only the shapes
+ * ranked above the best one matched so far are tried, so the result is the
+ * first match of the highest-ranked shape that matches anywhere: what the
+ * regex cascade returned. Nothing is allocated while scanning.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class CardNumberScanner {
+
+    private final CardShape[] shapes;
+    /** {@code startClasses[k]}: classes any of the first k shapes can start with. */
+    private final int[] startClasses;
+
+    private CardNumberScanner(CardShape[] shapes) {
+        this.shapes = shapes;
+        this.startClasses = new int[shapes.length + 1];
+        for (int k = 0; k < shapes.length; k++) {
+            startClasses[k + 1] = startClasses[k] | shapes[k].firstClasses;
+        }
+    }
+
+    /** Scanner for shapes in the order they should be preferred. */
+    public static CardNumberScanner of(CardShape... shapes) {
+        if (shapes.length == 0) {
+            throw new IllegalArgumentException("At least one shape is required");
+        }
+        return new CardNumberScanner(shapes.clone());
+    }
+
+    /** Span of the last four digits found, or {@link Span#NONE}. */
+    public long find(CharSequence text) {
+        int best = shapes.length;
+        long found = Span.NONE;
+        int length = text.length();
+        for (int at = 0; at < length && best > 0; at++) {
+            if ((CardShape.classOf(text.charAt(at)) & startClasses[best]) == 0) {
+                continue;
+            }
+            for (int k = 0; k < best; k++) {
+                int end = match(shapes[k], text, at);
+                if (end >= 0) {
+                    best = k;
+                    found = Span.of(end - 4, end);
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    /** The last four digits found, or {@code null}. */
+    public String findLastFour(CharSequence text) {
+        long span = find(text);
+        return span == Span.NONE ? null : Span.text(text, span);
+    }
+
+    /** End of the shape's first alternative matching at {@code at}, or -1. */
+    private static int match(CardShape shape, CharSequence text, int at) {
+        for (int a = 0; a < shape.classes.length; a++) {
+            int end = matchRun(shape, a, 0, text, at);
+            if (end >= 0) {
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    private static int matchRun(CardShape shape, int alternative, int run, CharSequence text, int at) {
+        int[] classes = shape.classes[alternative];
+        if (run == classes.length) {
+            return at;
+        }
+        int cls = classes[run];
+        int min = shape.mins[alternative][run];
+        int max = shape.maxes[alternative][run];
+        int length = text.length();
+        int n = 0;
+        while (n < max && at + n < length && (CardShape.classOf(text.charAt(at + n)) & cls) != 0) {
+            n++;
+        }
+        // When the next run cannot start with this run's characters, only the
+        // longest run can be followed by it; shorter ones would fail anyway.
+        int shortest = shape.disjointNext[alternative][run] ? n : min;
+        for (int k = n; k >= min && k >= shortest; k--) {
+            int end = matchRun(shape, alternative, run + 1, text, at + k);
+            if (end >= 0) {
+                return end;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,174 @@
+package com.demo.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Layout of a printed, usually masked, card number ending in the four digits
+ * a statement reveals: runs of digits, mask characters, spaces and dashes of
+ * given lengths. A shape has one or more alternatives, tried in order at each
+ * position like a regex alternation, and {@link CardNumberScanner} matches it
+ * with the same greedy backtracking a regex would use, so each constant below
+ * finds exactly what its documented regex finds.
+ * <p>
+ * Character classes follow {@code java.util.regex} without flags:
+ * {@link #DIGIT} is {@code [0-9]} and {@link #SPACE} is {@code \s}.
+ */
+public final class CardShape {
+
+    public static final int DIGIT = 1;
+    public static final int LOWER_X = 1 << 1;
+    public static final int UPPER_X = 1 << 2;
+    public static final int STAR = 1 << 3;
+    public static final int SPACE = 1 << 4;
+    public static final int DASH = 1 << 5;
+    public static final int X = LOWER_X | UPPER_X;
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /** {@code \d{4}[xX]{8,12}(\d{4})} */
+    public static final CardShape COMPACT_MASK = builder().then(DIGIT, 4).then(X, 8, 12).build();
+
+    /** {@code \d{6}[xX]{6,12}(\d{4})} */
+    public static final CardShape BIN_MASK = builder().then(DIGIT, 6).then(X, 6, 12).build();
+
+    /** {@code \d{4,6}[\*x]{4,12}(\d{4})} */
+    public static final CardShape STARRED_MASK = builder().then(DIGIT, 4, 6).then(STAR | LOWER_X, 4, 12).build();
+
+    /** {@code \d{4}\s+[xX]{4}\s+[xX]{4}\s+(\d{4})} */
+    public static final CardShape SPACED_MASK = builder()
+            .then(DIGIT, 4).then(SPACE, 1, UNBOUNDED).then(X, 4).then(SPACE, 1, UNBOUNDED)
+            .then(X, 4).then(SPACE, 1, UNBOUNDED).build();
+
+    /** {@code \d{4}\s+\d{2}[xX]{2}\s+[xX]{4}\s+(\d{4})} */
+    public static final CardShape GROUPED_MASK = builder()
+            .then(DIGIT, 4).then(SPACE, 1, UNBOUNDED).then(DIGIT, 2).then(X, 2).then(SPACE, 1, UNBOUNDED)
+            .then(X, 4).then(SPACE, 1, UNBOUNDED).build();
+
+    /** {@code (?:\d{4}\s+)?\d{4}\s+\d{1,2}[xX]{1,2}\s+[xX]{2,4}\s+(\d{4})} */
+    public static final CardShape SPLIT_MASK = builder()
+            .then(DIGIT, 4).then(SPACE, 1, UNBOUNDED)
+            .then(DIGIT, 4).then(SPACE, 1, UNBOUNDED).then(DIGIT, 1, 2).then(X, 1, 2).then(SPACE, 1, UNBOUNDED)
+            .then(X, 2, 4).then(SPACE, 1, UNBOUNDED)
+            .or()
+            .then(DIGIT, 4).then(SPACE, 1, UNBOUNDED).then(DIGIT, 1, 2).then(X, 1, 2).then(SPACE, 1, UNBOUNDED)
+            .then(X, 2, 4).then(SPACE, 1, UNBOUNDED).build();
+
+    /** {@code \d{4}\s+\d{4}\s+\d{4}\s+(\d{4})} */
+    public static final CardShape SPACED_DIGITS = builder()
+            .then(DIGIT, 4).then(SPACE, 1, UNBOUNDED).then(DIGIT, 4).then(SPACE, 1, UNBOUNDED)
+            .then(DIGIT, 4).then(SPACE, 1, UNBOUNDED).build();
+
+    /** {@code \d{4}[\s-]\d{4}[\s-]\d{4}[\s-](\d{4})} */
+    public static final CardShape FOUR_GROUPS = builder()
+            .then(DIGIT, 4).then(SPACE | DASH, 1).then(DIGIT, 4).then(SPACE | DASH, 1)
+            .then(DIGIT, 4).then(SPACE | DASH, 1).build();
+
+    /** {@code (?:\*|x|X|\d){11,12}(\d{4})|(?:\d{4}[\s-]){3}(\d{4})} */
+    public static final CardShape ANY_PAN = builder()
+            .then(STAR | X | DIGIT, 11, 12)
+            .or()
+            .then(DIGIT, 4).then(SPACE | DASH, 1).then(DIGIT, 4).then(SPACE | DASH, 1)
+            .then(DIGIT, 4).then(SPACE | DASH, 1).build();
+
+    private static final int[] ASCII_CLASSES = new int[128];
+
+    static {
+        for (char c = '0'; c <= '9'; c++) {
+            ASCII_CLASSES[c] = DIGIT;
+        }
+        ASCII_CLASSES['x'] = LOWER_X;
+        ASCII_CLASSES['X'] = UPPER_X;
+        ASCII_CLASSES['*'] = STAR;
+        ASCII_CLASSES['-'] = DASH;
+        for (char c : new char[] {' ', '\t', '\n', '\u000B', '\f', '\r'}) {
+            ASCII_CLASSES[c] = SPACE;
+        }
+    }
+
+    /** Per alternative: class, minimum and maximum length of each run, the last four digits included. */
+    final int[][] classes;
+    final int[][] mins;
+    final int[][] maxes;
+    /** Whether the run after each run shares no character with it. */
+    final boolean[][] disjointNext;
+    /** Classes any alternative can start with. */
+    final int firstClasses;
+
+    private CardShape(List<int[]> runs) {
+        int alternatives = runs.size() / 3;
+        this.classes = new int[alternatives][];
+        this.mins = new int[alternatives][];
+        this.maxes = new int[alternatives][];
+        this.disjointNext = new boolean[alternatives][];
+        int first = 0;
+        for (int a = 0; a < alternatives; a++) {
+            classes[a] = runs.get(3 * a);
+            mins[a] = runs.get(3 * a + 1);
+            maxes[a] = runs.get(3 * a + 2);
+            disjointNext[a] = new boolean[classes[a].length];
+            for (int r = 0; r + 1 < classes[a].length; r++) {
+                disjointNext[a][r] = (classes[a][r] & classes[a][r + 1]) == 0;
+            }
+            first |= classes[a][0];
+        }
+        this.firstClasses = first;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    static int classOf(char c) {
+        return c < 128 ? ASCII_CLASSES[c] : 0;
+    }
+
+    public static final class Builder {
+
+        private final List<int[]> runs = new ArrayList<>();
+        private int[] classes = new int[0];
+        private int[] mins = new int[0];
+        private int[] maxes = new int[0];
+
+        private Builder() {
+        }
+
+        /** A run of exactly {@code count} characters from {@code classes}. */
+        public Builder then(int classes, int count) {
+            return then(classes, count, count);
+        }
+
+        /** A greedy run of {@code min} to {@code max} characters from {@code classes}. */
+        public Builder then(int classes, int min, int max) {
+            if (classes == 0 || min < 1 || max < min) {
+                throw new IllegalArgumentException("Invalid run " + classes + "{" + min + "," + max + "}");
+            }
+            int n = this.classes.length;
+            this.classes = Arrays.copyOf(this.classes, n + 1);
+            this.mins = Arrays.copyOf(this.mins, n + 1);
+            this.maxes = Arrays.copyOf(this.maxes, n + 1);
+            this.classes[n] = classes;
+            this.mins[n] = min;
+            this.maxes[n] = max;
+            return this;
+        }
+
+        /** Ends the current alternative and starts the next one. */
+        public Builder or() {
+            then(DIGIT, 4);
+            runs.add(classes);
+            runs.add(mins);
+            runs.add(maxes);
+            classes = new int[0];
+            mins = new int[0];
+            maxes = new int[0];
+            return this;
+        }
+
+        /** Ends the last alternative with the four digits the shape reports. */
+        public CardShape build() {
+            or();
+            return new CardShape(runs);
+        }
+    }
+}
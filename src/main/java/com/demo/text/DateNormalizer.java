@@ -0,0 +1,236 @@
+package com.demo.text;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Reads the dates statements print and writes them as {@code dd/MM/yyyy}, so
+ * every parser reports dates the same way. Accepted forms are a day, month
+ * and year separated by {@code /}, {@code -}, {@code .} or spaces, with the
+ * month as a number or a name ({@code 05/03/2024}, {@code 5-Mar-24},
+ * {@code 5 March 2024}), and a month name first ({@code March 5, 2024}).
+ * Numeric dates are read day first, month names by their first three
+ * letters, and two-digit years below 50 are taken as 20xx, otherwise 19xx.
+ * <p>
+ * The text is read in one pass with a table lookup for month names, and the
+ * last few hundred distinct inputs are remembered, since a statement repeats
+ * the same dates many times. The memo is a small direct-mapped array of
+ * immutable entries, so racing threads at worst recompute an entry.
+ */
+public final class DateNormalizer {
+
+    /** Returned by {@link #toEpochDay} for text that is not a date. */
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    private static final String[] MONTH_NAMES = {
+            "jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"};
+    /** Month number by the first three letters of its name, lowercase; 0 if none. */
+    private static final byte[] MONTHS = new byte[26 * 26 * 26];
+
+    static {
+        for (int m = 0; m < MONTH_NAMES.length; m++) {
+            String name = MONTH_NAMES[m];
+            MONTHS[monthKey(name.charAt(0), name.charAt(1), name.charAt(2))] = (byte) (m + 1);
+        }
+    }
+
+    private static final int MEMO_SIZE = 256;
+    private static final Entry[] MEMO = new Entry[MEMO_SIZE];
+
+    private record Entry(String text, int epochDay, String normalized) {
+    }
+
+    private DateNormalizer() {
+    }
+
+    /** The date as {@code dd/MM/yyyy}, or {@code text} unchanged if it is not a date. */
+    public static String normalize(String text) {
+        return text == null ? null : lookup(text).normalized;
+    }
+
+    /** Days since 1970-01-01, or {@link #INVALID}. */
+    public static int toEpochDay(String text) {
+        return text == null ? INVALID : lookup(text).epochDay;
+    }
+
+    /** The date, or {@code null} if {@code text} is not a date. */
+    public static LocalDate parse(String text) {
+        int epochDay = toEpochDay(text);
+        return epochDay == INVALID ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /** Days since 1970-01-01 of the date in {@code text[start, end)}, read without the memo; or {@link #INVALID}. */
+    public static int toEpochDay(CharSequence text, int start, int end) {
+        Reader reader = new Reader(text, start, end);
+        int day;
+        int month;
+        int year;
+        if (reader.isDigit()) {
+            day = reader.number(1, 2);
+            reader.separator();
+            month = reader.isDigit() ? reader.number(1, 2) : reader.monthName();
+            reader.separator();
+            year = reader.year();
+        } else {
+            month = reader.monthName();
+            reader.spaces();
+            day = reader.number(1, 2);
+            reader.separator();
+            year = reader.year();
+        }
+        if (!reader.atEnd() || month < 1 || month > 12 || day < 1
+                || day > Month.of(month).length(Year.isLeap(year))) {
+            return INVALID;
+        }
+        return (int) LocalDate.of(year, month, day).toEpochDay();
+    }
+
+    private static Entry lookup(String text) {
+        int hash = text.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (MEMO_SIZE - 1);
+        Entry entry = MEMO[slot];
+        if (entry == null || !entry.text.equals(text)) {
+            int epochDay = toEpochDay(text, 0, text.length());
+            entry = new Entry(text, epochDay, epochDay == INVALID ? text : format(epochDay));
+            MEMO[slot] = entry;
+        }
+        return entry;
+    }
+
+    /** The epoch day as {@code dd/MM/yyyy}. */
+    public static String format(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        int day = date.getDayOfMonth();
+        int month = date.getMonthValue();
+        int year = date.getYear();
+        char[] chars = new char[10];
+        chars[0] = (char) ('0' + day / 10);
+        chars[1] = (char) ('0' + day % 10);
+        chars[2] = '/';
+        chars[3] = (char) ('0' + month / 10);
+        chars[4] = (char) ('0' + month % 10);
+        chars[5] = '/';
+        chars[6] = (char) ('0' + year / 1000);
+        chars[7] = (char) ('0' + year / 100 % 10);
+        chars[8] = (char) ('0' + year / 10 % 10);
+        chars[9] = (char) ('0' + year % 10);
+        return new String(chars);
+    }
+
+    private static int monthKey(char a, char b, char c) {
+        return ((a - 'a') * 26 + (b - 'a')) * 26 + (c - 'a');
+    }
+
+    /**
+     * Cursor over the trimmed range. A read that fails moves the cursor past
+     * the end, so the date is rejected by the final {@link #atEnd} check.
+     */
+    private static final class Reader {
+
+        private final CharSequence text;
+        private final int end;
+        private int pos;
+
+        Reader(CharSequence text, int start, int end) {
+            while (start < end && Character.isWhitespace(text.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+                end--;
+            }
+            this.text = text;
+            this.end = end;
+            this.pos = start;
+        }
+
+        boolean atEnd() {
+            return pos == end;
+        }
+
+        boolean isDigit() {
+            return pos < end && isDigit(text.charAt(pos));
+        }
+
+        /** A number of {@code min} to {@code max} digits, or -1. */
+        int number(int min, int max) {
+            int value = 0;
+            int digits = 0;
+            while (digits < max && isDigit()) {
+                value = value * 10 + (text.charAt(pos++) - '0');
+                digits++;
+            }
+            if (digits < min || isDigit()) {
+                return fail();
+            }
+            return value;
+        }
+
+        /** A four-digit year, or a two-digit one pivoted at 50. */
+        int year() {
+            int start = pos;
+            int value = number(2, 4);
+            int digits = pos - start;
+            if (digits == 2) {
+                return value < 50 ? 2000 + value : 1900 + value;
+            }
+            return digits == 4 ? value : fail();
+        }
+
+        /** Month number of a name such as {@code Mar} or {@code March}, or -1. */
+        int monthName() {
+            int start = pos;
+            while (pos < end && isAsciiLetter(text.charAt(pos))) {
+                pos++;
+            }
+            if (pos - start < 3) {
+                return fail();
+            }
+            int month = MONTHS[monthKey(lower(text.charAt(start)), lower(text.charAt(start + 1)),
+                    lower(text.charAt(start + 2)))];
+            return month == 0 ? fail() : month;
+        }
+
+        /** One of {@code / - .} or an optional comma followed by spaces. */
+        void separator() {
+            if (pos < end) {
+                char c = text.charAt(pos);
+                if (c == '/' || c == '-' || c == '.') {
+                    pos++;
+                    return;
+                }
+                if (c == ',') {
+                    pos++;
+                }
+            }
+            spaces();
+        }
+
+        void spaces() {
+            int start = pos;
+            while (pos < end && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+            if (pos == start) {
+                fail();
+            }
+        }
+
+        private int fail() {
+            pos = end + 1;
+            return -1;
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private static boolean isAsciiLetter(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+        }
+
+        private static char lower(char c) {
+            return c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.demo.text;
+
+import java.time.Duration;
+
+/**
+ * The point by which one statement's parse must finish, and a way to stop it
+ * sooner. Loading, text stripping and regex searches call {@link #check()}
+ * as they go, at page boundaries and every few thousand reads, and unwind
+ * with a {@link DeadlineExceededException} once the time is up, the deadline
+ * is {@link #cancel() cancelled} (say because the client went away) or the
+ * parsing thread is interrupted. Nothing is killed; the parse stops itself
+ * and its try-with-resources blocks close the PDF on the way out.
+ * <p>
+ * Thread-safe, so page ranges stripped on extraction workers share the
+ * deadline of the request they belong to.
+ */
+public final class Deadline {
+
+    private final Duration timeout;
+    private final long expiresAt;
+    private volatile boolean cancelled;
+
+    private Deadline(Duration timeout) {
+        this.timeout = timeout;
+        this.expiresAt = timeout == null ? 0 : System.nanoTime() + timeout.toNanos();
+    }
+
+    /** A deadline {@code timeout} from now. */
+    public static Deadline after(Duration timeout) {
+        return new Deadline(timeout);
+    }
+
+    /** A deadline that never passes, but can still be cancelled. */
+    public static Deadline none() {
+        return new Deadline(null);
+    }
+
+    /** Stops the parse at its next check. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** Whether the next {@link #check()} would throw. */
+    public boolean isExpired() {
+        return cancelled || Thread.currentThread().isInterrupted()
+                || (timeout != null && System.nanoTime() - expiresAt >= 0);
+    }
+
+    /** Unwinds the parse if it should stop. */
+    public void check() {
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new DeadlineExceededException("Parsing was cancelled");
+        }
+        if (timeout != null && System.nanoTime() - expiresAt >= 0) {
+            throw new DeadlineExceededException("Parsing took longer than " + describe(timeout) + " and was stopped");
+        }
+    }
+
+    private static String describe(Duration timeout) {
+        return timeout.toMillis() % 1000 == 0 ? timeout.toSeconds() + " s" : timeout.toMillis() + " ms";
+    }
+
+    @Override
+    public String toString() {
+        return timeout == null ? "Deadline(none)" : "Deadline(" + describe(timeout) + ")";
+    }
+}
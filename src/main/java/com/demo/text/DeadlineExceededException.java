@@ -0,0 +1,14 @@
+package com.demo.text;
+
+/**
+ * Thrown from a parse whose {@link Deadline} passed or was cancelled. It is
+ * unchecked so that it unwinds through regex searches and PDFBox's own
+ * parsing, which catches and recovers from {@link java.io.IOException}s, and
+ * reaches the caller as the reason the statement has no result.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,243 @@
+package com.demo.text;
+
+import com.demo.detection.KeywordAutomaton;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Read-only view of a statement's text for the parsers. The text is
+ * lowercased once, on the first search, so case-insensitive keyword searches no longer lowercase
+ * the whole statement per lookup, and sections are handed out as
+ * {@link TextWindow}s over the same characters instead of substring copies.
+ * <p>
+ * The offsets of the {@link #ANCHORS} headings the parsers navigate by are
+ * collected in one pass over the text the first time one is looked up, and
+ * line starts are indexed on first use. Not thread-safe, like the
+ * {@code ParseContext} that owns it.
+ */
+public final class DocumentView {
+
+    /** Section headings and labels whose offsets are indexed. */
+    public static final List<String> ANCHORS = List.of(
+            "transaction details", "payment summary", "statement summary", "statement date",
+            "payment due date", "amount due", "total amount due", "total purchase",
+            "total retail purchases", "my rewards", "statement for", "credit card statement",
+            "card no", "billing period", "statement period", "domestic transactions",
+            "international transactions", "end of statement", "emi balances", "emi",
+            "spends overview", "important information", "cash points", "total", "payment",
+            "statement", "date");
+
+    private static final KeywordAutomaton ANCHOR_AUTOMATON = new KeywordAutomaton(ANCHORS);
+    private static final Map<String, Integer> ANCHOR_IDS = new HashMap<>();
+
+    static {
+        for (int id = 0; id < ANCHORS.size(); id++) {
+            ANCHOR_IDS.put(ANCHORS.get(id), id);
+        }
+    }
+
+    private final String text;
+    private String lower;
+    private int[][] anchorOffsets;
+    private int[] anchorCounts;
+    private int[] lineStarts;
+    private int lineCount;
+
+    private DocumentView(String text) {
+        this.text = text;
+    }
+
+    public static DocumentView of(String text) {
+        return new DocumentView(text);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int length() {
+        return text.length();
+    }
+
+    /** Offset of the first occurrence of a lowercase keyword, ignoring case, or -1. */
+    public int indexOf(String keyword) {
+        return indexOf(keyword, 0);
+    }
+
+    /** Offset of the first occurrence at or after {@code from}, ignoring case, or -1. */
+    public int indexOf(String keyword, int from) {
+        return indexOf(keyword, from, text.length());
+    }
+
+    /**
+     * Offset of the first occurrence lying wholly in {@code [from, to)},
+     * ignoring case, or -1. Only that range is searched, so a lookup in a
+     * small section costs the section's length, not the document's.
+     */
+    public int indexOf(String keyword, int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, text.length());
+        int last = to - keyword.length();
+        if (last < from) {
+            return -1;
+        }
+        Integer id = ANCHOR_IDS.get(keyword);
+        if (id == null) {
+            return scan(lower(), keyword, from, last);
+        }
+        if (anchorOffsets == null) {
+            indexAnchors();
+        }
+        int[] offsets = anchorOffsets[id];
+        int count = anchorCounts[id];
+        int i = Arrays.binarySearch(offsets, 0, count, from);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return i < count && offsets[i] <= last ? offsets[i] : -1;
+    }
+
+    /** Section from {@code start} to the end of the text. */
+    public TextWindow window(int start) {
+        return window(start, text.length());
+    }
+
+    public TextWindow window(int start, int end) {
+        return new TextWindow(this, start, end);
+    }
+
+    /** The first {@code length} characters, or the whole text when it is shorter. */
+    public TextWindow head(int length) {
+        return window(0, Math.min(length, text.length()));
+    }
+
+    /**
+     * Characters from {@code before} ahead of {@code pos} to {@code after}
+     * past it, clamped to the text.
+     */
+    public TextWindow around(int pos, int before, int after) {
+        return window(Math.max(0, pos - before), Math.min(text.length(), pos + after));
+    }
+
+    /** Number of lines, counting a trailing line without a terminator. */
+    public int lineCount() {
+        if (lineStarts == null) {
+            indexLines();
+        }
+        return lineCount;
+    }
+
+    /** Line number containing {@code offset}. */
+    public int lineOf(int offset) {
+        if (lineStarts == null) {
+            indexLines();
+        }
+        int i = Arrays.binarySearch(lineStarts, 0, lineCount, offset);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    /** Line {@code n} without its terminator. */
+    public TextWindow line(int n) {
+        if (lineStarts == null) {
+            indexLines();
+        }
+        int start = lineStarts[n];
+        int end = n + 1 < lineCount ? lineStarts[n + 1] : text.length();
+        if (end > start && isLineBreak(text.charAt(end - 1))) {
+            end--;
+            if (end > start && text.charAt(end) == '\n' && text.charAt(end - 1) == '\r') {
+                end--;
+            }
+        }
+        return window(start, end);
+    }
+
+    private String lower() {
+        if (lower == null) {
+            lower = lowerCase(text);
+        }
+        return lower;
+    }
+
+    /** First match of {@code keyword} in {@code lower} starting in {@code [from, last]}, or -1. */
+    private static int scan(String lower, String keyword, int from, int last) {
+        if (keyword.isEmpty()) {
+            return from;
+        }
+        char first = keyword.charAt(0);
+        for (int i = from; i <= last; i++) {
+            if (lower.charAt(i) == first && lower.regionMatches(i + 1, keyword, 1, keyword.length() - 1)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void indexAnchors() {
+        anchorOffsets = new int[ANCHORS.size()][];
+        anchorCounts = new int[ANCHORS.size()];
+        for (int id = 0; id < anchorOffsets.length; id++) {
+            anchorOffsets[id] = new int[4];
+        }
+        String lower = lower();
+        int state = 0;
+        for (int i = 0; i < lower.length(); i++) {
+            state = ANCHOR_AUTOMATON.next(state, lower.charAt(i));
+            for (int id : ANCHOR_AUTOMATON.output(state)) {
+                int[] offsets = anchorOffsets[id];
+                if (anchorCounts[id] == offsets.length) {
+                    offsets = anchorOffsets[id] = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[anchorCounts[id]++] = i + 1 - ANCHORS.get(id).length();
+            }
+        }
+    }
+
+    /** Line terminators are those of the regex {@code \R}. */
+    private void indexLines() {
+        int[] starts = new int[16];
+        int count = 1;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!isLineBreak(c)) {
+                continue;
+            }
+            if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                i++;
+            }
+            if (i + 1 < text.length()) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = i + 1;
+            }
+        }
+        lineStarts = starts;
+        lineCount = text.isEmpty() ? 0 : count;
+    }
+
+    private static boolean isLineBreak(char c) {
+        return c == '\n' || c == '\r' || c == '\u000B' || c == '\u000C'
+                || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * Lowercases without changing any offset, so positions found in the
+     * lowercase text are valid in the original.
+     */
+    private static String lowerCase(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        if (lower.length() == text.length()) {
+            return lower;
+        }
+        char[] chars = new char[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(text.charAt(i));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,98 @@
+package com.demo.text;
+
+/**
+ * Regex input that aborts the search reading it once a time limit has passed.
+ * {@code java.util.regex} cannot be interrupted, but a backtracking matcher
+ * keeps reading its input, so the clock is checked every
+ * {@value #CHECK_INTERVAL} reads and the search is unwound with a
+ * {@link MatchTimeoutException}, or with a {@link DeadlineExceededException}
+ * when the whole parse is out of time. The clock starts at the first check, so
+ * searches shorter than that are never timed. Sub-sequences are not guarded; the matcher
+ * only takes them to copy out groups.
+ * <p>
+ * Strings and {@link TextWindow}s are read straight from the backing string,
+ * so the guard costs a counter per read rather than another call.
+ */
+public final class GuardedCharSequence implements CharSequence {
+
+    static final int CHECK_INTERVAL = 1024;
+
+    private final CharSequence input;
+    private final String text;
+    private final int offset;
+    private final int length;
+    private long limit;
+    private Deadline deadline = Deadline.none();
+    private boolean timing;
+    private long started;
+    private int reads;
+
+    GuardedCharSequence(CharSequence input) {
+        this.input = input;
+        this.length = input.length();
+        if (input instanceof String string) {
+            this.text = string;
+            this.offset = 0;
+        } else if (input instanceof TextWindow window) {
+            this.text = window.getView().getText();
+            this.offset = window.getStart();
+        } else {
+            this.text = null;
+            this.offset = 0;
+        }
+    }
+
+    /** Starts a search that may run for {@code limit} nanoseconds once timed, and not past {@code deadline}. */
+    void arm(long limit, Deadline deadline) {
+        this.limit = limit;
+        this.deadline = deadline;
+        this.timing = false;
+        this.reads = 0;
+    }
+
+    /** Nanoseconds the current search has been timed for. */
+    long elapsed() {
+        return timing ? System.nanoTime() - started : 0;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (++reads == CHECK_INTERVAL) {
+            reads = 0;
+            checkClock();
+        }
+        if (text == null) {
+            return input.charAt(index);
+        }
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return text.charAt(offset + index);
+    }
+
+    private void checkClock() {
+        deadline.check();
+        long now = System.nanoTime();
+        if (!timing) {
+            timing = true;
+            started = now;
+        } else if (now - started > limit) {
+            throw new MatchTimeoutException();
+        }
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return input.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return input.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.demo.text;
+
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A {@link Matcher} whose searches are charged to a {@link MatchBudget}. A
+ * search that runs out of budget reports no match, and so does every later
+ * search of the same matcher, so the caller falls through to its next
+ * strategy as if the pattern had not matched.
+ */
+public final class GuardedMatcher {
+
+    private final MatchBudget budget;
+    private final Pattern pattern;
+    private final GuardedCharSequence input;
+    private final Matcher matcher;
+    private final Supplier<Boolean> search;
+    private boolean abandoned;
+
+    GuardedMatcher(MatchBudget budget, Pattern pattern, CharSequence input) {
+        this.budget = budget;
+        this.pattern = pattern;
+        this.input = new GuardedCharSequence(input);
+        this.matcher = pattern.matcher(this.input);
+        this.search = matcher::find;
+    }
+
+    public boolean find() {
+        if (abandoned) {
+            return false;
+        }
+        Boolean found = budget.search(pattern.pattern(), input, search);
+        if (found == null) {
+            abandoned = true;
+            return false;
+        }
+        return found;
+    }
+
+    public String group() {
+        return matcher.group();
+    }
+
+    public String group(int group) {
+        return matcher.group(group);
+    }
+
+    public int start() {
+        return matcher.start();
+    }
+
+    public int end() {
+        return matcher.end();
+    }
+
+    public int start(int group) {
+        return matcher.start(group);
+    }
+
+    public int end(int group) {
+        return matcher.end(group);
+    }
+}
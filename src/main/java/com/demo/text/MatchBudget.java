@@ -0,0 +1,95 @@
+package com.demo.text;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Time allowed for regex searches while one statement is parsed. Each search
+ * may run for at most the per-match limit and is charged against the total
+ * for the parse, except searches too short for {@link GuardedCharSequence}
+ * to time; a search that overruns is abandoned and the pattern is
+ * recorded, and once the total is spent every further search finds nothing.
+ * A pathological pattern on malformed text therefore costs a bounded amount
+ * of time instead of pinning the request thread.
+ * <p>
+ * The parse's {@link Deadline} is checked before each search and while it
+ * runs; unlike the budget, a passed deadline stops the parse rather than
+ * just the search.
+ * <p>
+ * Not thread-safe; a budget belongs to a single parse.
+ */
+public final class MatchBudget {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchBudget.class);
+
+    private final long perMatchNanos;
+    private long remainingNanos;
+    private final Deadline deadline;
+    private final List<String> exceeded = new ArrayList<>();
+
+    public MatchBudget(Duration perMatch, Duration perParse) {
+        this(perMatch, perParse, Deadline.none());
+    }
+
+    public MatchBudget(Duration perMatch, Duration perParse, Deadline deadline) {
+        this.perMatchNanos = perMatch.toNanos();
+        this.remainingNanos = perParse.toNanos();
+        this.deadline = deadline;
+    }
+
+    /** A budget that never runs out. */
+    public static MatchBudget unlimited() {
+        return new MatchBudget(Duration.ofNanos(Long.MAX_VALUE), Duration.ofNanos(Long.MAX_VALUE));
+    }
+
+    public GuardedMatcher matcher(Pattern pattern, CharSequence input) {
+        return new GuardedMatcher(this, pattern, input);
+    }
+
+    /** Wraps an input for searches run through {@link #search}. */
+    public GuardedCharSequence guard(CharSequence input) {
+        return new GuardedCharSequence(input);
+    }
+
+    /**
+     * Runs a search that reads {@code input}, returning its result, or
+     * {@code null} when the search ran out of budget.
+     *
+     * @throws DeadlineExceededException if the parse's deadline passes
+     */
+    public <T> T search(String pattern, GuardedCharSequence input, Supplier<T> search) {
+        deadline.check();
+        if (remainingNanos <= 0) {
+            return null;
+        }
+        input.arm(Math.min(perMatchNanos, remainingNanos), deadline);
+        try {
+            return search.get();
+        } catch (MatchTimeoutException e) {
+            exceeded.add(pattern);
+            log.warn("Abandoned regex search after {} ms: {}",
+                    Duration.ofNanos(input.elapsed()).toMillis(), pattern);
+            return null;
+        } finally {
+            remainingNanos -= input.elapsed();
+            if (remainingNanos <= 0) {
+                log.warn("Regex budget for this statement is spent; further searches find nothing");
+            }
+        }
+    }
+
+    public boolean isExhausted() {
+        return remainingNanos <= 0;
+    }
+
+    /** Patterns whose searches were abandoned, in the order it happened. */
+    public List<String> getExceeded() {
+        return List.copyOf(exceeded);
+    }
+}
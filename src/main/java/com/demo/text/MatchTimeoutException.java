@@ -0,0 +1,13 @@
+package com.demo.text;
+
+/**
+ * Thrown from inside a regex search when its {@link GuardedCharSequence}
+ * passes its deadline. It only unwinds the matcher; {@link MatchBudget}
+ * catches it, so it never reaches parser code. No stack trace is recorded.
+ */
+final class MatchTimeoutException extends RuntimeException {
+
+    MatchTimeoutException() {
+        super(null, null, false, false);
+    }
+}
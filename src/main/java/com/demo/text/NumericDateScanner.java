@@ -0,0 +1,121 @@
+package com.demo.text;
+
+/**
+ * Finds {@code d/m/yyyy} dates: one or two digits, a slash, one or two
+ * digits, a slash and four digits. {@link #WORD_BOUNDED} finds what
+ * {@code \b(\d{1,2}/\d{1,2}/\d{4})\b} finds and {@link #ANYWHERE} what
+ * {@code (\d{1,2}/\d{1,2}/\d{4})} finds, including the regex's choice of
+ * start when more digits precede the date, but scans with plain character
+ * tests and reports offsets instead of allocating a {@code Matcher}.
+ * <p>
+ * Word boundaries follow {@code java.util.regex} without flags: letters,
+ * digits and {@code _} are word characters, and a non-spacing mark counts as
+ * one when it follows a letter or digit.
+ */
+public final class NumericDateScanner {
+
+    public static final NumericDateScanner WORD_BOUNDED = new NumericDateScanner(true);
+    public static final NumericDateScanner ANYWHERE = new NumericDateScanner(false);
+
+    private final boolean wordBounded;
+
+    private NumericDateScanner(boolean wordBounded) {
+        this.wordBounded = wordBounded;
+    }
+
+    public long find(CharSequence text) {
+        return find(text, 0);
+    }
+
+    /** Span of the first date starting at or after {@code from}, or {@link Span#NONE}. */
+    public long find(CharSequence text, int from) {
+        int length = text.length();
+        for (int at = from; at < length; at++) {
+            if (!isDigit(text, at)) {
+                continue;
+            }
+            if (wordBounded && at > 0 && isWordBefore(text, at)) {
+                continue;
+            }
+            int end = matchDate(text, at);
+            if (end >= 0) {
+                return Span.of(at, end);
+            }
+        }
+        return Span.NONE;
+    }
+
+    private int matchDate(CharSequence text, int at) {
+        for (int day = digitRun(text, at, 2); day >= 1; day--) {
+            int month = at + day;
+            if (!isChar(text, month, '/')) {
+                continue;
+            }
+            month++;
+            for (int monthDigits = digitRun(text, month, 2); monthDigits >= 1; monthDigits--) {
+                int year = month + monthDigits;
+                if (!isChar(text, year, '/')) {
+                    continue;
+                }
+                year++;
+                if (digitRun(text, year, 4) < 4) {
+                    continue;
+                }
+                int end = year + 4;
+                if (wordBounded && end < text.length() && isWordAt(text, end)) {
+                    continue;
+                }
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    private static int digitRun(CharSequence text, int at, int max) {
+        int n = 0;
+        while (n < max && isDigit(text, at + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static boolean isDigit(CharSequence text, int at) {
+        if (at >= text.length()) {
+            return false;
+        }
+        char c = text.charAt(at);
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isChar(CharSequence text, int at, char expected) {
+        return at < text.length() && text.charAt(at) == expected;
+    }
+
+    private static boolean isWordBefore(CharSequence text, int at) {
+        int cp = Character.codePointBefore(text, at);
+        return isWord(cp) || (Character.getType(cp) == Character.NON_SPACING_MARK && hasBase(text, at - 1));
+    }
+
+    private static boolean isWordAt(CharSequence text, int at) {
+        int cp = Character.codePointAt(text, at);
+        return isWord(cp) || (Character.getType(cp) == Character.NON_SPACING_MARK && hasBase(text, at));
+    }
+
+    private static boolean isWord(int cp) {
+        return cp == '_' || Character.isLetterOrDigit(cp);
+    }
+
+    /** Whether the marks ending at {@code at} sit on a letter or digit. */
+    private static boolean hasBase(CharSequence text, int at) {
+        for (int i = at; i >= 0; i--) {
+            int cp = Character.codePointAt(text, i);
+            if (Character.isLetterOrDigit(cp)) {
+                return true;
+            }
+            if (Character.getType(cp) != Character.NON_SPACING_MARK) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,45 @@
+package com.demo.text;
+
+/**
+ * Start and end offsets packed into one {@code long}, so the scanners can
+ * report where something was found without allocating.
+ */
+public final class Span {
+
+    /** Returned when nothing was found. */
+    public static final long NONE = -1L;
+
+    private Span() {
+    }
+
+    public static long of(int start, int end) {
+        return ((long) start << 32) | (end & 0xFFFFFFFFL);
+    }
+
+    public static int start(long span) {
+        return (int) (span >>> 32);
+    }
+
+    public static int end(long span) {
+        return (int) span;
+    }
+
+    /** The characters of {@code text} covered by the span. */
+    public static String text(CharSequence text, long span) {
+        return text.subSequence(start(span), end(span)).toString();
+    }
+
+    /** Whether the characters covered by the span are exactly {@code value}. */
+    public static boolean textEquals(CharSequence text, long span, String value) {
+        int start = start(span);
+        if (end(span) - start != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (text.charAt(start + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,109 @@
+package com.demo.text;
+
+import java.util.List;
+
+/**
+ * A section of a {@link DocumentView}, sharing its characters instead of
+ * copying them. Offsets taken and returned by the window's own methods are
+ * relative to its start; {@link #toString()} makes the copy when a
+ * {@code String} is really needed.
+ */
+public final class TextWindow implements CharSequence {
+
+    private final DocumentView view;
+    private final int start;
+    private final int end;
+
+    TextWindow(DocumentView view, int start, int end) {
+        if (start < 0 || end > view.length() || start > end) {
+            throw new IndexOutOfBoundsException("Window " + start + "-" + end + " of " + view.length());
+        }
+        this.view = view;
+        this.start = start;
+        this.end = end;
+    }
+
+    DocumentView getView() {
+        return view;
+    }
+
+    /** Offset of the window's first character in the document. */
+    public int getStart() {
+        return start;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return view.getText().charAt(start + index);
+    }
+
+    @Override
+    public TextWindow subSequence(int from, int to) {
+        if (from < 0 || to > end - start || from > to) {
+            throw new IndexOutOfBoundsException("Range " + from + "-" + to + " of " + (end - start));
+        }
+        return new TextWindow(view, start + from, start + to);
+    }
+
+    /** Window from {@code from} to the end of this one. */
+    public TextWindow from(int from) {
+        return subSequence(from, end - start);
+    }
+
+    /** The first {@code length} characters, or the whole window when it is shorter. */
+    public TextWindow head(int length) {
+        return subSequence(0, Math.min(length, end - start));
+    }
+
+    /**
+     * Characters from {@code before} ahead of {@code pos} to {@code after}
+     * past it, clamped to this window.
+     */
+    public TextWindow around(int pos, int before, int after) {
+        return subSequence(Math.max(0, pos - before), Math.min(end - start, pos + after));
+    }
+
+    /**
+     * Offset of the first occurrence of a lowercase keyword that lies wholly
+     * inside the window, ignoring case, or -1.
+     */
+    public int indexOf(String keyword) {
+        return indexOf(keyword, 0);
+    }
+
+    public int indexOf(String keyword, int from) {
+        int found = view.indexOf(keyword, start + Math.max(from, 0), end);
+        return found >= 0 ? found - start : -1;
+    }
+
+    public boolean contains(String keyword) {
+        return indexOf(keyword) >= 0;
+    }
+
+    public boolean containsAny(List<String> keywords) {
+        for (String keyword : keywords) {
+            if (contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return start == end;
+    }
+
+    @Override
+    public String toString() {
+        return view.getText().substring(start, end);
+    }
+}
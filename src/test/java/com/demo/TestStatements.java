@@ -0,0 +1,104 @@
+package com.demo;
+
+import com.demo.detection.FingerprintIndex;
+import com.demo.model.StatementData;
+import com.demo.parser.AxisBankParser;
+import com.demo.parser.BankOfBarodaParser;
+import com.demo.parser.HDFCParser;
+import com.demo.parser.ICICIParser;
+import com.demo.parser.KotakBankParser;
+import com.demo.parser.ParseContextFactory;
+import com.demo.parser.SBIParser;
+import com.demo.pdf.PdfSource;
+import com.demo.service.ParseResultCache;
+import com.demo.service.StatementParserService;
+import com.demo.text.Deadline;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.encryption.AccessPermission;
+import org.apache.pdfbox.pdmodel.encryption.StandardProtectionPolicy;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+/** Statement PDFs and a parser service for tests, built without Spring. */
+public final class TestStatements {
+
+	public static final String[] HDFC = {"HDFC Bank Credit Card Statement", "Card No: 4567 89XX XXXX 1234",
+			"Payment Due Date: 05/03/2024", "Total Dues: 45,678.90"};
+
+	private TestStatements() {
+	}
+
+	/** A service with every parser, no result cache and no learned fingerprints. */
+	public static StatementParserService parserService() {
+		return parserService(FingerprintIndex.disabled());
+	}
+
+	/** A service with every parser, no result cache and the given fingerprint index. */
+	public static StatementParserService parserService(FingerprintIndex fingerprints) {
+		return new StatementParserService(ParseContextFactory.defaults(), new ParseResultCache(0, Duration.ofMinutes(1)),
+				fingerprints, new BankOfBarodaParser(), new HDFCParser(), new ICICIParser(), new SBIParser(),
+				new AxisBankParser(), new KotakBankParser());
+	}
+
+	/**
+	 * A service like {@link #parserService()} whose every parse counts down
+	 * {@code started} and then waits for {@code release} before it begins.
+	 */
+	public static StatementParserService gatedParserService(CountDownLatch started, CountDownLatch release) {
+		return new StatementParserService(ParseContextFactory.defaults(), new ParseResultCache(0, Duration.ofMinutes(1)),
+				FingerprintIndex.disabled(), new BankOfBarodaParser(), new HDFCParser(), new ICICIParser(),
+				new SBIParser(), new AxisBankParser(), new KotakBankParser()) {
+
+			@Override
+			public StatementData parseStatement(PdfSource source, String password, Deadline deadline)
+					throws IOException {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.parseStatement(source, password, deadline);
+			}
+		};
+	}
+
+	/** A one-page PDF showing {@code lines}. */
+	public static byte[] pdf(String... lines) throws IOException {
+		return encrypted(null, lines);
+	}
+
+	/** A one-page PDF showing {@code lines}, encrypted with {@code password} unless it is null. */
+	public static byte[] encrypted(String password, String... lines) throws IOException {
+		try (PDDocument document = new PDDocument()) {
+			PDPage page = new PDPage();
+			document.addPage(page);
+			try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+				content.beginText();
+				content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
+				content.setLeading(12);
+				content.newLineAtOffset(40, 740);
+				for (String line : lines) {
+					content.showText(line);
+					content.newLine();
+				}
+				content.endText();
+			}
+			if (password != null) {
+				StandardProtectionPolicy policy = new StandardProtectionPolicy(password, password, new AccessPermission());
+				policy.setEncryptionKeyLength(128);
+				document.protect(policy);
+			}
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			document.save(out);
+			return out.toByteArray();
+		}
+	}
+}
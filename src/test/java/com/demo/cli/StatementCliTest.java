@@ -0,0 +1,106 @@
+package com.demo.cli;
+
+import com.demo.TestStatements;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementCliTest {
+
+	@TempDir
+	Path directory;
+
+	private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+	@Test
+	void writesOneCsvRowPerPdfInTheDirectory() throws Exception {
+		Files.write(directory.resolve("a.pdf"), TestStatements.pdf(TestStatements.HDFC));
+		Files.write(directory.resolve("b.pdf"), TestStatements.encrypted("secret", TestStatements.HDFC));
+		Files.write(directory.resolve("c.pdf"), new byte[] {1, 2, 3});
+		Files.write(directory.resolve("notes.txt"), new byte[] {1});
+
+		int status = run(Map.of("PDF_PASSWORD", "secret"), "--format", "csv", "--parallelism", "2",
+				"--password-env", "PDF_PASSWORD", directory.toString());
+
+		String[] rows = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(1, status);
+		assertEquals(CsvResults.HEADER, rows[0]);
+		assertEquals(4, rows.length);
+		String a = find(rows, "a.pdf");
+		assertTrue(a.contains(",true,HDFC,1234,"), a);
+		assertTrue(a.contains(",2024-03-05,45678.90,"), a);
+		assertTrue(find(rows, "b.pdf").contains(",true,HDFC,"));
+		assertTrue(find(rows, "c.pdf").contains(",false,,,,,,,,\"Error parsing PDF: "));
+	}
+
+	@Test
+	void writesNdjsonForFilesListedOnStandardInput() throws Exception {
+		Path statement = Files.write(directory.resolve("a.pdf"), TestStatements.pdf(TestStatements.HDFC));
+		Path passwords = Files.writeString(directory.resolve("passwords.properties"), "a.pdf=unused\n");
+
+		int status = StatementCli.run(new String[] {"--passwords", passwords.toString(), "--files-from", "-"},
+				new ByteArrayInputStream((statement + "\n").getBytes(StandardCharsets.UTF_8)), out,
+				new PrintStream(err), Map.of());
+
+		JsonNode line = new ObjectMapper().readTree(out.toString(StandardCharsets.UTF_8));
+		assertEquals(0, status);
+		assertEquals(statement.toString(), line.get("name").asText());
+		assertEquals("HDFC", line.at("/statement/issuer").asText());
+	}
+
+	@Test
+	void rejectsBadArguments() {
+		assertEquals(2, run(Map.of()));
+		assertTrue(err.toString().startsWith("Usage"));
+		assertEquals(2, run(Map.of(), "--format", "xml", "a.pdf"));
+		assertEquals(2, run(Map.of(), "--unknown", "x"));
+		assertEquals(0, out.size());
+	}
+
+	@Test
+	void readsAListFileAndReportsResultsThatCannotBeWritten() throws Exception {
+		Path statement = Files.write(directory.resolve("a.pdf"), TestStatements.pdf(TestStatements.HDFC));
+		Path list = Files.writeString(directory.resolve("list.txt"), statement + "\n");
+		OutputStream closed = new OutputStream() {
+
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("Broken pipe");
+			}
+		};
+
+		int status = StatementCli.run(new String[] {"--files-from", list.toString()},
+				new ByteArrayInputStream(new byte[0]), closed, new PrintStream(err), Map.of());
+
+		assertEquals(3, status);
+		assertTrue(err.toString().contains("could not write results: Broken pipe"), err::toString);
+	}
+
+	private int run(Map<String, String> env, String... args) {
+		return StatementCli.run(args, new ByteArrayInputStream(new byte[0]), out, new PrintStream(err), env);
+	}
+
+	private static String find(String[] rows, String file) {
+		for (String row : rows) {
+			if (row.contains(file)) {
+				return row;
+			}
+		}
+		throw new AssertionError(file + " not in output");
+	}
+}
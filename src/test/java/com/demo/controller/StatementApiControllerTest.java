@@ -0,0 +1,150 @@
+package com.demo.controller;
+
+import com.demo.TestStatements;
+import com.demo.service.AsyncStatementParser;
+import com.demo.service.ParseErrors;
+import com.demo.service.StatementBatchService;
+import com.demo.service.StatementParserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class StatementApiControllerTest {
+
+	private final StatementParserService parserService = TestStatements.parserService();
+	private final AsyncStatementParser asyncParser = new AsyncStatementParser(parserService, 2, 4);
+	private final StatementBatchService batchService = new StatementBatchService(parserService, 2, 4);
+	private final MockMvc mvc = MockMvcBuilders.standaloneSetup(
+			new StatementApiController(asyncParser, batchService, new ObjectMapper(), 1 << 20, 1024, Duration.ofSeconds(1))).build();
+
+	@AfterEach
+	void stopWorkers() {
+		asyncParser.close();
+		batchService.close();
+	}
+
+	@Test
+	void parsesOnTheWorkersAndReturnsJson() throws Exception {
+		MockMultipartFile file = new MockMultipartFile("file", "hdfc.pdf", "application/pdf",
+				TestStatements.pdf(TestStatements.HDFC));
+		MvcResult started = mvc.perform(multipart("/api/statements").file(file))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.issuer").value("HDFC"))
+				.andExpect(jsonPath("$.cardLastFour").value("1234"))
+				.andExpect(jsonPath("$.paymentDueDate").value("2024-03-05"))
+				.andExpect(jsonPath("$.totalBalance").value(45678.90))
+				.andExpect(jsonPath("$.statementPeriod").value(nullValue()))
+				.andExpect(jsonPath("$.transactions").isArray());
+	}
+
+	@Test
+	void reportsUnreadableUploads() throws Exception {
+		MockMultipartFile garbage = new MockMultipartFile("file", "x.pdf", "application/pdf", new byte[] {1, 2, 3});
+		MvcResult started = mvc.perform(multipart("/api/statements").file(garbage))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mvc.perform(asyncDispatch(started))
+				.andExpect(status().isUnprocessableEntity())
+				.andExpect(jsonPath("$.error", startsWith("Error parsing PDF")));
+
+		MockMultipartFile text = new MockMultipartFile("file", "x.txt", "text/plain", new byte[] {1});
+		mvc.perform(multipart("/api/statements").file(text))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void streamsOneLinePerUploadedFile() throws Exception {
+		MvcResult started = mvc.perform(multipart("/api/statements/batch")
+						.file(new MockMultipartFile("files", "a.pdf", "application/pdf", TestStatements.pdf(TestStatements.HDFC)))
+						.file(new MockMultipartFile("files", "b.pdf", "application/pdf", new byte[] {1, 2, 3}))
+						.file(new MockMultipartFile("files", "c.pdf", "application/pdf", TestStatements.pdf(TestStatements.HDFC))))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		Map<String, JsonNode> lines = lines(body);
+		assertEquals(Set.of("a.pdf", "b.pdf", "c.pdf"), lines.keySet());
+		assertEquals(2, lines.get("c.pdf").get("index").asInt());
+		assertEquals("HDFC", lines.get("a.pdf").at("/statement/issuer").asText());
+		assertFalse(lines.get("b.pdf").get("success").asBoolean());
+	}
+
+	@Test
+	void streamsOneLinePerPdfInTheArchive() throws Exception {
+		ByteArrayOutputStream archive = new ByteArrayOutputStream();
+		try (ZipOutputStream zip = new ZipOutputStream(archive)) {
+			add(zip, "passwords.properties", "locked.pdf=secret\n".getBytes(StandardCharsets.ISO_8859_1));
+			add(zip, "hdfc.pdf", TestStatements.pdf(TestStatements.HDFC));
+			add(zip, "notes.txt", new byte[] {1});
+			add(zip, "march/locked.pdf", TestStatements.encrypted("secret", TestStatements.HDFC));
+			add(zip, "wrong.pdf", TestStatements.encrypted("other", TestStatements.HDFC));
+			add(zip, "huge.pdf", new byte[(1 << 20) + 1]);
+		}
+
+		MvcResult started = mvc.perform(post("/api/statements/bulk")
+						.contentType("application/zip")
+						.header("X-Statement-Password", "default")
+						.content(archive.toByteArray()))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		Map<String, JsonNode> lines = lines(body);
+		assertEquals(Set.of("hdfc.pdf", "march/locked.pdf", "wrong.pdf", "huge.pdf"), lines.keySet());
+		assertEquals("1234", lines.get("hdfc.pdf").at("/statement/cardLastFour").asText());
+		assertEquals("HDFC", lines.get("march/locked.pdf").at("/statement/issuer").asText());
+		assertEquals(ParseErrors.WRONG_PASSWORD, lines.get("wrong.pdf").get("error").asText());
+		assertTrue(lines.get("huge.pdf").get("error").asText().contains("larger than"));
+	}
+
+	private static Map<String, JsonNode> lines(String ndjson) throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		Map<String, JsonNode> lines = new HashMap<>();
+		for (String line : ndjson.split("\n")) {
+			JsonNode node = mapper.readTree(line);
+			lines.put(node.get("name").asText(), node);
+		}
+		return lines;
+	}
+
+	private static void add(ZipOutputStream zip, String name, byte[] content) throws IOException {
+		zip.putNextEntry(new ZipEntry(name));
+		zip.write(content);
+		zip.closeEntry();
+	}
+}
@@ -0,0 +1,37 @@
+package com.demo.detection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FingerprintIndexTest {
+
+	private final FingerprintIndex index = new FingerprintIndex(true, null, 0.75, 2);
+
+	@Test
+	void matchesNothingUntilTwoIssuersAreKnown() {
+		DocumentFingerprint generic = DocumentFingerprint.of(List.of("fonts:Helvetica", "producer:iText 5.5.13"));
+		index.learn(generic, "HDFC");
+		index.learn(generic, "HDFC");
+		assertNull(index.match(generic));
+	}
+
+	@Test
+	void weighsFeaturesByHowWellTheyTellIssuersApart() {
+		DocumentFingerprint hdfc = DocumentFingerprint.of(List.of("fonts:Helvetica", "creator:HDFC Statements"));
+		DocumentFingerprint sbi = DocumentFingerprint.of(List.of("fonts:Helvetica", "creator:SBI Card"));
+		for (int i = 0; i < 3; i++) {
+			index.learn(hdfc, "HDFC");
+			index.learn(sbi, "SBI");
+		}
+
+		// the shared font is worth nothing, leaving half the features as evidence
+		assertNull(index.match(DocumentFingerprint.of(List.of("fonts:Helvetica", "creator:HDFC Statements"))));
+		FingerprintMatch match = index.match(DocumentFingerprint.of(List.of("creator:SBI Card")));
+		assertEquals("SBI", match.getIssuer());
+		assertEquals(1.0, match.getConfidence(), 1e-9);
+	}
+}
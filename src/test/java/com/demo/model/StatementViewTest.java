@@ -0,0 +1,57 @@
+package com.demo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StatementViewTest {
+
+	@Test
+	void readsRangesWithAnySeparator() {
+		DateRange expected = new DateRange((int) LocalDate.of(2024, 1, 16).toEpochDay(),
+				(int) LocalDate.of(2024, 2, 15).toEpochDay());
+		assertEquals(expected, DateRange.parse("16/01/2024 - 15/02/2024"));
+		assertEquals(expected, DateRange.parse("16/01/2024 to 15/02/2024"));
+		assertEquals(expected, DateRange.parse("16-Jan-24 – 15-Feb-24"));
+		assertEquals(expected, DateRange.parse("16-1-2024-15-2-2024"));
+		assertEquals("16/01/2024 - 15/02/2024", expected.toString());
+		assertEquals("15/02/2024", DateRange.parse("15 Feb 2024").toString());
+		assertNull(DateRange.parse("N/A"));
+		assertNull(DateRange.parse("16/01/2024 until 15/02/2024"));
+	}
+
+	@Test
+	void rendersAbsentFieldsAsNotAvailable() {
+		StatementView view = StatementView.of(new StatementData());
+		assertEquals("Unknown", view.getCardProvider());
+		assertEquals("N/A", view.getCardLastFourDigits());
+		assertEquals("N/A", view.getCardVariant());
+		assertEquals("N/A", view.getBillingCycle());
+		assertEquals("N/A", view.getPaymentDueDate());
+		assertEquals("N/A", view.getTotalBalance());
+		assertEquals("N/A", view.getTotalTransactions());
+		assertEquals("N/A", view.getStatementPeriod());
+	}
+
+	@Test
+	void rendersTypedFields() {
+		StatementData data = new StatementData();
+		data.setIssuer(CardIssuer.KOTAK);
+		data.setCardLastFour(42);
+		data.setPaymentDueDate((int) LocalDate.of(2024, 3, 5).toEpochDay());
+		data.setTotalBalance(1234567899L);
+		data.setTotalTransactions(0);
+		StatementView view = StatementView.of(data);
+		assertEquals("Kotak Bank", view.getCardProvider());
+		assertEquals("0042", view.getCardLastFourDigits());
+		assertEquals("05/03/2024", view.getPaymentDueDate());
+		assertEquals("₹1,23,45,678.99", view.getTotalBalance());
+		assertEquals("0", view.getTotalTransactions());
+
+		data.setTotalBalance(-50L);
+		assertEquals("-₹0.50", StatementView.of(data).getTotalBalance());
+	}
+}
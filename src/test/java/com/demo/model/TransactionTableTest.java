@@ -0,0 +1,58 @@
+package com.demo.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionTableTest {
+
+	@Test
+	void storesRowsByColumn() {
+		String text = "05/03/2024 SWIGGY BANGALORE 450.00";
+		TransactionTable table = TransactionTable.builder()
+				.add(19787, 45000, text, 11, 27)
+				.add(19788, -120050, "REFUND SWIGGY")
+				.build();
+		assertEquals(2, table.size());
+		assertEquals(19787, table.date(0));
+		assertEquals("SWIGGY BANGALORE", table.description(0));
+		assertEquals(45000, table.amount(0));
+		assertFalse(table.isCredit(0));
+		assertEquals(120050, table.amount(1));
+		assertEquals(-120050, table.signedAmount(1));
+		assertTrue(table.isCredit(1));
+		assertEquals(45000, table.totalDebits());
+		assertEquals(120050, table.totalCredits());
+		assertThrows(IndexOutOfBoundsException.class, () -> table.date(2));
+	}
+
+	@Test
+	void storesEachDescriptionOnce() {
+		TransactionTable.Builder builder = TransactionTable.builder();
+		String text = "AMAZON PAY|UBER|AMAZON PAY|";
+		for (int i = 0; i < 2000; i++) {
+			builder.add(19723 + i % 28, 100 * i, "MERCHANT " + (i % 100));
+		}
+		builder.add(19723, 1, text, 0, 10).add(19723, 1, text, 11, 15).add(19723, 1, text, 16, 26);
+		TransactionTable table = builder.build();
+
+		assertEquals(2003, table.size());
+		assertEquals(102, table.descriptionCount());
+		assertEquals(table.descriptionId(0), table.descriptionId(100));
+		assertEquals("MERCHANT 99", table.description(1999));
+		assertEquals(table.descriptionId(2000), table.descriptionId(2002));
+		assertEquals("UBER", table.descriptionOf(table.descriptionId(2001)));
+		assertSame(table.description(5), table.description(105));
+	}
+
+	@Test
+	void buildsEmptyTableWhenNothingWasAdded() {
+		assertSame(TransactionTable.EMPTY, TransactionTable.builder().build());
+		assertTrue(TransactionTable.EMPTY.isEmpty());
+		assertEquals(0, TransactionTable.EMPTY.totalDebits());
+	}
+}
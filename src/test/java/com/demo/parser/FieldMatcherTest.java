@@ -0,0 +1,128 @@
+package com.demo.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FieldMatcherTest {
+
+	private static final PatternCatalog.Issuer CATALOG = PatternCatalog.issuer("FieldMatcherTest");
+
+	private static final List<List<Pattern>> FIELDS = List.of(
+			List.of(
+					Pattern.compile("total\\s+amount\\s+due\\s*\\(?(?:tad|payable)\\)?\\s*[:]\\s*[Rr][Ss]\\.?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+					Pattern.compile("total\\s+amount\\s+due\\s*[:]\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+					Pattern.compile("total\\s+amount\\s+due\\s*[:]?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+					Pattern.compile("amount\\s+due\\s*[:]?\\s*([-]?[\\d,]+(?:\\.\\d{2})?)", Pattern.CASE_INSENSITIVE),
+					Pattern.compile("due\\s+(\\d+)")),
+			// Overlapping alternatives that mask each other at the same position
+			List.of(
+					Pattern.compile("a(b+)c"),
+					Pattern.compile("(a)b"),
+					Pattern.compile("(b+)"),
+					Pattern.compile("(?:x|a)(b*)"),
+					Pattern.compile("(c)")),
+			List.of(
+					Pattern.compile("(?<=a)(b)"),
+					Pattern.compile("\\b(ab)\\b"),
+					Pattern.compile("^(a)", Pattern.MULTILINE),
+					Pattern.compile("(B)", Pattern.CASE_INSENSITIVE)));
+
+	private static final String[] TOKENS = {
+			"total", "amount", "due", "Total Amount Due", " ", "  ", "\n", ":", "(tad)", "payable", "Rs.", "rs",
+			"1,234.56", "-99", "7", "42", "a", "b", "ab", "abc", "bb", "c", "x", "B", "AB", "."};
+
+	@Test
+	void matchesOrderedFallbackOnRandomText() {
+		Random random = new Random(20240215);
+		List<Predicate<MatchResult>> predicates = List.of(
+				match -> true,
+				match -> match.start() % 2 == 0,
+				match -> match.group(1) != null && match.group(1).length() % 3 != 1,
+				match -> match.end() - match.start() > 2);
+		for (int i = 0; i < 4000; i++) {
+			String text = randomText(random);
+			for (List<Pattern> field : FIELDS) {
+				FieldMatcher matcher = FieldMatcher.of(CATALOG, field);
+				for (Predicate<MatchResult> accept : predicates) {
+					assertEquals(describe(orderedFallback(field, text, accept)),
+							describe(matcher.find(text, accept)),
+							"field " + field + " on \"" + text + "\"");
+				}
+			}
+		}
+	}
+
+	@Test
+	void groupsAreRelativeToTheMatchingPattern() {
+		FieldMatcher matcher = FieldMatcher.of(CATALOG,
+				Pattern.compile("(x)(y)(z)"),
+				Pattern.compile("due\\s*:\\s*(\\d+)", Pattern.CASE_INSENSITIVE));
+
+		FieldMatch match = matcher.find("Payment DUE : 42");
+
+		assertEquals(1, match.alternative());
+		assertEquals(1, match.groupCount());
+		assertEquals("42", match.group(1));
+		assertEquals("DUE : 42", match.group());
+		assertEquals(8, match.start());
+	}
+
+	@Test
+	void returnsNullWhenNothingIsAccepted() {
+		FieldMatcher matcher = FieldMatcher.of(CATALOG, Pattern.compile("(\\d+)"));
+
+		assertNull(matcher.find("1 22 333", match -> match.group(1).length() > 3));
+	}
+
+	@Test
+	void rejectsBackReferences() {
+		assertThrows(IllegalArgumentException.class,
+				() -> FieldMatcher.of(CATALOG, Pattern.compile("(a)\\1")));
+	}
+
+	private static String randomText(Random random) {
+		StringBuilder text = new StringBuilder();
+		int tokens = random.nextInt(14);
+		for (int i = 0; i < tokens; i++) {
+			text.append(TOKENS[random.nextInt(TOKENS.length)]);
+			if (random.nextBoolean()) {
+				text.append(' ');
+			}
+		}
+		return text.toString();
+	}
+
+	private static MatchResult orderedFallback(List<Pattern> field, String text, Predicate<MatchResult> accept) {
+		for (Pattern pattern : field) {
+			Matcher matcher = pattern.matcher(text);
+			while (matcher.find()) {
+				if (accept.test(matcher)) {
+					return matcher.toMatchResult();
+				}
+			}
+		}
+		return null;
+	}
+
+	private static String describe(MatchResult match) {
+		if (match == null) {
+			return "none";
+		}
+		List<String> groups = new ArrayList<>();
+		for (int g = 0; g <= match.groupCount(); g++) {
+			groups.add(match.start(g) + "-" + match.end(g) + ":" + match.group(g));
+		}
+		return groups.toString();
+	}
+}
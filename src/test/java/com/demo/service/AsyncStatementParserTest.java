@@ -0,0 +1,67 @@
+package com.demo.service;
+
+import com.demo.TestStatements;
+import com.demo.detection.FingerprintIndex;
+import com.demo.model.StatementData;
+import com.demo.parser.AxisBankParser;
+import com.demo.parser.BankOfBarodaParser;
+import com.demo.parser.HDFCParser;
+import com.demo.parser.ICICIParser;
+import com.demo.parser.KotakBankParser;
+import com.demo.parser.ParseContextFactory;
+import com.demo.parser.SBIParser;
+import com.demo.pdf.PdfSource;
+import com.demo.text.Deadline;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncStatementParserTest {
+
+	@Test
+	void deletesTheUploadOfAParseCancelledWhileQueued() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		StatementParserService parserService = new StatementParserService(ParseContextFactory.defaults(),
+				new ParseResultCache(0, Duration.ofMinutes(1)), FingerprintIndex.disabled(), new BankOfBarodaParser(),
+				new HDFCParser(), new ICICIParser(), new SBIParser(), new AxisBankParser(), new KotakBankParser()) {
+
+			@Override
+			public StatementData parseStatement(PdfSource source, String password, Deadline deadline)
+					throws IOException {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.parseStatement(source, password, deadline);
+			}
+		};
+		byte[] pdf = TestStatements.pdf(TestStatements.HDFC);
+		try (AsyncStatementParser asyncParser = new AsyncStatementParser(parserService, 1, 1)) {
+			PdfSource running = PdfSource.spool(new ByteArrayInputStream(pdf));
+			CompletableFuture<StatementData> first = asyncParser.parse(running, null, false);
+			assertTrue(started.await(10, TimeUnit.SECONDS));
+
+			PdfSource queued = PdfSource.spool(new ByteArrayInputStream(pdf));
+			assertTrue(Files.exists(queued.getPath()));
+			asyncParser.parse(queued, null, false).cancel(true);
+			assertFalse(Files.exists(queued.getPath()));
+
+			release.countDown();
+			assertEquals(1234, first.get(10, TimeUnit.SECONDS).getCardLastFour());
+			assertFalse(Files.exists(running.getPath()));
+		}
+	}
+}
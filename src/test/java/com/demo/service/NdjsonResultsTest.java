@@ -0,0 +1,51 @@
+package com.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NdjsonResultsTest {
+
+	@Test
+	void holdsLinesUntilFlushedOrTheBufferFills() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		NdjsonResults results = new NdjsonResults(new ObjectMapper(), out, 4096, Duration.ofHours(1));
+
+		List<BatchResult> batch = failures(3);
+		results.write(batch.get(0));
+		results.write(batch.get(1));
+		assertEquals(0, out.size());
+
+		results.flush();
+		assertEquals(2, out.toString().split("\n").length);
+
+		NdjsonResults small = new NdjsonResults(new ObjectMapper(), out, 64, Duration.ofHours(1));
+		small.write(batch.get(2));
+		assertTrue(out.toString().split("\n").length >= 3);
+	}
+
+	@Test
+	void flushesOnEveryLineOnceTheDelayHasPassed() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		NdjsonResults results = new NdjsonResults(new ObjectMapper(), out, 4096, Duration.ZERO);
+
+		results.write(failures(1).get(0));
+		assertTrue(out.toString().endsWith("}\n"));
+	}
+
+	private static List<BatchResult> failures(int count) {
+		List<BatchResult> results = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			results.add(BatchResult.failure(i, i + ".pdf", new IOException("unreadable")));
+		}
+		return results;
+	}
+}
@@ -0,0 +1,45 @@
+package com.demo.service;
+
+import com.demo.model.CardIssuer;
+import com.demo.model.StatementData;
+import com.demo.model.TransactionTable;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ParseResultCacheTest {
+
+	@Test
+	void keepsCachedStatementsApartFromWhatCallersChange() {
+		ParseResultCache cache = new ParseResultCache(1 << 20, Duration.ofMinutes(1));
+		StatementData parsed = new StatementData();
+		parsed.setIssuer(CardIssuer.HDFC);
+		parsed.setCardLastFour(1234);
+		parsed.setTransactions(TransactionTable.builder().add(19000, 12345, "AMAZON").build());
+		cache.put("key", parsed);
+		parsed.setCardLastFour(9999);
+
+		StatementData first = cache.get("key");
+		assertEquals(1234, first.getCardLastFour());
+		first.setIssuer(CardIssuer.SBI);
+		first.setTotalBalance(1);
+
+		StatementData second = cache.get("key");
+		assertNotSame(first, second);
+		assertEquals(CardIssuer.HDFC, second.getIssuer());
+		assertEquals(StatementData.NO_AMOUNT, second.getTotalBalance());
+		assertSame(parsed.getTransactions(), second.getTransactions());
+	}
+
+	@Test
+	void cachesNothingWhenDisabled() {
+		ParseResultCache cache = new ParseResultCache(0, Duration.ofMinutes(1));
+		cache.put("key", new StatementData());
+		assertNull(cache.get("key"));
+	}
+}
@@ -0,0 +1,81 @@
+package com.demo.service;
+
+import com.demo.TestStatements;
+import com.demo.model.CardIssuer;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementBatchServiceTest {
+
+	private final StatementParserService parserService = TestStatements.parserService();
+
+	@Test
+	void returnsResultsInRequestOrderAndIsolatesFailures() throws Exception {
+		byte[] hdfc = TestStatements.pdf(TestStatements.HDFC);
+		List<ParseRequest> requests = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			if (i % 5 == 3) {
+				requests.add(new ParseRequest("missing-" + i, () -> {
+					throw new FileNotFoundException("missing");
+				}, null));
+			} else if (i % 5 == 4) {
+				requests.add(ParseRequest.of("garbage-" + i, new byte[] {1, 2, 3}, null));
+			} else {
+				requests.add(ParseRequest.of("hdfc-" + i, hdfc, null));
+			}
+		}
+
+		try (StatementBatchService batch = new StatementBatchService(parserService, 3, 4)) {
+			List<BatchResult> results = batch.parseAll(requests);
+			assertEquals(20, results.size());
+			for (int i = 0; i < 20; i++) {
+				BatchResult result = results.get(i);
+				assertEquals(i, result.getIndex());
+				assertEquals(requests.get(i).getName(), result.getName());
+				if (i % 5 == 3) {
+					assertInstanceOf(FileNotFoundException.class, result.getError());
+				} else if (i % 5 == 4) {
+					assertFalse(result.isSuccess(), result::toString);
+				} else {
+					assertTrue(result.isSuccess(), result::toString);
+					assertEquals(CardIssuer.HDFC, result.getData().getIssuer());
+					assertEquals(1234, result.getData().getCardLastFour());
+				}
+			}
+		}
+	}
+
+	@Test
+	void streamsEveryResultOnTheCallingThread() throws Exception {
+		byte[] pdf = TestStatements.pdf("Unrelated document");
+		List<ParseRequest> requests = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			requests.add(ParseRequest.of("doc-" + i, pdf, null));
+		}
+		Thread caller = Thread.currentThread();
+		boolean[] seen = new boolean[10];
+		try (StatementBatchService batch = new StatementBatchService(parserService, 2, 2)) {
+			batch.parseAll(requests, result -> {
+				assertEquals(caller, Thread.currentThread());
+				assertEquals(CardIssuer.UNKNOWN, result.getData().getIssuer());
+				seen[result.getIndex()] = true;
+			});
+			for (boolean each : seen) {
+				assertTrue(each);
+			}
+
+			assertThrows(IllegalStateException.class, () -> batch.parseAll(requests, result -> {
+				throw new IllegalStateException("stop");
+			}));
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package com.demo.service;
+
+import com.demo.TestStatements;
+import com.demo.config.ParserProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementIngesterTest {
+
+	@TempDir
+	Path root;
+
+	@Test
+	void parsesDroppedFilesIntoResultsAndFailures() throws Exception {
+		ParserProperties.Ingest settings = new ParserProperties.Ingest();
+		settings.setInbox(root.resolve("inbox"));
+		settings.setResults(root.resolve("results"));
+		settings.setFailed(root.resolve("failed"));
+		settings.setStatsFile(root.resolve("stats.json"));
+		settings.setProcessed(root.resolve("processed"));
+		settings.setParallelism(2);
+		settings.setQueueCapacity(1);
+		settings.setSettleTime(Duration.ZERO);
+		settings.setPollInterval(Duration.ofMillis(100));
+		byte[] hdfc = TestStatements.pdf(TestStatements.HDFC);
+		// left behind by a run that stopped mid-parse
+		Files.createDirectories(settings.getInbox().resolve(StatementIngester.PROCESSING));
+		Files.write(settings.getInbox().resolve(StatementIngester.PROCESSING).resolve("leftover.pdf"), hdfc);
+
+		ObjectMapper mapper = new ObjectMapper();
+		try (StatementIngester ingester = new StatementIngester(TestStatements.parserService(), mapper, settings)) {
+			ingester.start();
+			for (int i = 0; i < 5; i++) {
+				drop(settings, "hdfc-" + i + ".pdf", hdfc);
+			}
+			drop(settings, "garbage.pdf", new byte[] {1, 2, 3});
+			Files.write(settings.getInbox().resolve("notes.txt"), new byte[] {1});
+
+			long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+			while ((long) ingester.stats().get("succeeded") + (long) ingester.stats().get("failed") < 7
+					&& System.nanoTime() < deadline) {
+				Thread.sleep(50);
+			}
+
+			Map<String, Object> stats = ingester.stats();
+			assertEquals(6L, stats.get("succeeded"), stats::toString);
+			assertEquals(1L, stats.get("failed"), stats::toString);
+			assertEquals(0, stats.get("backlog"));
+			assertEquals(7L, stats.get("lastMinute"));
+		}
+
+		assertEquals(6, mapper.readTree(settings.getStatsFile().toFile()).get("succeeded").asInt());
+		JsonNode result = mapper.readTree(settings.getResults().resolve("hdfc-3.json").toFile());
+		assertEquals("HDFC", result.get("issuer").asText());
+		assertTrue(Files.exists(settings.getResults().resolve("leftover.json")));
+		assertTrue(Files.exists(settings.getProcessed().resolve("hdfc-3.pdf")));
+		assertTrue(Files.exists(settings.getFailed().resolve("garbage.pdf")));
+		assertTrue(Files.readString(settings.getFailed().resolve("garbage.error.txt")).startsWith("IOException"));
+		assertTrue(Files.exists(settings.getInbox().resolve("notes.txt")));
+		assertFalse(Files.exists(settings.getInbox().resolve("hdfc-3.pdf")));
+	}
+
+	@Test
+	void deletesParsedFilesByDefaultAndKeepsSuccessesWhoseArchivingFails() throws Exception {
+		ParserProperties.Ingest settings = new ParserProperties.Ingest();
+		settings.setInbox(root.resolve("inbox"));
+		settings.setResults(root.resolve("results"));
+		settings.setFailed(root.resolve("failed"));
+		settings.setStatsFile(root.resolve("stats.json"));
+		settings.setSettleTime(Duration.ZERO);
+		settings.setPollInterval(Duration.ofMillis(100));
+		byte[] hdfc = TestStatements.pdf(TestStatements.HDFC);
+
+		try (StatementIngester ingester = new StatementIngester(TestStatements.parserService(), new ObjectMapper(),
+				settings)) {
+			ingester.start();
+			drop(settings, "deleted.pdf", hdfc);
+			awaitSucceeded(ingester, 1);
+			assertTrue(Files.exists(settings.getResults().resolve("deleted.json")));
+			assertEquals(List.of(), processing(settings));
+		}
+
+		// a file where the processed directory should be, so the move fails after the result is written
+		settings.setProcessed(root.resolve("processed"));
+		try (StatementIngester ingester = new StatementIngester(TestStatements.parserService(), new ObjectMapper(),
+				settings)) {
+			ingester.start();
+			Files.delete(settings.getProcessed());
+			Files.write(settings.getProcessed(), new byte[0]);
+			drop(settings, "unmoved.pdf", hdfc);
+			awaitSucceeded(ingester, 1);
+			assertEquals(0L, ingester.stats().get("failed"));
+		}
+		assertTrue(Files.exists(settings.getResults().resolve("unmoved.json")));
+		assertFalse(Files.exists(settings.getFailed().resolve("unmoved.pdf")));
+		List<String> left = processing(settings);
+		assertEquals(1, left.size());
+		assertTrue(left.get(0).endsWith("~unmoved.pdf"), left::toString);
+	}
+
+	@Test
+	void parsesAFileDroppedAgainWhileTheFirstOfThatNameIsParsing() throws Exception {
+		ParserProperties.Ingest settings = new ParserProperties.Ingest();
+		settings.setInbox(root.resolve("inbox"));
+		settings.setResults(root.resolve("results"));
+		settings.setFailed(root.resolve("failed"));
+		settings.setStatsFile(root.resolve("stats.json"));
+		settings.setProcessed(root.resolve("processed"));
+		settings.setParallelism(2);
+		settings.setSettleTime(Duration.ZERO);
+		settings.setPollInterval(Duration.ofMillis(50));
+		byte[] hdfc = TestStatements.pdf(TestStatements.HDFC);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		try (StatementIngester ingester = new StatementIngester(TestStatements.gatedParserService(started, release),
+				new ObjectMapper(), settings)) {
+			ingester.start();
+			drop(settings, "statement.pdf", hdfc);
+			assertTrue(started.await(20, TimeUnit.SECONDS));
+			drop(settings, "statement.pdf", hdfc);
+			long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+			while ((long) ingester.stats().get("claimed") < 2 && System.nanoTime() < deadline) {
+				Thread.sleep(20);
+			}
+			assertEquals(2L, ingester.stats().get("claimed"));
+			release.countDown();
+			awaitSucceeded(ingester, 2);
+			assertEquals(0L, ingester.stats().get("failed"));
+		}
+		assertTrue(Files.exists(settings.getResults().resolve("statement.json")));
+		assertTrue(Files.exists(settings.getProcessed().resolve("statement.pdf")));
+		assertEquals(List.of(), processing(settings));
+	}
+
+	/** Writes the file beside the inbox and moves it in, as a feed should, so it is never seen half-written. */
+	private void drop(ParserProperties.Ingest settings, String name, byte[] content) throws IOException {
+		Path staged = Files.write(Files.createTempFile(root, "staged", ".tmp"), content);
+		Files.move(staged, settings.getInbox().resolve(name), StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static List<String> processing(ParserProperties.Ingest settings) throws IOException {
+		try (Stream<Path> files = Files.list(settings.getInbox().resolve(StatementIngester.PROCESSING))) {
+			return files.map(file -> file.getFileName().toString()).toList();
+		}
+	}
+
+	private static void awaitSucceeded(StatementIngester ingester, long count) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+		while ((long) ingester.stats().get("succeeded") < count && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+		}
+		assertEquals(count, ingester.stats().get("succeeded"), ingester.stats()::toString);
+	}
+}
@@ -0,0 +1,69 @@
+package com.demo.service;
+
+import com.demo.TestStatements;
+import com.demo.detection.DocumentFingerprint;
+import com.demo.detection.FingerprintIndex;
+import com.demo.model.CardIssuer;
+import com.demo.model.StatementData;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementParserServiceTest {
+
+	@TempDir
+	Path root;
+
+	@Test
+	void correctsAFingerprintTheHeaderDoesNotBackAndLearnsTheCorrection() throws Exception {
+		byte[] hdfc = TestStatements.pdf(TestStatements.HDFC);
+		// an index sure that documents like this one come from SBI
+		StringBuilder json = new StringBuilder("{\"producer:elsewhere\": {\"HDFC\": 10}");
+		for (String feature : features(hdfc)) {
+			json.append(", \"").append(feature).append("\": {\"SBI\": 10}");
+		}
+		Path file = root.resolve("fingerprints.json");
+		Files.writeString(file, json.append('}'), StandardCharsets.UTF_8);
+		FingerprintIndex index = new FingerprintIndex(true, file, 0.75, 2);
+
+		StatementData data = TestStatements.parserService(index).parseStatement(new ByteArrayInputStream(hdfc));
+		assertEquals(CardIssuer.HDFC, data.getIssuer());
+		assertEquals(1234, data.getCardLastFour());
+
+		index.save();
+		assertTrue(Files.readString(file).contains("\"HDFC\": 1"), Files.readString(file));
+	}
+
+	@Test
+	void learnsNothingFromAParseThatFoundNoFields() throws Exception {
+		Path file = root.resolve("fingerprints.json");
+		FingerprintIndex index = new FingerprintIndex(true, file, 0.75, 2);
+		StatementParserService service = TestStatements.parserService(index);
+
+		byte[] headerOnly = TestStatements.pdf("HDFC Bank Credit Card Statement");
+		assertEquals(CardIssuer.HDFC, service.parseStatement(new ByteArrayInputStream(headerOnly)).getIssuer());
+		assertEquals(0, index.size());
+
+		service.parseStatement(new ByteArrayInputStream(TestStatements.pdf(TestStatements.HDFC)));
+		assertTrue(index.size() > 0);
+		index.save();
+		assertFalse(Files.readString(file).contains("\"HDFC\": 2"));
+	}
+
+	private static List<String> features(byte[] pdf) throws Exception {
+		try (PDDocument document = Loader.loadPDF(pdf)) {
+			return DocumentFingerprint.of(document).getFeatures();
+		}
+	}
+}
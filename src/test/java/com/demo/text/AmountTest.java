@@ -0,0 +1,73 @@
+package com.demo.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AmountTest {
+
+	@Test
+	void readsIndianGroupingIntoPaise() {
+		assertEquals(1234567899L, Amount.parse("1,23,45,678.99"));
+		assertEquals(4567890L, Amount.parse("45,678.90"));
+		assertEquals(4567890L, Amount.parse("45678.9"));
+		assertEquals(50000L, Amount.parse("500"));
+		assertEquals(1000000000L, Amount.parse("1,00,00,000"));
+	}
+
+	@Test
+	void readsCurrencySignAndSuffix() {
+		assertEquals(123450L, Amount.parse("₹1,234.50"));
+		assertEquals(123450L, Amount.parse("Rs. 1,234.50 Dr"));
+		assertEquals(123450L, Amount.parse("INR 1234.50"));
+		assertEquals(-123450L, Amount.parse("rs1,234.50 CR"));
+		assertEquals(-123450L, Amount.parse("-₹ 1,234.50"));
+		assertEquals(123450L, Amount.parse("  1,234.50  "));
+	}
+
+	@Test
+	void rejectsWhatIsNotAnAmount() {
+		String[] others = {"", " ", ",", "Rs.", "1.234", "12a", "1,234.50 Dx", "--5", "12345678901234567", "N/A"};
+		for (String other : others) {
+			assertEquals(Amount.INVALID, Amount.parse(other), other);
+		}
+		assertEquals(Amount.INVALID, Amount.parse(null));
+	}
+
+	@Test
+	void agreesWithStrippedDecimalParsing() {
+		Random random = new Random(16);
+		String alphabet = "0123456789,,.";
+		for (int i = 0; i < 50000; i++) {
+			StringBuilder text = new StringBuilder();
+			int length = 1 + random.nextInt(14);
+			for (int c = 0; c < length; c++) {
+				text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+			assertEquals(expected(text.toString()), Amount.parse(text), text::toString);
+		}
+	}
+
+	@Test
+	void readsRangesOfLargerText() {
+		String line = "Total Amount Due: 1,234.56 as of today";
+		assertEquals(123456L, Amount.parse(line, 18, 26));
+		assertEquals(Amount.INVALID, Amount.parse(line, 0, 26));
+	}
+
+	/** Commas are stripped from the whole number only; decimals never contain them. */
+	private static long expected(String text) {
+		int dot = text.indexOf('.');
+		if (dot >= 0 && text.indexOf(',', dot) >= 0) {
+			return Amount.INVALID;
+		}
+		String stripped = text.replace(",", "");
+		if (!stripped.matches("\\d+(\\.\\d{0,2})?")) {
+			return Amount.INVALID;
+		}
+		return new BigDecimal(stripped.endsWith(".") ? stripped + "0" : stripped).movePointRight(2).longValueExact();
+	}
+}
@@ -0,0 +1,102 @@
+package com.demo.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CardNumberScannerTest {
+
+	/** Each shape and the regex it replaces. */
+	private static final Map<CardShape, Pattern> SHAPES = new LinkedHashMap<>();
+
+	static {
+		SHAPES.put(CardShape.COMPACT_MASK, Pattern.compile("\\d{4}[xX]{8,12}(\\d{4})"));
+		SHAPES.put(CardShape.BIN_MASK, Pattern.compile("\\d{6}[xX]{6,12}(\\d{4})"));
+		SHAPES.put(CardShape.STARRED_MASK, Pattern.compile("\\d{4,6}[\\*x]{4,12}(\\d{4})"));
+		SHAPES.put(CardShape.SPACED_MASK, Pattern.compile("\\d{4}\\s+[xX]{4}\\s+[xX]{4}\\s+(\\d{4})"));
+		SHAPES.put(CardShape.GROUPED_MASK, Pattern.compile("\\d{4}\\s+\\d{2}[xX]{2}\\s+[xX]{4}\\s+(\\d{4})"));
+		SHAPES.put(CardShape.SPLIT_MASK, Pattern.compile("(?:\\d{4}\\s+)?\\d{4}\\s+\\d{1,2}[xX]{1,2}\\s+[xX]{2,4}\\s+(\\d{4})"));
+		SHAPES.put(CardShape.SPACED_DIGITS, Pattern.compile("\\d{4}\\s+\\d{4}\\s+\\d{4}\\s+(\\d{4})"));
+		SHAPES.put(CardShape.FOUR_GROUPS, Pattern.compile("\\d{4}[\\s-]\\d{4}[\\s-]\\d{4}[\\s-](\\d{4})"));
+		SHAPES.put(CardShape.ANY_PAN, Pattern.compile("(?:\\*|x|X|\\d){11,12}(\\d{4})|(?:\\d{4}[\\s-]){3}(\\d{4})"));
+	}
+
+	/** The cascades the parsers run, in their order. */
+	private static final List<List<CardShape>> CASCADES = List.of(
+			List.of(CardShape.STARRED_MASK, CardShape.SPACED_DIGITS),
+			List.of(CardShape.SPLIT_MASK, CardShape.GROUPED_MASK, CardShape.FOUR_GROUPS),
+			List.of(CardShape.SPACED_MASK, CardShape.FOUR_GROUPS),
+			List.of(CardShape.BIN_MASK, CardShape.SPACED_MASK),
+			List.of(CardShape.COMPACT_MASK, CardShape.ANY_PAN, CardShape.SPLIT_MASK, CardShape.STARRED_MASK));
+
+	private static final String[] TOKENS = {
+			"0", "1", "12", "1234", "123456", "12345678", "4321 ", "5555-", "x", "X", "xx", "XXXX", "xxxxxx",
+			"XXXXXXXX", "*", "****", " ", "  ", "\t", "\n", "\r\n", "-", "/", "Card No: ", "a", "_", "é", " "};
+
+	@Test
+	void eachShapeFindsWhatItsRegexFinds() {
+		Random random = new Random(14);
+		for (int i = 0; i < 20000; i++) {
+			String text = randomText(random);
+			for (Map.Entry<CardShape, Pattern> shape : SHAPES.entrySet()) {
+				assertEquals(firstGroup(List.of(shape.getValue()), text),
+						CardNumberScanner.of(shape.getKey()).findLastFour(text),
+						() -> shape.getValue() + " on [" + text + "]");
+			}
+		}
+	}
+
+	@Test
+	void cascadeFindsWhatTheRegexesFindInTurn() {
+		Random random = new Random(41);
+		for (int i = 0; i < 20000; i++) {
+			String text = randomText(random);
+			for (List<CardShape> cascade : CASCADES) {
+				List<Pattern> regexes = cascade.stream().map(SHAPES::get).toList();
+				assertEquals(firstGroup(regexes, text),
+						CardNumberScanner.of(cascade.toArray(new CardShape[0])).findLastFour(text),
+						() -> regexes + " on [" + text + "]");
+			}
+		}
+	}
+
+	@Test
+	void reportsSpanOfLastFourDigits() {
+		String text = "Card: 4315 XXXX XXXX 1234 issued";
+		long span = CardNumberScanner.of(CardShape.SPACED_MASK).find(text);
+		assertEquals(21, Span.start(span));
+		assertEquals(25, Span.end(span));
+		assertNull(CardNumberScanner.of(CardShape.COMPACT_MASK).findLastFour(text));
+	}
+
+	private static String firstGroup(List<Pattern> regexes, String text) {
+		for (Pattern regex : regexes) {
+			Matcher matcher = regex.matcher(text);
+			if (matcher.find()) {
+				for (int g = matcher.groupCount(); g >= 1; g--) {
+					if (matcher.group(g) != null) {
+						return matcher.group(g);
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	private static String randomText(Random random) {
+		StringBuilder text = new StringBuilder();
+		int tokens = random.nextInt(24);
+		for (int t = 0; t < tokens; t++) {
+			text.append(TOKENS[random.nextInt(TOKENS.length)]);
+		}
+		return text.toString();
+	}
+}
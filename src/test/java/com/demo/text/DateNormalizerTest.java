@@ -0,0 +1,46 @@
+package com.demo.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DateNormalizerTest {
+
+	@Test
+	void normalizesEveryPrintedForm() {
+		String[] forms = {"05/03/2024", "5/3/2024", "5-3-24", "05.03.2024", "5-Mar-24", "05-MAR-2024",
+				"5 March 2024", "March 5, 2024", "Mar 05 2024", "  5/3/2024 "};
+		for (String form : forms) {
+			assertEquals("05/03/2024", DateNormalizer.normalize(form), form);
+			assertEquals(LocalDate.of(2024, 3, 5), DateNormalizer.parse(form), form);
+		}
+	}
+
+	@Test
+	void pivotsTwoDigitYearsAtFifty() {
+		assertEquals("01/01/2049", DateNormalizer.normalize("1-Jan-49"));
+		assertEquals("01/01/1950", DateNormalizer.normalize("1-Jan-50"));
+	}
+
+	@Test
+	void leavesAnythingElseUnchanged() {
+		String[] others = {"N/A", "31/02/2024", "29/02/2023", "5/13/2024", "5/3/202", "5-Foo-24", "Ma 5, 2024",
+				"5/3/2024 to 6/4/2024", "", "123/4/2024"};
+		for (String other : others) {
+			assertEquals(other, DateNormalizer.normalize(other), other);
+			assertNull(DateNormalizer.parse(other), other);
+		}
+		assertNull(DateNormalizer.normalize(null));
+		assertEquals(DateNormalizer.INVALID, DateNormalizer.toEpochDay(null));
+	}
+
+	@Test
+	void readsRangesWithoutTheMemo() {
+		String text = "due on 29/02/2024.";
+		assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), DateNormalizer.toEpochDay(text, 7, 17));
+		assertEquals(DateNormalizer.INVALID, DateNormalizer.toEpochDay(text, 0, 17));
+	}
+}
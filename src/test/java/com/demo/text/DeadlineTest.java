@@ -0,0 +1,72 @@
+package com.demo.text;
+
+import com.demo.TestStatements;
+import com.demo.pdf.PdfSource;
+import com.demo.service.StatementParserService;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineTest {
+
+	private final StatementParserService parserService = TestStatements.parserService();
+
+	@Test
+	void stopsOnceExpiredOrCancelled() {
+		Deadline open = Deadline.after(Duration.ofMinutes(1));
+		assertDoesNotThrow(open::check);
+		open.cancel();
+		assertEquals("Parsing was cancelled", assertThrows(DeadlineExceededException.class, open::check).getMessage());
+
+		Deadline expired = Deadline.after(Duration.ZERO);
+		assertTrue(expired.isExpired());
+		assertEquals("Parsing took longer than 0 s and was stopped",
+				assertThrows(DeadlineExceededException.class, expired::check).getMessage());
+	}
+
+	@Test
+	void treatsAnInterruptAsCancellationAndKeepsTheFlag() {
+		Thread.currentThread().interrupt();
+		try {
+			assertThrows(DeadlineExceededException.class, Deadline.none()::check);
+			assertTrue(Thread.currentThread().isInterrupted());
+		} finally {
+			Thread.interrupted();
+		}
+	}
+
+	@Test
+	void stopsRegexSearches() {
+		Deadline deadline = Deadline.none();
+		MatchBudget budget = new MatchBudget(Duration.ofSeconds(1), Duration.ofSeconds(1), deadline);
+		GuardedCharSequence input = budget.guard("Total Dues: 45,678.90");
+		Pattern dues = Pattern.compile("Total Dues: ([\\d,.]+)");
+		assertTrue(budget.search("dues", input, () -> dues.matcher(input).find()));
+		deadline.cancel();
+		assertThrows(DeadlineExceededException.class, () -> budget.search("dues", input, () -> dues.matcher(input).find()));
+	}
+
+	@Test
+	void stopsAParseBeforeItReadsThePdf() throws Exception {
+		byte[] pdf = TestStatements.pdf(TestStatements.HDFC);
+		Deadline deadline = parserService.newDeadline();
+		deadline.cancel();
+		try (PdfSource source = PdfSource.spool(new ByteArrayInputStream(pdf))) {
+			assertThrows(DeadlineExceededException.class, () -> parserService.parseStatement(source, null, deadline));
+		}
+		try (PdfSource source = PdfSource.spool(new ByteArrayInputStream(pdf))) {
+			assertThrows(DeadlineExceededException.class,
+					() -> parserService.parseSummary(source, null, Deadline.after(Duration.ZERO)));
+		}
+		try (PdfSource source = PdfSource.spool(new ByteArrayInputStream(pdf))) {
+			assertEquals(1234, parserService.parseStatement(source, null).getCardLastFour());
+		}
+	}
+}
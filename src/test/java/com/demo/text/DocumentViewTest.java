@@ -0,0 +1,38 @@
+package com.demo.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentViewTest {
+
+	private final DocumentView view = DocumentView.of("Card No: 1234\nCredit Limit 50,000\nTotal Amount Due 1,234.00\n");
+
+	@Test
+	void findsKeywordsOnlyWhollyInsideTheWindow() {
+		int limit = view.indexOf("credit limit");
+		TextWindow window = view.window(limit + 2, view.length());
+		assertFalse(window.contains("credit limit"));
+		assertEquals(-1, window.indexOf("card no"));
+
+		TextWindow head = view.head(limit + 6);
+		assertEquals(limit, head.indexOf("credit"));
+		assertFalse(head.contains("credit limit"));
+		assertTrue(head.containsAny(List.of("debit", "card no")));
+		assertEquals(0, head.indexOf("card no"));
+	}
+
+	@Test
+	void boundsAnchorAndPlainSearchesAlike() {
+		int due = view.indexOf("total amount due");
+		assertEquals(due, view.indexOf("total amount due", 0, due + 16));
+		assertEquals(-1, view.indexOf("total amount due", 0, due + 15));
+		assertEquals(due + 6, view.indexOf("amount", due, due + 12));
+		assertEquals(-1, view.indexOf("amount", due, due + 11));
+		assertEquals(-1, view.indexOf("amount", due + 7, view.length()));
+	}
+}
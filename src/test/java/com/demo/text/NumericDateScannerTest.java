@@ -0,0 +1,68 @@
+package com.demo.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NumericDateScannerTest {
+
+	private static final Pattern WORD_BOUNDED = Pattern.compile("\\b(\\d{1,2}/\\d{1,2}/\\d{4})\\b");
+	private static final Pattern ANYWHERE = Pattern.compile("(\\d{1,2}/\\d{1,2}/\\d{4})");
+
+	private static final String[] TOKENS = {
+			"0", "1", "12", "123", "2024", "20245", "/", "//", " ", "\n", "-", "a", "Z", "_", "é", "́",
+			"𝐀", "₹", ".", ",", "01/02/2024", "1/2/2024", "31/12/20245"};
+
+	@Test
+	void findsEveryDateTheRegexesFind() {
+		Random random = new Random(15);
+		for (int i = 0; i < 30000; i++) {
+			String text = randomText(random);
+			assertEquals(regexSpans(WORD_BOUNDED, text), scannerSpans(NumericDateScanner.WORD_BOUNDED, text), text);
+			assertEquals(regexSpans(ANYWHERE, text), scannerSpans(NumericDateScanner.ANYWHERE, text), text);
+		}
+	}
+
+	@Test
+	void respectsWordBoundaries() {
+		assertEquals(List.of(), scannerSpans(NumericDateScanner.WORD_BOUNDED, "ref1/2/2024 and 1/2/20245"));
+		assertEquals(List.of(4, 12), scannerSpans(NumericDateScanner.WORD_BOUNDED, "on: 1/2/2024."));
+		assertEquals(List.of(1, 10), scannerSpans(NumericDateScanner.ANYWHERE, "123/4/20245"));
+	}
+
+	private static List<Integer> regexSpans(Pattern pattern, String text) {
+		List<Integer> spans = new ArrayList<>();
+		Matcher matcher = pattern.matcher(text);
+		while (matcher.find()) {
+			spans.add(matcher.start(1));
+			spans.add(matcher.end(1));
+		}
+		return spans;
+	}
+
+	private static List<Integer> scannerSpans(NumericDateScanner scanner, String text) {
+		List<Integer> spans = new ArrayList<>();
+		long span = scanner.find(text);
+		while (span != Span.NONE) {
+			spans.add(Span.start(span));
+			spans.add(Span.end(span));
+			span = scanner.find(text, Span.end(span));
+		}
+		return spans;
+	}
+
+	private static String randomText(Random random) {
+		StringBuilder text = new StringBuilder();
+		int tokens = random.nextInt(20);
+		for (int t = 0; t < tokens; t++) {
+			text.append(TOKENS[random.nextInt(TOKENS.length)]);
+		}
+		return text.toString();
+	}
+}